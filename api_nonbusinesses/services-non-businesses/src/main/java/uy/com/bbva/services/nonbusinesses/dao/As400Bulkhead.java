@@ -0,0 +1,117 @@
+package uy.com.bbva.services.nonbusinesses.dao;
+
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Particion de la capacidad AS400 para una clase de carga: limita cuantas sentencias de esa clase usan el pool a la vez.
+ * Con cero permisos no limita y solo mide; la espera por un permiso es acotada y al vencer se rechaza la operacion.
+ */
+public final class As400Bulkhead {
+
+    private static final String ERROR_SATURATED = "No hay capacidad disponible en AS400 para la carga ";
+
+    private final String name;
+    private final int maxPermits;
+    private final long maxWaitMillis;
+    private final Semaphore semaphore;
+
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final LongAccumulator peakInUse = new LongAccumulator(Math::max, 0L);
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    public As400Bulkhead(final String name, final int maxPermits, final long maxWaitMillis) {
+        this.name = name;
+        this.maxPermits = maxPermits;
+        this.maxWaitMillis = maxWaitMillis;
+        this.semaphore = maxPermits > 0 ? new Semaphore(maxPermits, true) : null;
+    }
+
+    public void acquire() throws ServiceException {
+        if (semaphore != null) {
+            final long start = System.nanoTime();
+            final boolean granted;
+            try {
+                granted = semaphore.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.increment();
+                throw new ServiceException(this.getClass().getCanonicalName(), ERROR_SATURATED + name, e);
+            }
+            totalWaitNanos.add(System.nanoTime() - start);
+            if (!granted) {
+                rejected.increment();
+                throw new ServiceException(this.getClass().getCanonicalName(), ERROR_SATURATED + name,
+                        new Exception("Sin permisos luego de " + maxWaitMillis + " ms"));
+            }
+        }
+        acquired.increment();
+        peakInUse.accumulate(inUse.incrementAndGet());
+    }
+
+    public void release() {
+        inUse.decrementAndGet();
+        if (semaphore != null) {
+            semaphore.release();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(maxPermits, inUse.get(), peakInUse.get(), semaphore == null ? 0 : semaphore.getQueueLength(),
+                acquired.sum(), rejected.sum(), totalWaitNanos.sum());
+    }
+
+    public static final class Snapshot {
+        private final int maxPermits;
+        private final int inUse;
+        private final long peakInUse;
+        private final int waiting;
+        private final long acquired;
+        private final long rejected;
+        private final long totalWaitNanos;
+
+        private Snapshot(final int maxPermits, final int inUse, final long peakInUse, final int waiting,
+                         final long acquired, final long rejected, final long totalWaitNanos) {
+            this.maxPermits = maxPermits;
+            this.inUse = inUse;
+            this.peakInUse = peakInUse;
+            this.waiting = waiting;
+            this.acquired = acquired;
+            this.rejected = rejected;
+            this.totalWaitNanos = totalWaitNanos;
+        }
+
+        public int getMaxPermits() { return maxPermits; }
+
+        public int getInUse() { return inUse; }
+
+        public long getPeakInUse() { return peakInUse; }
+
+        public int getWaiting() { return waiting; }
+
+        public long getAcquired() { return acquired; }
+
+        public long getRejected() { return rejected; }
+
+        // Proporcion de permisos ocupados; sin limite no hay saturacion
+        public double getSaturation() {
+            return maxPermits == 0 ? 0 : (double) inUse / maxPermits;
+        }
+
+        public long getAverageWaitMillis() {
+            final long attempts = acquired + rejected;
+            return attempts == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos / attempts);
+        }
+    }
+}
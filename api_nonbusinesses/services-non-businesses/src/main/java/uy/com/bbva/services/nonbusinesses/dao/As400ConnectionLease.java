@@ -0,0 +1,184 @@
+package uy.com.bbva.services.nonbusinesses.dao;
+
+import uy.com.bbva.services.commons.exceptions.BusinessException;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conexion AS400 compartida por todas las llamadas al DAO dentro de una misma operacion del servicio.
+ * La conexion se obtiene de forma perezosa en el primer uso y se libera al terminar la operacion mas externa.
+ * El DataSource debe ser el mismo pool que usa ManagerDataAccessAs400: el lease reemplaza un prestamo por sentencia
+ * por uno por operacion, no suma conexiones. Ninguna llamada externa (DGI, riesgos) debe quedar dentro de un lease
+ * que ya tomo la conexion: la retendria, y con transaccion sus bloqueos, mientras espera.
+ * Las sentencias servidas por conexion obtenida muestran cuantos prestamos al pool se ahorran.
+ */
+public final class As400ConnectionLease {
+
+    private static final ThreadLocal<As400ConnectionLease> CURRENT = new ThreadLocal<>();
+
+    private static final LongAdder CONNECTIONS_ACQUIRED = new LongAdder();
+    private static final LongAdder STATEMENTS_SERVED = new LongAdder();
+    private static final LongAdder HOLD_NANOS = new LongAdder();
+
+    private static final String ERROR_COMMIT = "Ocurrio un error al confirmar la transaccion en AS400";
+
+    private final boolean transactional;
+    private Connection connection;
+    private long acquiredAtNanos;
+    private As400StatementCache statementCache;
+    private int depth;
+
+    private As400ConnectionLease(final boolean transactional) {
+        this.transactional = transactional;
+    }
+
+    public static <T> T call(final boolean transactional, final LeasedCall<T> call) throws ServiceException {
+        final As400ConnectionLease lease = open(transactional);
+        boolean completed = false;
+        try {
+            final T result = call.execute();
+            completed = true;
+            return result;
+        } catch (BusinessException e) {
+            // Los rechazos de negocio auditan antes de lanzar: esa auditoria se confirma igual
+            completed = true;
+            throw e;
+        } finally {
+            lease.release(completed);
+        }
+    }
+
+    public static void run(final boolean transactional, final LeasedRun run) throws ServiceException {
+        call(transactional, () -> {
+            run.execute();
+            return null;
+        });
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    public static boolean isTransactional() {
+        final As400ConnectionLease lease = CURRENT.get();
+        return lease != null && lease.transactional;
+    }
+
+    public static Connection connection(final DataSource dataSource) throws SQLException {
+        final As400ConnectionLease lease = CURRENT.get();
+        if (lease.connection == null) {
+            lease.connection = dataSource.getConnection();
+            lease.acquiredAtNanos = System.nanoTime();
+            CONNECTIONS_ACQUIRED.increment();
+            if (lease.transactional) {
+                lease.connection.setAutoCommit(false);
+            }
+        }
+        STATEMENTS_SERVED.increment();
+        return lease.connection;
+    }
+
+    public static As400StatementCache statementCache(final int maxSize) {
+        final As400ConnectionLease lease = CURRENT.get();
+        if (lease.statementCache == null) {
+            lease.statementCache = new As400StatementCache(maxSize);
+        }
+        return lease.statementCache;
+    }
+
+    public static long getConnectionsAcquired() {
+        return CONNECTIONS_ACQUIRED.sum();
+    }
+
+    public static long getStatementsServed() {
+        return STATEMENTS_SERVED.sum();
+    }
+
+    public static double getStatementsPerConnection() {
+        final long acquired = CONNECTIONS_ACQUIRED.sum();
+        return acquired == 0 ? 0 : (double) STATEMENTS_SERVED.sum() / acquired;
+    }
+
+    public static long getAverageHoldMillis() {
+        final long acquired = CONNECTIONS_ACQUIRED.sum();
+        return acquired == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(HOLD_NANOS.sum() / acquired);
+    }
+
+    private static As400ConnectionLease open(final boolean transactional) {
+        As400ConnectionLease lease = CURRENT.get();
+        if (lease == null) {
+            lease = new As400ConnectionLease(transactional);
+            CURRENT.set(lease);
+        }
+        lease.depth++;
+        return lease;
+    }
+
+    private void release(final boolean completed) throws ServiceException {
+        if (--depth > 0) {
+            return;
+        }
+        CURRENT.remove();
+
+        if (statementCache != null) {
+            statementCache.closeAll();
+        }
+
+        if (connection == null) {
+            return;
+        }
+
+        try {
+            if (transactional && completed) {
+                connection.commit();
+            }
+        } catch (SQLException sqlException) {
+            rollbackQuietly();
+            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_COMMIT, sqlException);
+        } finally {
+            if (transactional && !completed) {
+                rollbackQuietly();
+            }
+            closeQuietly();
+            HOLD_NANOS.add(System.nanoTime() - acquiredAtNanos);
+        }
+    }
+
+    private void rollbackQuietly() {
+        try {
+            connection.rollback();
+        } catch (SQLException ignored) {
+            // Se preserva la excepcion original de la operacion
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            if (transactional) {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException ignored) {
+            // La conexion se cierra igual
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // La conexion vuelve al pool igual; no hay nada mas que hacer
+        }
+    }
+
+    @FunctionalInterface
+    public interface LeasedCall<T> {
+        T execute() throws ServiceException;
+    }
+
+    @FunctionalInterface
+    public interface LeasedRun {
+        void execute() throws ServiceException;
+    }
+}
@@ -0,0 +1,61 @@
+package uy.com.bbva.services.nonbusinesses.dao;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Set;
+
+/**
+ * Clasificacion de los errores JDBC del AS400 por SQLState y codigo de DB2 for i.
+ * Conectividad: la conexion o el servidor no estan disponibles. Timeout: la sentencia se cancelo por superar su tiempo
+ * maximo; reintentarla repetiria la espera sobre un AS400 que ya no responde. Transitorio: la sentencia no tuvo efecto y
+ * puede reintentarse (bloqueos, deadlocks). Permanente: reintentar daria el mismo resultado (datos, sintaxis, permisos).
+ */
+public final class As400SqlErrors {
+
+    public enum Kind {
+        TRANSIENT,
+        PERMANENT,
+        CONNECTIVITY,
+        TIMEOUT
+    }
+
+    // SQL0911 deadlock o timeout con rollback, SQL0913 objeto o fila en uso
+    private static final Set<Integer> TRANSIENT_VENDOR_CODES = Set.of(-911, -913);
+    // 40001 serializacion/deadlock, 57033 bloqueo no disponible
+    private static final Set<String> TRANSIENT_SQL_STATES = Set.of("40001", "57033");
+    // 57014 sentencia cancelada, por el timeout de la sentencia o del plazo del pedido
+    private static final String CANCELED_SQL_STATE = "57014";
+
+    private As400SqlErrors() {
+    }
+
+    public static Kind classify(final SQLException exception) {
+        final String sqlState = exception.getSQLState();
+
+        if (exception instanceof SQLNonTransientConnectionException || exception instanceof SQLTransientConnectionException
+                || exception instanceof SQLRecoverableException || (sqlState != null && sqlState.startsWith("08"))) {
+            return Kind.CONNECTIVITY;
+        }
+        if (exception instanceof SQLTimeoutException || CANCELED_SQL_STATE.equals(sqlState)) {
+            return Kind.TIMEOUT;
+        }
+        if (exception instanceof SQLTransactionRollbackException || TRANSIENT_SQL_STATES.contains(sqlState) || TRANSIENT_VENDOR_CODES.contains(exception.getErrorCode())) {
+            return Kind.TRANSIENT;
+        }
+        return Kind.PERMANENT;
+    }
+
+    // Para los llamadores que reciben la ServiceException: la causa original conserva el SQLException
+    public static Kind classify(final Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                return classify((SQLException) cause);
+            }
+        }
+        return Kind.PERMANENT;
+    }
+}
@@ -0,0 +1,81 @@
+package uy.com.bbva.services.nonbusinesses.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache LRU de sentencias preparadas de una conexion AS400, indexada por el texto SQL.
+ * Vive mientras vive el lease de la conexion y cierra todas sus sentencias al liberarla.
+ */
+public final class As400StatementCache {
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong EVICTIONS = new AtomicLong();
+
+    private final Map<String, PreparedStatement> statements;
+
+    As400StatementCache(final int maxSize) {
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > maxSize) {
+                    EVICTIONS.incrementAndGet();
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public PreparedStatement get(final String sql) throws SQLException {
+        final PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            MISSES.incrementAndGet();
+            return null;
+        }
+        HITS.incrementAndGet();
+        statement.clearParameters();
+        return statement;
+    }
+
+    public void put(final String sql, final PreparedStatement statement) {
+        statements.put(sql, statement);
+    }
+
+    public boolean contains(final PreparedStatement statement) {
+        return statements.containsValue(statement);
+    }
+
+    public static long getHits() {
+        return HITS.get();
+    }
+
+    public static long getMisses() {
+        return MISSES.get();
+    }
+
+    public static long getEvictions() {
+        return EVICTIONS.get();
+    }
+
+    void closeAll() {
+        final List<PreparedStatement> cached = new ArrayList<>(statements.values());
+        statements.clear();
+        cached.forEach(As400StatementCache::closeQuietly);
+    }
+
+    private static void closeQuietly(final PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // Una sentencia que no cierra no debe impedir liberar la conexion
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package uy.com.bbva.services.nonbusinesses.dao;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metricas por sentencia AS400: ejecuciones, errores, filas y latencia.
+ * Las sentencias se identifican por un id estable, no por el texto SQL.
+ */
+public final class As400StatementMetrics {
+
+    private static final Map<String, Counters> COUNTERS = new ConcurrentHashMap<>();
+
+    private As400StatementMetrics() {
+    }
+
+    public static void record(final String statementId, final long elapsedNanos, final long rows, final boolean failed) {
+        final Counters counters = COUNTERS.computeIfAbsent(statementId, id -> new Counters());
+        counters.executions.increment();
+        counters.totalNanos.add(elapsedNanos);
+        counters.maxNanos.accumulate(elapsedNanos);
+        counters.rows.add(rows);
+        if (failed) {
+            counters.errors.increment();
+        }
+    }
+
+    public static Map<String, Snapshot> snapshot() {
+        final Map<String, Snapshot> snapshot = new TreeMap<>();
+        COUNTERS.forEach((statementId, counters) -> snapshot.put(statementId, counters.snapshot()));
+        return snapshot;
+    }
+
+    public static void reset() {
+        COUNTERS.clear();
+    }
+
+    private static final class Counters {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        private Snapshot snapshot() {
+            return new Snapshot(executions.sum(), errors.sum(), rows.sum(), totalNanos.sum(), maxNanos.get());
+        }
+    }
+
+    public static final class Snapshot {
+        private final long executions;
+        private final long errors;
+        private final long rows;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        private Snapshot(final long executions, final long errors, final long rows, final long totalNanos, final long maxNanos) {
+            this.executions = executions;
+            this.errors = errors;
+            this.rows = rows;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getExecutions() { return executions; }
+
+        public long getErrors() { return errors; }
+
+        public long getRows() { return rows; }
+
+        public long getAverageMillis() {
+            return executions == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos / executions);
+        }
+
+        public long getMaxMillis() { return TimeUnit.NANOSECONDS.toMillis(maxNanos); }
+    }
+}
@@ -0,0 +1,90 @@
+package uy.com.bbva.services.nonbusinesses.dao;
+
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Plazo del pedido en curso, asociado al hilo que lo atiende.
+ * El servicio lo fija al entrar y cada acceso al AS400, a Mongo o a los servicios externos usa solo el tiempo que queda;
+ * cuando se agota, el trabajo pendiente se abandona en lugar de seguir para un llamador que ya no espera.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private static final String ERROR_EXPIRED = "Se agoto el tiempo disponible para el pedido";
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Ejecuta con un plazo de budgetMillis; sin presupuesto (cero o negativo) no agrega plazo.
+     * Un plazo anidado nunca extiende el del pedido que lo contiene.
+     */
+    public static <T> T call(final long budgetMillis, final DeadlineCall<T> call) throws ServiceException {
+        final Long previous = DEADLINE_NANOS.get();
+        if (budgetMillis > 0) {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+            DEADLINE_NANOS.set(previous == null ? deadline : Math.min(previous, deadline));
+        }
+        try {
+            return call.execute();
+        } finally {
+            if (previous == null) {
+                DEADLINE_NANOS.remove();
+            } else {
+                DEADLINE_NANOS.set(previous);
+            }
+        }
+    }
+
+    public static void run(final long budgetMillis, final DeadlineRun run) throws ServiceException {
+        call(budgetMillis, () -> {
+            run.execute();
+            return null;
+        });
+    }
+
+    public static boolean isSet() {
+        return DEADLINE_NANOS.get() != null;
+    }
+
+    /**
+     * Milisegundos que quedan; Long.MAX_VALUE si el pedido no tiene plazo.
+     */
+    public static long remainingMillis() {
+        final Long deadline = DEADLINE_NANOS.get();
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    /**
+     * Presupuesto para continuar el pedido en otro hilo: lo que queda (al menos 1 ms) o cero si no tiene plazo.
+     */
+    public static long handoffBudgetMillis() {
+        return isSet() ? Math.max(1, remainingMillis()) : 0;
+    }
+
+    /**
+     * Lanza una ServiceException si el plazo ya vencio; source identifica la operacion que no llego a empezar.
+     */
+    public static void check(final String source) throws ServiceException {
+        if (remainingMillis() == 0) {
+            throw new ServiceException(source, ERROR_EXPIRED, new TimeoutException(ERROR_EXPIRED));
+        }
+    }
+
+    @FunctionalInterface
+    public interface DeadlineCall<T> {
+        T execute() throws ServiceException;
+    }
+
+    @FunctionalInterface
+    public interface DeadlineRun {
+        void execute() throws ServiceException;
+    }
+}
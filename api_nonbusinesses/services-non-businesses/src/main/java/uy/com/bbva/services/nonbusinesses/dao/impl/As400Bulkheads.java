@@ -0,0 +1,55 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uy.com.bbva.services.nonbusinesses.dao.As400Bulkhead;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Particiones de la capacidad AS400 por clase de carga: lecturas, escrituras de negocio y auditoria.
+ * Una rafaga de auditoria o de altas lentas agota solo su particion y no deja sin conexiones a las lecturas.
+ */
+@Component
+public class As400Bulkheads implements InitializingBean {
+
+    public enum Workload {
+        READ,
+        BUSINESS_WRITE,
+        AUDIT_WRITE
+    }
+
+    @Value("${api.non-businesses.as400.bulkhead.read.permits:0}")
+    private int readPermits;
+
+    @Value("${api.non-businesses.as400.bulkhead.business-write.permits:0}")
+    private int businessWritePermits;
+
+    @Value("${api.non-businesses.as400.bulkhead.audit-write.permits:0}")
+    private int auditWritePermits;
+
+    @Value("${api.non-businesses.as400.bulkhead.max-wait-ms:100}")
+    private long maxWaitMillis;
+
+    private final Map<Workload, As400Bulkhead> bulkheads = new EnumMap<>(Workload.class);
+
+    @Override
+    public void afterPropertiesSet() {
+        bulkheads.put(Workload.READ, new As400Bulkhead(Workload.READ.name(), readPermits, maxWaitMillis));
+        bulkheads.put(Workload.BUSINESS_WRITE, new As400Bulkhead(Workload.BUSINESS_WRITE.name(), businessWritePermits, maxWaitMillis));
+        bulkheads.put(Workload.AUDIT_WRITE, new As400Bulkhead(Workload.AUDIT_WRITE.name(), auditWritePermits, maxWaitMillis));
+    }
+
+    public As400Bulkhead get(final Workload workload) {
+        return bulkheads.get(workload);
+    }
+
+    public Map<String, As400Bulkhead.Snapshot> snapshot() {
+        final Map<String, As400Bulkhead.Snapshot> snapshot = new TreeMap<>();
+        bulkheads.forEach((workload, bulkhead) -> snapshot.put(workload.name(), bulkhead.snapshot()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,148 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker de conectividad AS400.
+ * Se abre tras varias fallas de conexion seguidas y mientras esta abierto rechaza sin tocar el pool ni esperar timeouts
+ * de socket; vencido el intervalo deja pasar una sola operacion de prueba que decide si cierra o vuelve a abrir.
+ */
+@Component
+public class As400CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        CONNECTIVITY_FAILURE,
+        // La operacion no llego a ejecutarse: no aporta informacion sobre el AS400
+        IGNORED
+    }
+
+    private static final String ERROR_OPEN = "El AS400 no esta disponible, se rechaza la operacion sin intentarla";
+
+    @Value("${api.non-businesses.as400.circuit-breaker.enabled:false}")
+    private boolean enabled;
+
+    @Value("${api.non-businesses.as400.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${api.non-businesses.as400.circuit-breaker.open-ms:5000}")
+    private long openMillis;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder openings = new LongAdder();
+
+    // Cerrojo explicito en lugar de synchronized: un hilo virtual que espera el cerrojo no bloquea su hilo portador
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile State state = State.CLOSED;
+    private volatile int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+
+    /**
+     * Devuelve true cuando la operacion admitida es la prueba del circuito semiabierto; se pasa igual a release.
+     */
+    public boolean acquire() throws ServiceException {
+        if (!enabled) {
+            return false;
+        }
+        final Boolean probe = tryAcquire();
+        if (probe == null) {
+            rejected.increment();
+            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_OPEN, new Exception("Circuito abierto"));
+        }
+        return probe;
+    }
+
+    public void release(final Outcome outcome, final boolean probe) {
+        if (enabled) {
+            onOutcome(outcome, probe);
+        }
+    }
+
+    // null si se rechaza; true si es la operacion de prueba
+    private Boolean tryAcquire() {
+        // Camino comun sin cerrojo: con el circuito cerrado no hay nada que coordinar
+        if (state == State.CLOSED) {
+            return false;
+        }
+        lock.lock();
+        try {
+            if (state == State.CLOSED) {
+                return false;
+            }
+            if (state == State.OPEN && System.nanoTime() - openedAtNanos >= TimeUnit.MILLISECONDS.toNanos(openMillis)) {
+                state = State.HALF_OPEN;
+            }
+            if (state == State.HALF_OPEN && !probeInFlight) {
+                probeInFlight = true;
+                return true;
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onOutcome(final Outcome outcome, final boolean probe) {
+        // Un exito con el circuito cerrado y sin fallas previas no cambia nada: se evita el cerrojo
+        if (outcome == Outcome.SUCCESS && !probe && state == State.CLOSED && consecutiveFailures == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (probe) {
+                probeInFlight = false;
+            }
+
+            switch (outcome) {
+                case SUCCESS:
+                    consecutiveFailures = 0;
+                    if (probe) {
+                        state = State.CLOSED;
+                    }
+                    break;
+                case CONNECTIVITY_FAILURE:
+                    consecutiveFailures++;
+                    if (probe || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                        open();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        openings.increment();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getOpenings() {
+        return openings.sum();
+    }
+}
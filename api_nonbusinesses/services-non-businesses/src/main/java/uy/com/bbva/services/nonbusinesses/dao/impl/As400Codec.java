@@ -0,0 +1,100 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Conversion de los formatos CHAR del AS400: fechas yyyyMMdd y textos de largo fijo completados con blancos.
+ * Sin estado y seguro para hilos; no crea formateadores ni calendarios por llamada.
+ */
+final class As400Codec {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int DATE_LENGTH = 8;
+    private static final String NO_DATE = "00000000";
+
+    private As400Codec() {
+    }
+
+    /**
+     * Formatea la fecha como yyyyMMdd en GMT.
+     */
+    static String formatDate(final Date date) {
+        final LocalDate gmtDate = LocalDate.ofEpochDay(Math.floorDiv(date.getTime(), MILLIS_PER_DAY));
+        final char[] chars = new char[DATE_LENGTH];
+        writeDigits(chars, 0, 4, gmtDate.getYear());
+        writeDigits(chars, 4, 2, gmtDate.getMonthValue());
+        writeDigits(chars, 6, 2, gmtDate.getDayOfMonth());
+        return new String(chars);
+    }
+
+    /**
+     * Interpreta un CHAR yyyyMMdd; lanza DateTimeException si no es una fecha valida.
+     */
+    static LocalDate parseDate(final String value) {
+        if (value == null || value.length() != DATE_LENGTH) {
+            throw new DateTimeException("Fecha AS400 invalida: " + value);
+        }
+        return LocalDate.of(readDigits(value, 0, 4), readDigits(value, 4, 2), readDigits(value, 6, 2));
+    }
+
+    /**
+     * Interpreta un CHAR yyyyMMdd con la tolerancia del formateador lenient que reemplaza: mes y dia fuera de rango se
+     * trasladan (19900231 es 1990-03-03). Nulo, blancos o ceros son "sin fecha" y devuelven null.
+     */
+    static LocalDate parseLenientDate(final String value) {
+        if (value == null || value.isBlank() || NO_DATE.equals(value)) {
+            return null;
+        }
+        if (value.length() != DATE_LENGTH) {
+            throw new DateTimeException("Fecha AS400 invalida: " + value);
+        }
+        return LocalDate.of(readDigits(value, 0, 4), 1, 1)
+                .plusMonths(readDigits(value, 4, 2) - 1L)
+                .plusDays(readDigits(value, 6, 2) - 1L);
+    }
+
+    /**
+     * Interpreta un CHAR yyyyMMdd como el inicio de ese dia en la zona del servidor.
+     */
+    static Date parseStartOfDay(final String value) {
+        return startOfDay(parseDate(value));
+    }
+
+    static Date startOfDay(final LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Quita los blancos de relleno; devuelve la misma instancia cuando no hay nada que quitar.
+     */
+    static String text(final String value) {
+        return value == null ? null : value.trim();
+    }
+
+    static String textOrEmpty(final String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    private static void writeDigits(final char[] chars, final int offset, final int length, final int value) {
+        int remaining = value;
+        for (int i = offset + length - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+    }
+
+    private static int readDigits(final String value, final int offset, final int length) {
+        int result = 0;
+        for (int i = offset; i < offset + length; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new DateTimeException("Fecha AS400 invalida: " + value);
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+}
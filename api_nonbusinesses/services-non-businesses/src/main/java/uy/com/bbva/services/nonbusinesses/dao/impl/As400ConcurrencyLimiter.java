@@ -0,0 +1,178 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite adaptativo de operaciones AS400 concurrentes (AIMD guiado por latencia).
+ * Cuando la latencia de una sentencia supera la latencia de referencia por la tolerancia, el limite baja en forma
+ * multiplicativa, una sola vez por ventana: las operaciones que ya estaban en curso al bajar vieron la misma sobrecarga y
+ * no vuelven a bajarlo. Mientras la latencia es normal y el limite se usa, sube de a un permiso por ventana.
+ * La referencia es la latencia minima reciente de cada sentencia: una consulta lenta por naturaleza no pasa por
+ * sobrecarga y una degradacion sostenida sigue bajando el limite hasta que la ventana de referencia rota.
+ * Las operaciones que exceden el limite se rechazan de inmediato en lugar de acumularse esperando al AS400.
+ */
+@Component
+public class As400ConcurrencyLimiter implements InitializingBean {
+
+    private static final String ERROR_LIMIT_EXCEEDED = "Se supero el limite de operaciones concurrentes en AS400";
+
+    @Value("${api.non-businesses.as400.limiter.enabled:false}")
+    private boolean enabled;
+
+    @Value("${api.non-businesses.as400.limiter.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${api.non-businesses.as400.limiter.min-limit:2}")
+    private int minLimit;
+
+    @Value("${api.non-businesses.as400.limiter.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${api.non-businesses.as400.limiter.latency-tolerance:2.0}")
+    private double latencyTolerance;
+
+    @Value("${api.non-businesses.as400.limiter.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${api.non-businesses.as400.limiter.baseline-window-samples:1000}")
+    private int baselineWindowSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder decreases = new LongAdder();
+
+    // Cerrojo explicito en lugar de synchronized: un hilo virtual que espera el cerrojo no bloquea su hilo portador
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<String, Baseline> baselines = new HashMap<>();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    // Muestras que faltan de las operaciones que estaban en curso en la ultima baja
+    private int pendingSinceDecrease;
+
+    @Override
+    public void afterPropertiesSet() {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public void acquire() throws ServiceException {
+        if (!enabled) {
+            return;
+        }
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                throw new ServiceException(this.getClass().getCanonicalName(), ERROR_LIMIT_EXCEEDED,
+                        new Exception("Limite actual: " + limit));
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    public void release(final String statementId, final long elapsedNanos, final boolean failed) {
+        if (!enabled) {
+            return;
+        }
+        onSample(statementId, elapsedNanos, failed);
+    }
+
+    private void onSample(final String statementId, final long elapsedNanos, final boolean failed) {
+        lock.lock();
+        try {
+            // Dentro del cerrojo: la primera muestra de una rafaga ve en curso a todas las que todavia no se procesaron
+            final int concurrent = inFlight.getAndDecrement();
+            final Baseline baseline = baselines.computeIfAbsent(statementId, id -> new Baseline());
+            final long baselineNanos = baseline.get();
+            final boolean sameWindow = pendingSinceDecrease > 0;
+            if (sameWindow) {
+                pendingSinceDecrease--;
+            }
+
+            if (baselineNanos > 0 && elapsedNanos > baselineNanos * latencyTolerance) {
+                // Una falla lenta (timeout, espera de bloqueo) tambien es señal de sobrecarga; una rafaga de muestras
+                // lentas de operaciones concurrentes es una sola señal y baja el limite una vez
+                if (!sameWindow) {
+                    estimatedLimit = Math.max(minLimit, estimatedLimit * backoffRatio);
+                    decreases.increment();
+                    pendingSinceDecrease = concurrent - 1;
+                }
+            } else if (baselineNanos > 0 && !failed && concurrent * 2 >= estimatedLimit) {
+                // Solo crece si la carga usa al menos la mitad del limite: sin demanda no hay informacion
+                estimatedLimit = Math.min(maxLimit, estimatedLimit + 1 / estimatedLimit);
+            }
+            limit = (int) estimatedLimit;
+
+            // Una falla rapida no mide al AS400: no entra en la referencia
+            if (!failed) {
+                baseline.add(elapsedNanos, baselineWindowSamples);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getDecreases() {
+        return decreases.sum();
+    }
+
+    public long getBaselineMillis(final String statementId) {
+        lock.lock();
+        try {
+            final Baseline baseline = baselines.get(statementId);
+            return baseline == null ? 0 : TimeUnit.NANOSECONDS.toMillis(baseline.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Minimo de la ventana actual y de la anterior: al rotar no se pierde la referencia de golpe.
+     */
+    private static final class Baseline {
+
+        private long currentMin = Long.MAX_VALUE;
+        private long previousMin = Long.MAX_VALUE;
+        private int samples;
+
+        long get() {
+            final long min = Math.min(currentMin, previousMin);
+            return min == Long.MAX_VALUE ? 0 : min;
+        }
+
+        void add(final long elapsedNanos, final int windowSamples) {
+            currentMin = Math.min(currentMin, elapsedNanos);
+            if (++samples >= windowSamples) {
+                previousMin = currentMin;
+                currentMin = Long.MAX_VALUE;
+                samples = 0;
+            }
+        }
+    }
+}
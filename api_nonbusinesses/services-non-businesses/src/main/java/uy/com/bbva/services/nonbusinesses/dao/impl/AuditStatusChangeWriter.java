@@ -0,0 +1,274 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.model.status.Status;
+
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escritor asincrono de la auditoria de cambios de estado.
+ * Encola los eventos en una cola acotada y los entrega en batches, por tamaño o por tiempo, al destino que registra
+ * DAOImpl al iniciarlo; la escritura pasa asi por la misma particion, limite y circuito que el resto del AS400.
+ * Si un batch falla, sus filas se reintentan de a una y en el lugar, hasta agotar los intentos, antes de seguir con la
+ * cola: la auditoria de un mismo rut se escribe en el orden en que se encolo.
+ */
+@Component
+public class AuditStatusChangeWriter {
+
+    @Autowired
+    private LogUtils logUtils;
+
+    @Value("${api.non-businesses.audit.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${api.non-businesses.audit.batch-size:50}")
+    private int batchSize;
+
+    @Value("${api.non-businesses.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${api.non-businesses.audit.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${api.non-businesses.audit.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${api.non-businesses.audit.max-attempts:3}")
+    private int maxAttempts;
+
+    private static final String ERROR_AUDIT_BATCH = "Ocurrio un error al auditar el batch de cambios de estado";
+    private static final String ERROR_AUDIT_DROPPED = "Se agotaron los intentos de auditar el cambio de estado ";
+    private static final String ERROR_AUDIT_INTERRUPTED = "Se interrumpio el encolado de la auditoria";
+
+    /**
+     * Destino de los eventos: un batch en una sola ejecucion o un evento suelto.
+     */
+    interface Sink {
+        void writeBatch(List<AuditEvent> batch) throws ServiceException;
+
+        void write(AuditEvent event) throws ServiceException;
+    }
+
+    private BlockingQueue<AuditEvent> queue;
+    private Thread flusher;
+    private volatile Sink sink;
+    private volatile boolean running;
+
+    private final AtomicLong flushedEvents = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+    private final AtomicLong retriedEvents = new AtomicLong();
+    private final AtomicLong callerRunsEvents = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong totalFlushLatencyNanos = new AtomicLong();
+    private final AtomicLong maxFlushLatencyNanos = new AtomicLong();
+
+    void start(final Sink sink) {
+        this.sink = sink;
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        flusher = new Thread(this::run, "nb-audit-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // DAOImpl lo detiene al destruirse, antes que sus dependencias: los pendientes todavia tienen donde escribirse
+    void stop() {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        boolean interrupted = false;
+        try {
+            flusher.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+
+        // El vaciado pasa por la particion del AS400, que no toma permisos con el hilo interrumpido: la marca se
+        // limpia mientras tanto y se restaura al terminar
+        interrupted |= Thread.interrupted();
+        try {
+            final List<AuditEvent> pending = new ArrayList<>();
+            queue.drainTo(pending);
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                flush(new ArrayList<>(pending.subList(from, Math.min(from + batchSize, pending.size()))));
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public void enqueue(final NonBusinessIdDatatype nonBusinessIdDatatype, final Status status) throws ServiceException {
+        final AuditEvent event = new AuditEvent(nonBusinessIdDatatype, status);
+
+        try {
+            if (running && queue.offer(event, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_AUDIT_INTERRUPTED, e);
+        }
+
+        // Cola llena o writer detenido: el llamador escribe su propio evento y recibe el error si falla
+        callerRunsEvents.incrementAndGet();
+        sink.write(event);
+        flushedEvents.incrementAndGet();
+    }
+
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public int getRemainingCapacity() {
+        return queue == null ? 0 : queue.remainingCapacity();
+    }
+
+    public long getFlushedEvents() {
+        return flushedEvents.get();
+    }
+
+    public long getFailedEvents() {
+        return failedEvents.get();
+    }
+
+    public long getRetriedEvents() {
+        return retriedEvents.get();
+    }
+
+    public long getCallerRunsEvents() {
+        return callerRunsEvents.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getAverageFlushLatencyMillis() {
+        final long flushes = flushCount.get();
+        return flushes == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalFlushLatencyNanos.get() / flushes);
+    }
+
+    public long getMaxFlushLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxFlushLatencyNanos.get());
+    }
+
+    private void run() {
+        final List<AuditEvent> batch = new ArrayList<>(batchSize);
+        boolean interrupted = false;
+
+        while (running) {
+            try {
+                final AuditEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    final long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    final AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // stop() interrumpe el hilo; el batch en armado se envia sin la marca y el resto se vacia alli
+                interrupted = true;
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                flush(new ArrayList<>(batch));
+                batch.clear();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(final List<AuditEvent> batch) {
+        final long start = System.nanoTime();
+        try {
+            sink.writeBatch(batch);
+            flushedEvents.addAndGet(batch.size());
+
+        } catch (ServiceException e) {
+            logUtils.logError(this.getClass().getName(), ERROR_AUDIT_BATCH, e.getMessage());
+            // Las filas que el batch llego a escribir no se repiten; el resto se reintenta de a una
+            final int[] updateCounts = e.getCause() instanceof BatchUpdateException
+                    ? ((BatchUpdateException) e.getCause()).getUpdateCounts() : new int[0];
+            for (int i = 0; i < batch.size(); i++) {
+                if (i < updateCounts.length && updateCounts[i] != Statement.EXECUTE_FAILED) {
+                    flushedEvents.incrementAndGet();
+                } else {
+                    writeOne(batch.get(i));
+                }
+            }
+        } finally {
+            recordFlushLatency(System.nanoTime() - start);
+        }
+    }
+
+    // Se reintenta en el lugar: reencolarla la dejaria detras de eventos posteriores del mismo rut
+    private void writeOne(final AuditEvent event) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.write(event);
+                flushedEvents.incrementAndGet();
+                return;
+            } catch (ServiceException e) {
+                if (attempt >= maxAttempts) {
+                    failedEvents.incrementAndGet();
+                    logUtils.logError(this.getClass().getName(), ERROR_AUDIT_DROPPED + event, e.getMessage());
+                    return;
+                }
+                retriedEvents.incrementAndGet();
+            }
+        }
+    }
+
+    private void recordFlushLatency(final long elapsedNanos) {
+        flushCount.incrementAndGet();
+        totalFlushLatencyNanos.addAndGet(elapsedNanos);
+        maxFlushLatencyNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    static final class AuditEvent {
+
+        final NonBusinessIdDatatype nonBusinessIdDatatype;
+        final Status status;
+
+        AuditEvent(final NonBusinessIdDatatype nonBusinessIdDatatype, final Status status) {
+            this.nonBusinessIdDatatype = nonBusinessIdDatatype;
+            this.status = status;
+        }
+
+        @Override
+        public String toString() {
+            return status.getId() + " del rut " + nonBusinessIdDatatype.getBusinessDocument();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Indices de las columnas de una forma de consulta, resueltos por etiqueta la primera vez y reutilizados despues.
+ * Cada instancia corresponde a un unico texto SQL, cuyas columnas no cambian de posicion entre ejecuciones.
+ */
+final class ColumnIndexes {
+
+    private final String[] labels;
+    private volatile int[] indexes;
+
+    ColumnIndexes(final String... labels) {
+        this.labels = labels.clone();
+    }
+
+    int[] resolve(final ResultSet resultSet) throws SQLException {
+        int[] resolved = indexes;
+        if (resolved == null) {
+            resolved = new int[labels.length];
+            for (int i = 0; i < labels.length; i++) {
+                resolved[i] = resultSet.findColumn(labels[i]);
+            }
+            // Dos hilos pueden resolver a la vez; ambos obtienen los mismos indices
+            indexes = resolved;
+        }
+        return resolved;
+    }
+}
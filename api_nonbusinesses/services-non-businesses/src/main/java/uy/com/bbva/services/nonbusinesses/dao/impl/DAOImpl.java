@@ -2,47 +2,50 @@ package uy.com.bbva.services.nonbusinesses.dao.impl;
 
 import com.bbva.secarq.caas2.core.exception.CaasException;
 import com.mongodb.client.MongoCollection;
-import org.apache.commons.lang3.time.DateUtils;
 import org.bson.Document;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 import uy.com.bbva.dtos.commons.model.*;
-import uy.com.bbva.dtos.commons.v1.model.IdentityDocument;
 import uy.com.bbva.dtos.commons.v1.model.RelatedPerson;
 import uy.com.bbva.encrypter.MaskUtil;
 import uy.com.bbva.logcommons.log.utils.LogUtils;
 import uy.com.bbva.mongo.commons.ManagerMongoDBAccess;
 import uy.com.bbva.mongo.commons.MongoTemplateBBVA;
-import uy.com.bbva.nonbusinessescommons.dtos.models.ContactDetail;
 import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
 import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
 import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.dao.As400Bulkhead;
+import uy.com.bbva.services.nonbusinesses.dao.As400ConnectionLease;
+import uy.com.bbva.services.nonbusinesses.dao.As400SqlErrors;
+import uy.com.bbva.services.nonbusinesses.dao.As400StatementCache;
+import uy.com.bbva.services.nonbusinesses.dao.As400StatementMetrics;
 import uy.com.bbva.services.nonbusinesses.dao.DAO;
+import uy.com.bbva.services.nonbusinesses.dao.RequestDeadline;
 import uy.com.bbva.services.nonbusinesses.dao.SQLStatements;
 import uy.com.bbva.services.nonbusinesses.model.*;
 import uy.com.bbva.services.nonbusinesses.model.User;
 import uy.com.bbva.services.nonbusinesses.model.external.BusinessInformation;
 import uy.com.bbva.services.nonbusinesses.model.status.Status;
 
+import javax.sql.DataSource;
 import java.sql.*;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.time.LocalDate;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
+import java.time.Duration;
 import java.util.*;
 import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static java.lang.Integer.parseInt;
-import static org.apache.commons.lang3.StringUtils.trim;
 import static org.apache.commons.lang3.StringUtils.trimToEmpty;
 import static uy.com.bbva.dtos.commons.utils.Constants.*;
 
 @Component
-public class DAOImpl implements DAO {
+public class DAOImpl implements DAO, InitializingBean, DisposableBean {
 
     @Autowired
     private ManagerDataAccessAs400 managerDataAccessAs400;
@@ -56,6 +59,27 @@ public class DAOImpl implements DAO {
     @Autowired
     private LogUtils logUtils;
 
+    @Autowired
+    private AuditStatusChangeWriter auditStatusChangeWriter;
+
+    @Autowired
+    private As400Bulkheads as400Bulkheads;
+
+    @Autowired
+    private As400ConcurrencyLimiter as400ConcurrencyLimiter;
+
+    @Autowired
+    private As400CircuitBreaker as400CircuitBreaker;
+
+    // Mismo pool que ManagerDataAccessAs400; con dos DataSource el calificador evita inyectar la replica de lectura
+    @Autowired(required = false)
+    @Qualifier("as400DataSource")
+    private DataSource as400DataSource;
+
+    @Autowired(required = false)
+    @Qualifier("as400ReadDataSource")
+    private DataSource as400ReadDataSource;
+
     @Value("${db.mongo.veridas.database}")
     private String veridasDBName;
 
@@ -65,22 +89,52 @@ public class DAOImpl implements DAO {
     @Value("${api.non-businesses.no-package.threshold}")
     private double noPackageThreshold;
 
+    @Value("${api.non-businesses.audit.async.enabled:false}")
+    private boolean asyncAuditEnabled;
+
+    @Value("${api.non-businesses.as400.connection-lease.enabled:false}")
+    private boolean connectionLeaseEnabled;
+
+    @Value("${api.non-businesses.as400.statement-cache.size:32}")
+    private int statementCacheSize;
+
+    @Value("${api.non-businesses.as400.query-timeout-seconds:0}")
+    private int queryTimeoutSeconds;
+
+    @Value("${api.non-businesses.as400.read-routing.enabled:false}")
+    private boolean readRoutingEnabled;
+
+    @Value("${api.non-businesses.as400.retry.max-retries:2}")
+    private int transientMaxRetries;
+
+    @Value("${api.non-businesses.as400.retry.backoff-ms:20}")
+    private long transientBackoffMillis;
+
+    private final OwnerRowMapper ownerRowMapper = new OwnerRowMapper();
+    private final SearchPreCheckRowMapper searchPreCheckRowMapper = new SearchPreCheckRowMapper();
+    private final NonBusinessRowMapper nonBusinessBaseMapper = new NonBusinessRowMapper(SQLStatements.GET_NON_BUSINESS_BASE, false, false);
+    private final NonBusinessRowMapper nonBusinessWithOwnerMapper = new NonBusinessRowMapper(SQLStatements.GET_NON_BUSINESS_WITH_OWNER, true, false);
+    private final NonBusinessRowMapper nonBusinessWithContactDetailsMapper = new NonBusinessRowMapper(SQLStatements.GET_NON_BUSINESS_WITH_CONTACT_DETAILS, false, true);
+    private final NonBusinessRowMapper nonBusinessMapper = new NonBusinessRowMapper(SQLStatements.GET_NON_BUSINESS, true, true);
+
     private static final int GEMA_CHANNEL = 40;
     private static final int LEGAL_ADDRESS = 1;
     private static final String ENTERED_STATUS = "INGRESO";
     private static final String CREATION_TYPE = "UNI";
-    private static final String YYYY_MM_DD_DATE_FORMAT = "yyyyMMdd";
     private static final String ERROR_UPDATE_BUSINESS_MOBILE = "Error al actualizar el celular de la empresa";
     private static final String ERROR_UPDATE_PERSON_MAIL = "Error al actualizar el correo de la persona";
     private static final String ERROR_UPDATE_ECONOMIC_DATA = "Error al actualizar la actividad economica";
     private static final String ERROR_UPDATE_BUSINESS_MAIL = "Error al actualizar el correo de la empresa";
     private static final String ERROR_UPDATE_PERSON_MOBILE = "Error al actualizar el celular de la persona";
+    private static final String ERROR_UPDATE_CONTACT_MAIL = "Error al actualizar el correo de la persona y la empresa";
+    private static final String ERROR_UPDATE_CONTACT_MOBILE = "Error al actualizar el celular de la persona y la empresa";
     private static final String ERROR_CREATE_NON_CUSTOMER = "Error al insertar el no cliente";
     private static final String ERROR_NON_CUSTOMER_EXISTS = "Error al chequear si el no cliente existe";
     private static final String ERROR_NON_CUSTOMER_ON_FINAL_STATE = "Error al chequear si el no cliente esta en estado final";
     private static final String ERROR_UPDATE_BUSINESS_INFORMATION = "Error al completar la informacion de la empresa";
     private static final String ERROR_UPDATE_BUSINESS_BANK_BRANCH = "Error al actualizar la sucursal";
     private static final String ERROR_UPDATE_FORMATION_DATA = "Error al actualizar la informacion de la formacion de la empresa";
+    private static final String ERROR_PATCH_BUSINESS = "Error al actualizar los datos de la empresa";
     private static final String ERROR_GET_DEPARTMENTS = "Error al obtener los departamentos";
     private static final String ERROR_CREATE_ADDRESS = "Error al crear la direccion";
     private static final String ERROR_UPDATE_BUSINESS_USER = "Error al actualizar el usuario de la empresa";
@@ -90,436 +144,346 @@ public class DAOImpl implements DAO {
     private static final String ERROR_GET_OWNER = "Ocurrio un error al obtener los datos del dueño de la unipersonal";
     private static final String ERROR_UPDATE_STATUS = "Ocurrio un error al actualizar el estado";
     private static final String ERROR_CHECK_IS_CLIENT = "Ocurrio un error al verificar si el RUT ya es cliente";
+    private static final String ERROR_SEARCH_PRE_CHECK = "Ocurrio un error al obtener los datos previos a la busqueda";
+    private static final String ERROR_AUDIT_STATUS_CHANGE_BATCH = "Ocurrio un error al auditar el batch de cambios de estado";
+
+    // La auditoria asincrona escribe por el mismo nucleo que el resto: particion AUDIT_WRITE, limite global y circuito
+    private final AuditStatusChangeWriter.Sink auditSink = new AuditStatusChangeWriter.Sink() {
+        @Override
+        public void writeBatch(final List<AuditStatusChangeWriter.AuditEvent> batch) throws ServiceException {
+            // Sin reintentos: un batch a medio aplicar duplicaria filas; el writer reintenta las que fallaron de a una
+            execute(ERROR_AUDIT_STATUS_CHANGE_BATCH, 0, () -> {
+                callBatchOnce(As400Bulkheads.Workload.AUDIT_WRITE, "AUDIT_STATUS_CHANGE_BATCH", SQLStatements.AUDIT_STATUS_CHANGE, batch,
+                        (cs, event) -> bindAuditStatusChange(cs, event.nonBusinessIdDatatype, event.status));
+                return null;
+            });
+        }
 
-    public String getStatus(final String ci, final String rut) throws ServiceException {
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        @Override
+        public void write(final AuditStatusChangeWriter.AuditEvent event) throws ServiceException {
+            writeAuditStatusChange(event.nonBusinessIdDatatype, event.status);
+        }
+    };
 
-        try {
-            ps = managerDataAccessAs400.prepareStatement(SQLStatements.GET_STATUS);
+    @Override
+    public void afterPropertiesSet() {
+        if (asyncAuditEnabled) {
+            auditStatusChangeWriter.start(auditSink);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        auditStatusChangeWriter.stop();
+    }
+
+    public String getStatus(final String ci, final String rut) throws ServiceException {
+        return queryFirst("GET_STATUS", SQLStatements.GET_STATUS, ERROR_NON_CUSTOMER_ON_FINAL_STATE, ps -> {
             ps.setInt(1, UY_COUNTRY_CODE);
             ps.setInt(2, USER_DOCUMENT_TYPE_CI);
             ps.setString(3, ci);
             ps.setInt(4, UY_COUNTRY_CODE);
             ps.setInt(5, RUT_DOCUMENT_TYPE);
             ps.setString(6, rut);
-            rs = ps.executeQuery();
-            if (rs.next()) {
-                return trimToEmpty(rs.getString("BBNCEMESTA"));
-            } else {
-                return "";
-            }
-
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_NON_CUSTOMER_ON_FINAL_STATE, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_NON_CUSTOMER_ON_FINAL_STATE, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(ps, rs);
-        }
+        }, rs -> As400Codec.textOrEmpty(rs.getString("BBNCEMESTA"))).orElse("");
     }
 
     @Override
     public void createNonBusiness(final String rut, final String ci, final String cellphone) throws ServiceException {
-        CallableStatement cs = null;
-
-        try {
-            cs = managerDataAccessAs400.prepareCall(SQLStatements.CREATE_NON_BUSINESS);
-            cs.setInt(1, UY_COUNTRY_CODE);
-            cs.setInt(2, USER_DOCUMENT_TYPE_CI);
-            cs.setString(3, ci);
-            cs.setInt(4, UY_COUNTRY_CODE);
-            cs.setInt(5, RUT_DOCUMENT_TYPE);
-            cs.setString(6, rut);
-            cs.setString(7, cellphone);
-            cs.setString(8, "N");
-            cs.setString(9, "N");
-            cs.setString(10, "N");
-            cs.setString(11, "N");
-            cs.setString(12, ENTERED_STATUS);
-            cs.setString(13, CREATION_TYPE);
-            cs.setInt(14, GEMA_CHANNEL);
-
-            cs.execute();
+        call(As400Bulkheads.Workload.BUSINESS_WRITE, "CREATE_NON_BUSINESS", SQLStatements.CREATE_NON_BUSINESS, ERROR_CREATE_NON_CUSTOMER,
+                cs -> bindCreateNonBusiness(cs, rut, ci, cellphone));
+    }
 
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_CREATE_NON_CUSTOMER, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_CREATE_NON_CUSTOMER, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(cs, null);
+    // Mismo alta que CREATE_NON_BUSINESS, pero el procedimiento lee el estado y no hace nada si esta entre los rechazados
+    @Override
+    public boolean createNonBusinessUnless(final String rut, final String ci, final String cellphone, final Collection<String> rejectedStatuses) throws ServiceException {
+        if (rejectedStatuses.isEmpty()) {
+            createNonBusiness(rut, ci, cellphone);
+            return true;
         }
+        return call(As400Bulkheads.Workload.BUSINESS_WRITE, "CREATE_NON_BUSINESS_UNLESS", SQLStatements.CREATE_NON_BUSINESS_UNLESS, ERROR_CREATE_NON_CUSTOMER, cs -> {
+            bindCreateNonBusiness(cs, rut, ci, cellphone);
+            cs.setString(15, String.join(",", rejectedStatuses));
+            cs.registerOutParameter(16, Types.INTEGER);
+        }, cs -> cs.getInt(16) > 0);
+    }
+
+    private static void bindCreateNonBusiness(final CallableStatement cs, final String rut, final String ci, final String cellphone) throws SQLException {
+        cs.setInt(1, UY_COUNTRY_CODE);
+        cs.setInt(2, USER_DOCUMENT_TYPE_CI);
+        cs.setString(3, ci);
+        cs.setInt(4, UY_COUNTRY_CODE);
+        cs.setInt(5, RUT_DOCUMENT_TYPE);
+        cs.setString(6, rut);
+        cs.setString(7, cellphone);
+        cs.setString(8, "N");
+        cs.setString(9, "N");
+        cs.setString(10, "N");
+        cs.setString(11, "N");
+        cs.setString(12, ENTERED_STATUS);
+        cs.setString(13, CREATION_TYPE);
+        cs.setInt(14, GEMA_CHANNEL);
     }
 
+    // Los valores se repiten en el WHERE: si DGI devuelve lo mismo que ya esta guardado no se escribe la fila
     @Override
     public void updateBusinessInformation(final BusinessInformation businessInformation) throws ServiceException {
-        PreparedStatement ps = null;
+        final String expiration = businessInformation.getExpiration().replace("-", "");
 
-        try {
-            ps = managerDataAccessAs400.prepareStatement(SQLStatements.UPDATE_BUSINESS_INFORMATION);
+        update("UPDATE_BUSINESS_INFORMATION", SQLStatements.UPDATE_BUSINESS_INFORMATION, ERROR_UPDATE_BUSINESS_INFORMATION, ps -> {
             ps.setString(1, businessInformation.getName());
-            ps.setString(2, businessInformation.getExpiration().replace("-", ""));
+            ps.setString(2, expiration);
             ps.setString(3, businessInformation.getRut());
             ps.setInt(4, UY_COUNTRY_CODE);
             ps.setInt(5, RUT_DOCUMENT_TYPE);
-
-            ps.executeUpdate();
-
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_UPDATE_BUSINESS_INFORMATION, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_UPDATE_BUSINESS_INFORMATION, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(ps, null);
-        }
+            ps.setString(6, businessInformation.getName());
+            ps.setString(7, expiration);
+        });
     }
 
     @Override
     public NonBusiness getNonBusiness(final NonBusinessIdDatatype nonBusinessDatatype, final boolean includeOwnerData, boolean includeContactDetails) throws ServiceException {
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        final NonBusinessRowMapper shape = getNonBusinessShape(includeOwnerData, includeContactDetails);
 
-        try {
-            ps = managerDataAccessAs400.prepareStatement(SQLStatements.GET_NON_BUSINESS);
+        return queryFirst("GET_NON_BUSINESS", shape.getSql(), ERROR_NON_CUSTOMER_EXISTS, ps -> {
             ps.setString(1, nonBusinessDatatype.getBusinessDocument());
             ps.setInt(2, nonBusinessDatatype.getBusinessCountry());
             ps.setInt(3, nonBusinessDatatype.getBusinessDocumentType());
             ps.setString(4, nonBusinessDatatype.getPersonDocument());
             ps.setInt(5, nonBusinessDatatype.getPersonCountry());
             ps.setInt(6, nonBusinessDatatype.getPersonDocumentType());
-            rs = ps.executeQuery();
-
-            if (!rs.next()) {
-                return null;
-            }
-
-            final NonBusiness nonBusiness = new NonBusiness();
-            final BusinessDocument businessDocument = new BusinessDocument();
-            businessDocument.setDocumentNumber(trim(rs.getString("BBNCPJNDOC")));
-            businessDocument.setBusinessDocumentType(new GenericObject("RUT", "RUT"));
-            nonBusiness.setBusinessDocuments(List.of(businessDocument));
-            nonBusiness.setLegalName(trim(rs.getString("BBNCPJRASO")));
-            final LegalDocument legalDocument = new LegalDocument();
-            legalDocument.setLegalDocumentType(new GenericIdDescription("BUSINESS_LICENSE_CERTIFICATE_OF_GOOD_STANDING", "Certificate"));
-            final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(YYYY_MM_DD_DATE_FORMAT);
-            final LocalDate date = LocalDate.parse(rs.getString("BBNCPJFRUT"), formatter);
-            legalDocument.setExpirationDate(Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant()));
-            legalDocument.setActive(date.isAfter(LocalDate.now()));
-            nonBusiness.setLegalDocuments(List.of(legalDocument));
-
-            if (includeOwnerData) {
-                final List<LegalRepresentative> legalRepresentatives = new ArrayList<>();
-                final LegalRepresentative owner = new LegalRepresentative();
-                owner.setFirstName(trim(rs.getString("BBNCPFNOM1")));
-                owner.setMiddleName(trim(rs.getString("BBNCPFNOM2")));
-                owner.setLastName(trim(rs.getString("BBNCPFAPE1")));
-                owner.setSecondLastName(trim(rs.getString("BBNCPFAPE2")));
-                owner.setRole("OWNER");
-                final BirthData birthData = new BirthData();
-                final Date birthDate = parseDate(rs.getString("BBNCPFFNAC"));
-                birthData.setBirthDate(birthDate);
-                owner.setBirthData(birthData);
-                final IdentityDocument ownerDocument = new IdentityDocument();
-                ownerDocument.setDocumentNumber(nonBusinessDatatype.getPersonDocument());
-                ownerDocument.setDocumentType(new GenericIdDescription("DNI", "Cedula"));
-                ownerDocument.setCountry(new GenericObject("UY", "Uruguay"));
-                owner.setIdentityDocument(ownerDocument);
-                legalRepresentatives.add(owner);
-                nonBusiness.setLegalRepresentatives(legalRepresentatives);
-            }
-
-            if (includeContactDetails) {
-                final List<ContactDetail> contactDetails = new ArrayList<>();
-                final ContactDetail emailContact = new ContactDetail();
-                final EmailContact email = new EmailContact();
-                email.setContactDetailType("EMAIL");
-                email.setAddress(trim(rs.getString("BBNCPJMAIL")));
-                emailContact.setContact(email);
-                contactDetails.add(emailContact);
-                final ContactDetail cellphoneContact = new ContactDetail();
-                final MobileContact cellphone = new MobileContact();
-                cellphone.setContactDetailType("MOBILE");
-                cellphone.setNumber(trim(rs.getString("BBNCPJTEL1")));
-                cellphoneContact.setContact(cellphone);
-                contactDetails.add(cellphoneContact);
-                nonBusiness.setContactDetails(contactDetails);
-            }
-
-            return nonBusiness;
+        }, rs -> shape.map(rs, nonBusinessDatatype)).orElse(null);
+    }
 
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_NON_CUSTOMER_EXISTS, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_NON_CUSTOMER_EXISTS, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(ps, rs);
+    // Cada forma de la consulta tiene su SQL y su mapper; todas reciben los mismos parametros
+    private NonBusinessRowMapper getNonBusinessShape(final boolean includeOwnerData, final boolean includeContactDetails) {
+        if (includeOwnerData && includeContactDetails) {
+            return nonBusinessMapper;
+        }
+        if (includeOwnerData) {
+            return nonBusinessWithOwnerMapper;
+        }
+        if (includeContactDetails) {
+            return nonBusinessWithContactDetailsMapper;
         }
+        return nonBusinessBaseMapper;
     }
 
     @Override
     public void updateBusinessMobile(final NonBusinessIdDatatype nonBusinessDatatype, final String number) throws ServiceException {
-        PreparedStatement ps = null;
-
-        try {
-            ps = managerDataAccessAs400.prepareStatement(SQLStatements.UPDATE_BUSINESS_MOBILE);
+        update("UPDATE_BUSINESS_MOBILE", SQLStatements.UPDATE_BUSINESS_MOBILE, ERROR_UPDATE_BUSINESS_MOBILE, ps -> {
             ps.setString(1, number);
             ps.setString(2, nonBusinessDatatype.getBusinessDocument());
             ps.setInt(3, nonBusinessDatatype.getBusinessCountry());
             ps.setInt(4, nonBusinessDatatype.getBusinessDocumentType());
-
-            ps.executeUpdate();
-
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_UPDATE_BUSINESS_MOBILE, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_UPDATE_BUSINESS_MOBILE, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(ps, null);
-        }
+        });
     }
 
 
     public void updatePersonMobile(final NonBusinessIdDatatype nonBusinessDatatype, final String number) throws ServiceException {
-        PreparedStatement ps = null;
-
-        try {
-            ps = managerDataAccessAs400.prepareStatement(SQLStatements.UPDATE_PERSON_MOBILE);
+        update("UPDATE_PERSON_MOBILE", SQLStatements.UPDATE_PERSON_MOBILE, ERROR_UPDATE_PERSON_MOBILE, ps -> {
             ps.setString(1, number);
             ps.setString(2, nonBusinessDatatype.getPersonDocument());
             ps.setInt(3, nonBusinessDatatype.getPersonCountry());
             ps.setInt(4, nonBusinessDatatype.getPersonDocumentType());
-
-            ps.executeUpdate();
-
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_UPDATE_PERSON_MOBILE, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_UPDATE_PERSON_MOBILE, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(ps, null);
-        }
+        });
     }
 
     @Override
     public void updateBusinessMail(final NonBusinessIdDatatype nonBusinessDatatype, final String address) throws ServiceException {
-        PreparedStatement ps = null;
-
-        try {
-            ps = managerDataAccessAs400.prepareStatement(SQLStatements.UPDATE_BUSINESS_MAIL);
+        update("UPDATE_BUSINESS_MAIL", SQLStatements.UPDATE_BUSINESS_MAIL, ERROR_UPDATE_BUSINESS_MAIL, ps -> {
             ps.setString(1, address);
             ps.setString(2, nonBusinessDatatype.getBusinessDocument());
             ps.setInt(3, nonBusinessDatatype.getBusinessCountry());
             ps.setInt(4, nonBusinessDatatype.getBusinessDocumentType());
-
-            ps.executeUpdate();
-
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_UPDATE_BUSINESS_MAIL, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_UPDATE_BUSINESS_MAIL, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(ps, null);
-        }
+        });
     }
 
     @Override
     public void updatePersonMail(final NonBusinessIdDatatype nonBusinessDatatype, final String address) throws ServiceException {
-        PreparedStatement ps = null;
-
-        try {
-            ps = managerDataAccessAs400.prepareStatement(SQLStatements.UPDATE_PERSON_MAIL);
+        update("UPDATE_PERSON_MAIL", SQLStatements.UPDATE_PERSON_MAIL, ERROR_UPDATE_PERSON_MAIL, ps -> {
             ps.setString(1, address);
             ps.setString(2, nonBusinessDatatype.getPersonDocument());
             ps.setInt(3, nonBusinessDatatype.getPersonCountry());
             ps.setInt(4, nonBusinessDatatype.getPersonDocumentType());
+        });
+    }
 
-            ps.executeUpdate();
+    @Override
+    public void updateContactMail(final NonBusinessIdDatatype nonBusinessDatatype, final String address) throws ServiceException {
+        updateContact("UPDATE_CONTACT_MAIL", SQLStatements.UPDATE_CONTACT_MAIL, ERROR_UPDATE_CONTACT_MAIL, nonBusinessDatatype, address);
+    }
 
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_UPDATE_PERSON_MAIL, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_UPDATE_PERSON_MAIL, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(ps, null);
-        }
+    @Override
+    public void updateContactMobile(final NonBusinessIdDatatype nonBusinessDatatype, final String number) throws ServiceException {
+        updateContact("UPDATE_CONTACT_MOBILE", SQLStatements.UPDATE_CONTACT_MOBILE, ERROR_UPDATE_CONTACT_MOBILE, nonBusinessDatatype, number);
+    }
+
+    // El procedimiento actualiza siempre primero la persona y luego la empresa, en la misma transaccion
+    private void updateContact(final String statementId, final String sql, final String errorMessage, final NonBusinessIdDatatype nonBusinessDatatype, final String value) throws ServiceException {
+        call(As400Bulkheads.Workload.BUSINESS_WRITE, statementId, sql, errorMessage, cs -> {
+            cs.setString(1, value);
+            cs.setString(2, nonBusinessDatatype.getPersonDocument());
+            cs.setInt(3, nonBusinessDatatype.getPersonCountry());
+            cs.setInt(4, nonBusinessDatatype.getPersonDocumentType());
+            cs.setString(5, nonBusinessDatatype.getBusinessDocument());
+            cs.setInt(6, nonBusinessDatatype.getBusinessCountry());
+            cs.setInt(7, nonBusinessDatatype.getBusinessDocumentType());
+        });
     }
 
     @Override
     public void createAddress(final NonBusinessIdDatatype nonBusinessDatatype, final AddressDatatype addressDatatype) throws ServiceException {
-        CallableStatement ps = null;
-
-        try {
-            ps = managerDataAccessAs400.prepareCall(SQLStatements.INSERT_ADDRESS);
-            ps.setInt(1, nonBusinessDatatype.getBusinessCountry());
-            ps.setInt(2, nonBusinessDatatype.getBusinessDocumentType());
-            ps.setString(3, nonBusinessDatatype.getBusinessDocument());
-            ps.setInt(4, LEGAL_ADDRESS);
-            ps.setInt(5, parseInt(addressDatatype.getCountry().getId()));
-            ps.setString(6, trimToEmpty(addressDatatype.getPostalCode()));
-            ps.setInt(7, parseInt(addressDatatype.getDepartment().getId()));
-            ps.setInt(8, parseInt(addressDatatype.getCityOrNeighborhood().getId()));
-            ps.setInt(9, parseInt(addressDatatype.getLevel1().getId()));
-            ps.setInt(10, parseInt(addressDatatype.getLevel2().getId()));
-            ps.setInt(11, parseInt(addressDatatype.getLevel3().getId()));
-            ps.setString(12, trimToEmpty(addressDatatype.getLevel1().getName()));
-            ps.setString(13, trimToEmpty(addressDatatype.getLevel2().getName()));
-            ps.setString(14, trimToEmpty(addressDatatype.getLevel3().getName()));
-
-            ps.execute();
-
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_CREATE_ADDRESS, ERROR_CREATE_ADDRESS, sqlException);
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_CREATE_ADDRESS, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(ps, null);
-        }
+        call(As400Bulkheads.Workload.BUSINESS_WRITE, "INSERT_ADDRESS", SQLStatements.INSERT_ADDRESS, ERROR_CREATE_ADDRESS, cs -> {
+            cs.setInt(1, nonBusinessDatatype.getBusinessCountry());
+            cs.setInt(2, nonBusinessDatatype.getBusinessDocumentType());
+            cs.setString(3, nonBusinessDatatype.getBusinessDocument());
+            cs.setInt(4, LEGAL_ADDRESS);
+            cs.setInt(5, parseInt(addressDatatype.getCountry().getId()));
+            cs.setString(6, trimToEmpty(addressDatatype.getPostalCode()));
+            cs.setInt(7, parseInt(addressDatatype.getDepartment().getId()));
+            cs.setInt(8, parseInt(addressDatatype.getCityOrNeighborhood().getId()));
+            cs.setInt(9, parseInt(addressDatatype.getLevel1().getId()));
+            cs.setInt(10, parseInt(addressDatatype.getLevel2().getId()));
+            cs.setInt(11, parseInt(addressDatatype.getLevel3().getId()));
+            cs.setString(12, trimToEmpty(addressDatatype.getLevel1().getName()));
+            cs.setString(13, trimToEmpty(addressDatatype.getLevel2().getName()));
+            cs.setString(14, trimToEmpty(addressDatatype.getLevel3().getName()));
+        });
     }
 
     @Override
     public Map<String, GenericIdDescription> getDepartments() throws ServiceException {
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        final Map<String, GenericIdDescription> departmentsMap = new HashMap<>();
 
-        try {
-            ps = managerDataAccessAs400.prepareStatement(SQLStatements.GET_DEPARTMENTS);
-            rs = ps.executeQuery();
+        queryForList("GET_DEPARTMENTS", SQLStatements.GET_DEPARTMENTS, ERROR_GET_DEPARTMENTS, ps -> { }, rs -> {
+            final String departmentIsoCode = As400Codec.text(rs.getString("DEPISOCOD"));
+            final Integer departmentBanTotalCode = rs.getInt("DEPBTCOD");
+            final String departmentName = As400Codec.text(rs.getString("DEPNOM"));
+            // Una fila sin codigo ISO no tiene clave: se descarta
+            return departmentIsoCode == null ? null : Map.entry(departmentIsoCode, new GenericIdDescription(String.valueOf(departmentBanTotalCode), departmentName));
+        }).stream().filter(Objects::nonNull).forEach(department -> departmentsMap.put(department.getKey(), department.getValue()));
 
-            final Map<String, GenericIdDescription> departmentsMap = new HashMap<>();
-
-            while (rs.next()) {
-                final String departmentIsoCode = rs.getString("DEPISOCOD").trim();
-                final Integer departmentBanTotalCode = rs.getInt("DEPBTCOD");
-                final String departmentName = rs.getString("DEPNOM").trim();
-                departmentsMap.put(departmentIsoCode, new GenericIdDescription(String.valueOf(departmentBanTotalCode), departmentName));
-            }
-
-            return departmentsMap;
-        } catch (SQLException sqle) {
-            logUtils.logError(this.getClass().getName(), ERROR_GET_DEPARTMENTS, ERROR_GET_DEPARTMENTS, sqle);
-            throw new ServiceException(this.getClass().getName(), ERROR_GET_DEPARTMENTS, sqle);
-        } finally {
-            managerDataAccessAs400.closeResources(ps, rs);
-        }
+        return departmentsMap;
     }
 
     @Override
     public void updateBusinessBankBranch(final NonBusinessIdDatatype nonBusinessDatatype, final String bankBranch) throws ServiceException {
-        PreparedStatement ps = null;
-
-        try {
-            ps = managerDataAccessAs400.prepareStatement(SQLStatements.UPDATE_BANK_BRANCH);
+        update("UPDATE_BANK_BRANCH", SQLStatements.UPDATE_BANK_BRANCH, ERROR_UPDATE_BUSINESS_BANK_BRANCH, ps -> {
             ps.setString(1, bankBranch);
             ps.setString(2, nonBusinessDatatype.getBusinessDocument());
             ps.setInt(3, nonBusinessDatatype.getBusinessCountry());
             ps.setInt(4, nonBusinessDatatype.getBusinessDocumentType());
-
-            ps.executeUpdate();
-
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_UPDATE_BUSINESS_BANK_BRANCH, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_UPDATE_BUSINESS_BANK_BRANCH, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(ps, null);
-        }
+        });
     }
 
     @Override
     public void updateBusinessFormationData(final NonBusinessIdDatatype nonBusinessDatatype, final Formation formation, final LegalDocument legalDocument) throws ServiceException {
-        PreparedStatement psUpdateBusinessFormationData = null;
-        try {
-            final SimpleDateFormat dateFormat = new SimpleDateFormat(YYYY_MM_DD_DATE_FORMAT);
-            dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
-            psUpdateBusinessFormationData = managerDataAccessAs400.prepareStatement(SQLStatements.UPDATE_BUSINESS_FORMATION_DATA);
-            psUpdateBusinessFormationData.setString(1, dateFormat.format(formation.getDate()));
-            psUpdateBusinessFormationData.setString(2, dateFormat.format(legalDocument.getIssueDate()));
-            psUpdateBusinessFormationData.setString(3, legalDocument.getDocumentNumber());
-            psUpdateBusinessFormationData.setString(4, dateFormat.format(legalDocument.getIssueDate()));
-            psUpdateBusinessFormationData.setString(5, nonBusinessDatatype.getBusinessDocument());
-            psUpdateBusinessFormationData.setInt(6, nonBusinessDatatype.getBusinessCountry());
-            psUpdateBusinessFormationData.setInt(7, nonBusinessDatatype.getBusinessDocumentType());
-
-            psUpdateBusinessFormationData.executeUpdate();
-
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_UPDATE_FORMATION_DATA, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_UPDATE_FORMATION_DATA, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(psUpdateBusinessFormationData, null);
-        }
+        update("UPDATE_BUSINESS_FORMATION_DATA", SQLStatements.UPDATE_BUSINESS_FORMATION_DATA, ERROR_UPDATE_FORMATION_DATA, ps -> {
+            ps.setString(1, As400Codec.formatDate(formation.getDate()));
+            ps.setString(2, As400Codec.formatDate(legalDocument.getIssueDate()));
+            ps.setString(3, legalDocument.getDocumentNumber());
+            ps.setString(4, As400Codec.formatDate(legalDocument.getIssueDate()));
+            ps.setString(5, nonBusinessDatatype.getBusinessDocument());
+            ps.setInt(6, nonBusinessDatatype.getBusinessCountry());
+            ps.setInt(7, nonBusinessDatatype.getBusinessDocumentType());
+        });
     }
 
     @Override
-    public void updateBusinessEconomicData(final NonBusinessIdDatatype nonBusinessDatatype, final EconomicData economicData) throws ServiceException {
-        PreparedStatement psUpdateBusinessEconomicData = null;
+    public void patchBusiness(final NonBusinessIdDatatype nonBusinessDatatype, final BusinessPatch businessPatch) throws ServiceException {
+        final List<String> assignments = new ArrayList<>();
+        final List<String> changes = new ArrayList<>();
+        final List<String> values = new ArrayList<>();
+
+        if (businessPatch.getCommercialName() != null) {
+            assignments.add(SQLStatements.SET_BUSINESS_COMMERCIAL_NAME);
+            changes.add(SQLStatements.BUSINESS_COMMERCIAL_NAME_CHANGED);
+            values.add(businessPatch.getCommercialName());
+        }
 
-        try {
-            final Balance balance = economicData.getFinancialInformation().getBalances().stream()
-                    .filter(balanceItem -> "REAL_ANNUAL_INCOME".equals(balanceItem.getBalanceType()) || "PROJECTED_ANNUAL_INCOME".equals(balanceItem.getBalanceType()))
-                    .findFirst().orElse(null);
-
-            if (balance != null) {
-                final SimpleDateFormat dateFormat = new SimpleDateFormat(YYYY_MM_DD_DATE_FORMAT);
-                dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
-                psUpdateBusinessEconomicData = managerDataAccessAs400.prepareStatement(SQLStatements.UPDATE_ECONOMIC_DATA);
-                psUpdateBusinessEconomicData.setInt(1, parseInt(economicData.getEconomicActivity().getId()));
-                psUpdateBusinessEconomicData.setString(2, "REAL_ANNUAL_INCOME".equals(balance.getBalanceType()) ? "REAL" : "PROYECTADO");
-                psUpdateBusinessEconomicData.setString(3, balance.getAmount() > noPackageThreshold ? "INCOME_ASSIGN_PARTIAL" : "INCOME_ASSIGN_FULL");
-                psUpdateBusinessEconomicData.setDouble(4, balance.getAmount());
-                psUpdateBusinessEconomicData.setString(5, dateFormat.format(balance.getIncomeDate()));
-                psUpdateBusinessEconomicData.setString(6, economicData.getTax().getCondition().getId());
-                psUpdateBusinessEconomicData.setString(7, "Salario, remuneraciones, gastos personales, honorarios profesionales");
-                psUpdateBusinessEconomicData.setString(8, nonBusinessDatatype.getBusinessDocument());
-                psUpdateBusinessEconomicData.setInt(9, nonBusinessDatatype.getBusinessCountry());
-                psUpdateBusinessEconomicData.setInt(10, nonBusinessDatatype.getBusinessDocumentType());
-                psUpdateBusinessEconomicData.executeUpdate();
-            }
+        if (businessPatch.getBankBranch() != null) {
+            assignments.add(SQLStatements.SET_BANK_BRANCH);
+            changes.add(SQLStatements.BANK_BRANCH_CHANGED);
+            values.add(businessPatch.getBankBranch());
+        }
 
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_UPDATE_ECONOMIC_DATA, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_UPDATE_ECONOMIC_DATA, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(psUpdateBusinessEconomicData, null);
+        if (businessPatch.getFormation() != null) {
+            final LegalDocument legalDocument = businessPatch.getLegalDocument();
+            assignments.add(SQLStatements.SET_BUSINESS_FORMATION_DATA);
+            changes.add(SQLStatements.BUSINESS_FORMATION_DATA_CHANGED);
+            values.add(As400Codec.formatDate(businessPatch.getFormation().getDate()));
+            values.add(As400Codec.formatDate(legalDocument.getIssueDate()));
+            values.add(legalDocument.getDocumentNumber());
+            values.add(As400Codec.formatDate(legalDocument.getIssueDate()));
+        }
+
+        if (assignments.isEmpty()) {
+            return;
         }
+
+        // Cada SET tiene su comparacion en el WHERE: un reenvio del mismo paso no reescribe la fila
+        final String sql = String.format(SQLStatements.PATCH_BUSINESS, String.join(", ", assignments), String.join(" OR ", changes));
+
+        update("PATCH_BUSINESS", sql, ERROR_PATCH_BUSINESS, ps -> {
+            int index = 1;
+            for (final String value : values) {
+                ps.setString(index++, value);
+            }
+            ps.setString(index++, nonBusinessDatatype.getBusinessDocument());
+            ps.setInt(index++, nonBusinessDatatype.getBusinessCountry());
+            ps.setInt(index++, nonBusinessDatatype.getBusinessDocumentType());
+            for (final String value : values) {
+                ps.setString(index++, value);
+            }
+        });
     }
 
     @Override
-    public void updateBusinessUser(final NonBusinessIdDatatype nonBusinessDatatype, final User user) throws ServiceException {
-        PreparedStatement psUpdateBusinessUser = null;
+    public void updateBusinessEconomicData(final NonBusinessIdDatatype nonBusinessDatatype, final EconomicData economicData) throws ServiceException {
+        final Balance balance = economicData.getFinancialInformation().getBalances().stream()
+                .filter(balanceItem -> "REAL_ANNUAL_INCOME".equals(balanceItem.getBalanceType()) || "PROJECTED_ANNUAL_INCOME".equals(balanceItem.getBalanceType()))
+                .findFirst().orElse(null);
 
-        try {
-            psUpdateBusinessUser = managerDataAccessAs400.prepareStatement(SQLStatements.UPDATE_BUSINESS_USER);
-            psUpdateBusinessUser.setString(1, nonBusinessDatatype.getPersonDocument());
-            psUpdateBusinessUser.setInt(2, nonBusinessDatatype.getPersonCountry());
-            psUpdateBusinessUser.setInt(3, nonBusinessDatatype.getPersonDocumentType());
+        if (balance == null) {
+            return;
+        }
 
-            psUpdateBusinessUser.executeUpdate();
+        update("UPDATE_ECONOMIC_DATA", SQLStatements.UPDATE_ECONOMIC_DATA, ERROR_UPDATE_ECONOMIC_DATA, ps -> {
+            ps.setInt(1, parseInt(economicData.getEconomicActivity().getId()));
+            ps.setString(2, "REAL_ANNUAL_INCOME".equals(balance.getBalanceType()) ? "REAL" : "PROYECTADO");
+            ps.setString(3, balance.getAmount() > noPackageThreshold ? "INCOME_ASSIGN_PARTIAL" : "INCOME_ASSIGN_FULL");
+            ps.setDouble(4, balance.getAmount());
+            ps.setString(5, As400Codec.formatDate(balance.getIncomeDate()));
+            ps.setString(6, economicData.getTax().getCondition().getId());
+            ps.setString(7, "Salario, remuneraciones, gastos personales, honorarios profesionales");
+            ps.setString(8, nonBusinessDatatype.getBusinessDocument());
+            ps.setInt(9, nonBusinessDatatype.getBusinessCountry());
+            ps.setInt(10, nonBusinessDatatype.getBusinessDocumentType());
+        });
+    }
 
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_UPDATE_BUSINESS_USER, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_UPDATE_BUSINESS_USER, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(psUpdateBusinessUser, null);
-        }
+    @Override
+    public void updateBusinessUser(final NonBusinessIdDatatype nonBusinessDatatype, final User user) throws ServiceException {
+        update("UPDATE_BUSINESS_USER", SQLStatements.UPDATE_BUSINESS_USER, ERROR_UPDATE_BUSINESS_USER, ps -> {
+            ps.setString(1, nonBusinessDatatype.getPersonDocument());
+            ps.setInt(2, nonBusinessDatatype.getPersonCountry());
+            ps.setInt(3, nonBusinessDatatype.getPersonDocumentType());
+        });
     }
 
     @Override
     public void auditStatusChange(final NonBusinessIdDatatype nonBusinessIdDatatype, final Status status) throws ServiceException {
-        CallableStatement csAuditStatusChange = null;
-
-        try {
-            csAuditStatusChange = managerDataAccessAs400.prepareCall(SQLStatements.AUDIT_STATUS_CHANGE);
-            csAuditStatusChange.setInt(1, nonBusinessIdDatatype.getBusinessCountry());
-            csAuditStatusChange.setInt(2, nonBusinessIdDatatype.getBusinessDocumentType());
-            csAuditStatusChange.setString(3, nonBusinessIdDatatype.getBusinessDocument());
-            csAuditStatusChange.setInt(4, nonBusinessIdDatatype.getPersonCountry());
-            csAuditStatusChange.setInt(5, nonBusinessIdDatatype.getPersonDocumentType());
-            csAuditStatusChange.setString(6, nonBusinessIdDatatype.getPersonDocument());
-            csAuditStatusChange.setInt(7, status.getChannelId());
-            csAuditStatusChange.setString(8, "");
-            csAuditStatusChange.setString(9, status.getProcess());
-            csAuditStatusChange.setString(10, status.getId());
-            csAuditStatusChange.setInt(11, 0);
-            csAuditStatusChange.setString(12, status.getMessage());
-            csAuditStatusChange.execute();
-
-        } catch (final SQLException e) {
-            logUtils.logError(this.getClass().getName(), ERROR_AUDIT_STATUS_CHANGE, e.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_AUDIT_STATUS_CHANGE, e);
-        } finally {
-            managerDataAccessAs400.closeResources(csAuditStatusChange, null);
+        if (asyncAuditEnabled) {
+            auditStatusChangeWriter.enqueue(nonBusinessIdDatatype, status);
+            return;
         }
+        writeAuditStatusChange(nonBusinessIdDatatype, status);
+    }
+
+    private void writeAuditStatusChange(final NonBusinessIdDatatype nonBusinessIdDatatype, final Status status) throws ServiceException {
+        call(As400Bulkheads.Workload.AUDIT_WRITE, "AUDIT_STATUS_CHANGE", SQLStatements.AUDIT_STATUS_CHANGE, ERROR_AUDIT_STATUS_CHANGE,
+                cs -> bindAuditStatusChange(cs, nonBusinessIdDatatype, status));
     }
 
     @Override
@@ -527,29 +491,22 @@ public class DAOImpl implements DAO {
         final MongoTemplateBBVA mongoTemplateBBVA = managerMongoDBAccess.getMongoTemplateBBVA("documents");
         final Query query = new Query();
         query.addCriteria(Criteria.where("documentId").is(termId)).limit(1);
+        if (RequestDeadline.isSet()) {
+            // maxTime cero es sin limite en Mongo: con el plazo vencido se pide un milisegundo para que falle en el servidor
+            query.maxTime(Duration.ofMillis(Math.max(1, RequestDeadline.remainingMillis())));
+        }
         final Document document = mongoTemplateBBVA.findOne(query, Document.class, "documents");
         return document != null ? document.getInteger("version", 0) : 0;
     }
 
     @Override
     public void updateBusinessCommercialName(final NonBusinessIdDatatype nonBusinessDatatype, final String doingBusinessAs) throws ServiceException {
-        PreparedStatement ps = null;
-
-        try {
-            ps = managerDataAccessAs400.prepareStatement(SQLStatements.UPDATE_BUSINESS_COMMERCIAL_NAME);
+        update("UPDATE_BUSINESS_COMMERCIAL_NAME", SQLStatements.UPDATE_BUSINESS_COMMERCIAL_NAME, ERROR_UPDATE_BUSINESS_COMMERCIAL_NAME, ps -> {
             ps.setString(1, doingBusinessAs);
             ps.setString(2, nonBusinessDatatype.getBusinessDocument());
             ps.setInt(3, nonBusinessDatatype.getBusinessCountry());
             ps.setInt(4, nonBusinessDatatype.getBusinessDocumentType());
-
-            ps.executeUpdate();
-
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_UPDATE_BUSINESS_COMMERCIAL_NAME, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_UPDATE_BUSINESS_COMMERCIAL_NAME, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(ps, null);
-        }
+        });
     }
 
     @Override
@@ -568,90 +525,463 @@ public class DAOImpl implements DAO {
         temporaryPassword.put("cipherPassword", cipherPassword(user.getPassword()));
         temporaryPassword.put("date", new Date());
 
+        RequestDeadline.check(this.getClass().getCanonicalName());
         collection.insertOne(temporaryPassword);
     }
 
+
     @Override
     public void updateStatus(final NonBusinessIdDatatype nonBusinessDatatype, final String status) throws ServiceException {
-        CallableStatement cs = null;
+        call(As400Bulkheads.Workload.BUSINESS_WRITE, "UPDATE_STATUS", SQLStatements.UPDATE_STATUS, ERROR_UPDATE_STATUS,
+                cs -> bindUpdateStatus(cs, nonBusinessDatatype, status));
+    }
 
-        try {
-            cs = managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_STATUS);
-            cs.setString(1, status);
-            cs.setInt(2, UY_COUNTRY_CODE);
-            cs.setInt(3, USER_DOCUMENT_TYPE_CI);
-            cs.setString(4, nonBusinessDatatype.getPersonDocument());
-            cs.setInt(5, UY_COUNTRY_CODE);
-            cs.setInt(6, RUT_DOCUMENT_TYPE);
-            cs.setString(7, nonBusinessDatatype.getBusinessDocument());
-            cs.execute();
+    // La auditoria sigue el mismo camino que auditStatusChange: con el writer asincrono se encola y el estado se escribe solo;
+    // cada intento de la llamada conjunta ocupa tambien un permiso de AUDIT_WRITE, asi una rafaga de auditoria no la esquiva
+    @Override
+    public void updateStatusAndAudit(final NonBusinessIdDatatype nonBusinessIdDatatype, final String status, final Status audit) throws ServiceException {
+        if (asyncAuditEnabled) {
+            updateStatus(nonBusinessIdDatatype, status);
+            auditStatusChangeWriter.enqueue(nonBusinessIdDatatype, audit);
+            return;
+        }
 
-        } catch (SQLException sqlException) {
-            logUtils.logError(this.getClass().getName(), ERROR_UPDATE_STATUS, sqlException.getMessage());
-            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_UPDATE_STATUS, sqlException);
-        } finally {
-            managerDataAccessAs400.closeResources(cs);
+        call(EnumSet.of(As400Bulkheads.Workload.BUSINESS_WRITE, As400Bulkheads.Workload.AUDIT_WRITE), "UPDATE_STATUS_AND_AUDIT",
+                SQLStatements.UPDATE_STATUS_AND_AUDIT, ERROR_UPDATE_STATUS, cs -> {
+                    bindAuditStatusChange(cs, nonBusinessIdDatatype, audit);
+                    cs.setString(13, status);
+                }, cs -> null);
+    }
+
+    // Sin estados esperados ninguna transicion es valida: no se llama al procedimiento
+    @Override
+    public boolean updateStatusIf(final NonBusinessIdDatatype nonBusinessDatatype, final String status, final Collection<String> expectedStatuses) throws ServiceException {
+        if (expectedStatuses.isEmpty()) {
+            return false;
+        }
+        return updateStatusWhen("UPDATE_STATUS_IF_IN", SQLStatements.UPDATE_STATUS_IF_IN, nonBusinessDatatype, status, expectedStatuses);
+    }
+
+    // Sin estados rechazados la transicion es incondicional
+    @Override
+    public boolean updateStatusUnless(final NonBusinessIdDatatype nonBusinessDatatype, final String status, final Collection<String> rejectedStatuses) throws ServiceException {
+        if (rejectedStatuses.isEmpty()) {
+            updateStatus(nonBusinessDatatype, status);
+            return true;
         }
+        return updateStatusWhen("UPDATE_STATUS_IF_NOT_IN", SQLStatements.UPDATE_STATUS_IF_NOT_IN, nonBusinessDatatype, status, rejectedStatuses);
+    }
+
+    // Variante condicional del procedimiento de UPDATE_STATUS: compara y escribe en la misma llamada y, como aquel, crea la fila
+    // si no existe (sin fila el estado actual es vacio). Los estados van separados por coma; el parametro 9 indica si se aplico
+    private boolean updateStatusWhen(final String statementId, final String sql, final NonBusinessIdDatatype nonBusinessDatatype,
+                                     final String status, final Collection<String> statuses) throws ServiceException {
+        return call(As400Bulkheads.Workload.BUSINESS_WRITE, statementId, sql, ERROR_UPDATE_STATUS, cs -> {
+            bindUpdateStatus(cs, nonBusinessDatatype, status);
+            cs.setString(8, String.join(",", statuses));
+            cs.registerOutParameter(9, Types.INTEGER);
+        }, cs -> cs.getInt(9) > 0);
+    }
+
+    private static void bindUpdateStatus(final CallableStatement cs, final NonBusinessIdDatatype nonBusinessDatatype, final String status) throws SQLException {
+        cs.setString(1, status);
+        cs.setInt(2, UY_COUNTRY_CODE);
+        cs.setInt(3, USER_DOCUMENT_TYPE_CI);
+        cs.setString(4, nonBusinessDatatype.getPersonDocument());
+        cs.setInt(5, UY_COUNTRY_CODE);
+        cs.setInt(6, RUT_DOCUMENT_TYPE);
+        cs.setString(7, nonBusinessDatatype.getBusinessDocument());
     }
 
     @Override
     public RelatedPerson getOwner(final NonBusinessIdDatatype nonBusinessIdDatatype) throws ServiceException {
+        return queryFirst("GET_OWNER", SQLStatements.GET_OWNER, ERROR_GET_OWNER, ps -> {
+            ps.setString(1, nonBusinessIdDatatype.getPersonDocument());
+            ps.setInt(2, nonBusinessIdDatatype.getPersonCountry());
+            ps.setInt(3, nonBusinessIdDatatype.getPersonDocumentType());
+        }, ownerRowMapper::map).orElseThrow(() -> new ServiceException(this.getClass().getName(), ERROR_GET_OWNER, new Exception("Owner not found")));
+    }
+
+    @Override
+    public boolean checkIsClient(final String rut) throws ServiceException {
+        return queryFirst("CHECK_IS_CLIENT", SQLStatements.CHECK_IS_CLIENT, ERROR_CHECK_IS_CLIENT, ps -> {
+            ps.setString(1, rut);
+            ps.setInt(2, RUT_DOCUMENT_TYPE);
+            ps.setInt(3, UY_COUNTRY_CODE);
+        }, rs -> rs.getBoolean("IS_CLIENT")).orElse(false);
+    }
+
+    @Override
+    public SearchPreCheck getSearchPreCheck(final String ci, final String rut) throws ServiceException {
+        return queryFirst("GET_SEARCH_PRE_CHECK", SQLStatements.GET_SEARCH_PRE_CHECK, ERROR_SEARCH_PRE_CHECK, ps -> {
+            ps.setString(1, rut);
+            ps.setInt(2, RUT_DOCUMENT_TYPE);
+            ps.setInt(3, UY_COUNTRY_CODE);
+            ps.setInt(4, UY_COUNTRY_CODE);
+            ps.setInt(5, USER_DOCUMENT_TYPE_CI);
+            ps.setString(6, ci);
+            ps.setInt(7, UY_COUNTRY_CODE);
+            ps.setInt(8, RUT_DOCUMENT_TYPE);
+            ps.setString(9, rut);
+            ps.setString(10, ci);
+            ps.setInt(11, UY_COUNTRY_CODE);
+            ps.setInt(12, USER_DOCUMENT_TYPE_CI);
+        }, searchPreCheckRowMapper::map).orElseGet(() -> {
+            final SearchPreCheck preCheck = new SearchPreCheck();
+            preCheck.setStatus("");
+            return preCheck;
+        });
+    }
+
+    static void bindAuditStatusChange(final CallableStatement cs, final NonBusinessIdDatatype nonBusinessIdDatatype, final Status status) throws SQLException {
+        cs.setInt(1, nonBusinessIdDatatype.getBusinessCountry());
+        cs.setInt(2, nonBusinessIdDatatype.getBusinessDocumentType());
+        cs.setString(3, nonBusinessIdDatatype.getBusinessDocument());
+        cs.setInt(4, nonBusinessIdDatatype.getPersonCountry());
+        cs.setInt(5, nonBusinessIdDatatype.getPersonDocumentType());
+        cs.setString(6, nonBusinessIdDatatype.getPersonDocument());
+        cs.setInt(7, status.getChannelId());
+        cs.setString(8, "");
+        cs.setString(9, status.getProcess());
+        cs.setString(10, status.getId());
+        cs.setInt(11, 0);
+        cs.setString(12, status.getMessage());
+    }
+
+    @FunctionalInterface
+    private interface Binder<S extends PreparedStatement> {
+        void bind(S statement) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface BatchBinder<E> {
+        void bind(CallableStatement statement, E element) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface OutputReader<T> {
+        T read(CallableStatement statement) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(ResultSet resultSet) throws SQLException, ServiceException;
+    }
+
+    private <T> Optional<T> queryFirst(final String statementId, final String sql, final String errorMessage,
+                                       final Binder<PreparedStatement> binder, final RowMapper<T> rowMapper) throws ServiceException {
+        final List<T> rows = query(statementId, sql, errorMessage, binder, rowMapper, 1);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    private <T> List<T> queryForList(final String statementId, final String sql, final String errorMessage,
+                                     final Binder<PreparedStatement> binder, final RowMapper<T> rowMapper) throws ServiceException {
+        return query(statementId, sql, errorMessage, binder, rowMapper, Integer.MAX_VALUE);
+    }
+
+    private <T> List<T> query(final String statementId, final String sql, final String errorMessage, final Binder<PreparedStatement> binder,
+                              final RowMapper<T> rowMapper, final int maxRows) throws ServiceException {
+        return execute(errorMessage, () -> queryOnce(statementId, sql, binder, rowMapper, maxRows));
+    }
+
+    private int update(final String statementId, final String sql, final String errorMessage, final Binder<PreparedStatement> binder) throws ServiceException {
+        return execute(errorMessage, () -> updateOnce(statementId, sql, binder));
+    }
+
+    private void call(final As400Bulkheads.Workload workload, final String statementId, final String sql, final String errorMessage,
+                      final Binder<CallableStatement> binder) throws ServiceException {
+        call(workload, statementId, sql, errorMessage, binder, cs -> null);
+    }
+
+    private <T> T call(final As400Bulkheads.Workload workload, final String statementId, final String sql, final String errorMessage,
+                       final Binder<CallableStatement> binder, final OutputReader<T> outputReader) throws ServiceException {
+        return call(EnumSet.of(workload), statementId, sql, errorMessage, binder, outputReader);
+    }
+
+    private <T> T call(final EnumSet<As400Bulkheads.Workload> workloads, final String statementId, final String sql, final String errorMessage,
+                       final Binder<CallableStatement> binder, final OutputReader<T> outputReader) throws ServiceException {
+        return execute(errorMessage, () -> callOnce(workloads, statementId, sql, binder, outputReader));
+    }
+
+    @FunctionalInterface
+    private interface SqlAttempt<T> {
+        T run() throws SQLException, ServiceException;
+    }
+
+    // Politica de errores comun: el circuito corta en microsegundos durante una caida de conectividad o timeouts seguidos y
+    // los errores transitorios se reintentan con espera aleatoria. En una transaccion compartida no se reintenta: el rollback
+    // alcanza a toda la transaccion. Sin transaccion cada sentencia se confirma sola y reintentarla es seguro
+    private <T> T execute(final String errorMessage, final SqlAttempt<T> attempt) throws ServiceException {
+        return execute(errorMessage, transientMaxRetries, attempt);
+    }
+
+    private <T> T execute(final String errorMessage, final int maxRetries, final SqlAttempt<T> attempt) throws ServiceException {
+        int retries = 0;
+        while (true) {
+            RequestDeadline.check(this.getClass().getCanonicalName());
+            final boolean probe = as400CircuitBreaker.acquire();
+            As400CircuitBreaker.Outcome outcome = As400CircuitBreaker.Outcome.IGNORED;
+            try {
+                final T result = attempt.run();
+                outcome = As400CircuitBreaker.Outcome.SUCCESS;
+                return result;
+
+            } catch (SQLException sqlException) {
+                final As400SqlErrors.Kind kind = As400SqlErrors.classify(sqlException);
+                // Un AS400 que no responde a tiempo cuenta para el circuito igual que uno inalcanzable
+                outcome = kind == As400SqlErrors.Kind.CONNECTIVITY || kind == As400SqlErrors.Kind.TIMEOUT
+                        ? As400CircuitBreaker.Outcome.CONNECTIVITY_FAILURE : As400CircuitBreaker.Outcome.SUCCESS;
+                if (kind != As400SqlErrors.Kind.TRANSIENT || retries >= maxRetries || isTransactionalLease()
+                        || RequestDeadline.remainingMillis() <= transientBackoffMillis << retries) {
+                    throw sqlError(errorMessage, sqlException);
+                }
+            } finally {
+                as400CircuitBreaker.release(outcome, probe);
+            }
+            backoff(errorMessage, ++retries);
+        }
+    }
+
+    // Espera aleatoria entre cero y base * 2^(intento - 1) para que los reintentos concurrentes no se sincronicen
+    private void backoff(final String errorMessage, final int retry) throws ServiceException {
+        final long maxDelay = transientBackoffMillis << (retry - 1);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(this.getClass().getCanonicalName(), errorMessage, e);
+        }
+    }
+
+    // Nucleo comun de todas las consultas AS400: preparar, aplicar timeout, bindear, mapear, medir y cerrar
+    private <T> List<T> queryOnce(final String statementId, final String sql, final Binder<PreparedStatement> binder,
+                                  final RowMapper<T> rowMapper, final int maxRows) throws SQLException, ServiceException {
+        Connection readConnection = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
+        final List<T> rows = new ArrayList<>();
+        // Las lecturas de una operacion que escribe usan su conexion y cuentan en su particion
+        final List<As400Bulkhead> bulkheads = admit(EnumSet.of(As400ConnectionLease.isActive() ? As400Bulkheads.Workload.BUSINESS_WRITE : As400Bulkheads.Workload.READ));
+        final long start = System.nanoTime();
+        boolean failed = true;
 
         try {
-            ps = managerDataAccessAs400.prepareStatement(SQLStatements.GET_OWNER);
-            ps.setString(1, nonBusinessIdDatatype.getPersonDocument());
-            ps.setInt(2, nonBusinessIdDatatype.getPersonCountry());
-            ps.setInt(3, nonBusinessIdDatatype.getPersonDocumentType());
+            if (isReadRouted()) {
+                readConnection = as400ReadDataSource.getConnection();
+                ps = readConnection.prepareStatement(sql);
+            } else {
+                ps = prepareStatement(sql);
+            }
+            applyQueryTimeout(ps);
+            binder.bind(ps);
             rs = ps.executeQuery();
+            while (rows.size() < maxRows && rs.next()) {
+                rows.add(rowMapper.map(rs));
+            }
+            failed = false;
+            return rows;
 
-            if (rs.next()) {
-                final RelatedPerson owner = new RelatedPerson();
-                owner.setFirstName(trimToEmpty(rs.getString("BBNCPFNOM1")));
-                owner.setMiddleName(trimToEmpty(rs.getString("BBNCPFNOM2")));
-                owner.setLastName(trimToEmpty(rs.getString("BBNCPFAPE1")));
-                owner.setSecondLastName(trimToEmpty(rs.getString("BBNCPFAPE2")));
-                return owner;
+        } finally {
+            final long elapsed = System.nanoTime() - start;
+            As400StatementMetrics.record(statementId, elapsed, rows.size(), failed);
+            if (readConnection != null) {
+                closeQuietly(rs);
+                closeQuietly(ps);
+                closeQuietly(readConnection);
+            } else {
+                closeResources(ps, rs);
             }
+            leave(bulkheads, statementId, elapsed, failed);
+        }
+    }
 
-            throw new ServiceException(this.getClass().getName(), ERROR_GET_OWNER, new Exception("Owner not found"));
+    private int updateOnce(final String statementId, final String sql, final Binder<PreparedStatement> binder) throws SQLException, ServiceException {
+        PreparedStatement ps = null;
+        int rows = 0;
+        final List<As400Bulkhead> bulkheads = admit(EnumSet.of(As400Bulkheads.Workload.BUSINESS_WRITE));
+        final long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+            ps = prepareStatement(sql);
+            applyQueryTimeout(ps);
+            binder.bind(ps);
+            rows = ps.executeUpdate();
+            failed = false;
+            return rows;
 
-        } catch (SQLException sqle) {
-            logUtils.logError(this.getClass().getName(), ERROR_GET_OWNER, ERROR_GET_OWNER, sqle);
-            throw new ServiceException(this.getClass().getName(), ERROR_GET_OWNER, sqle);
         } finally {
-            managerDataAccessAs400.closeResources(ps, rs);
+            final long elapsed = System.nanoTime() - start;
+            As400StatementMetrics.record(statementId, elapsed, rows, failed);
+            closeResources(ps, null);
+            leave(bulkheads, statementId, elapsed, failed);
         }
     }
 
-    @Override
-    public boolean checkIsClient(final String rut) throws ServiceException {
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+    private <T> T callOnce(final EnumSet<As400Bulkheads.Workload> workloads, final String statementId, final String sql,
+                           final Binder<CallableStatement> binder, final OutputReader<T> outputReader) throws SQLException, ServiceException {
+        CallableStatement cs = null;
+        final List<As400Bulkhead> bulkheads = admit(workloads);
+        final long start = System.nanoTime();
+        boolean failed = true;
 
         try {
-            ps = managerDataAccessAs400.prepareStatement(SQLStatements.CHECK_IS_CLIENT);
-            ps.setString(1, rut);
-            ps.setInt(2, RUT_DOCUMENT_TYPE);
-            ps.setInt(3, UY_COUNTRY_CODE);
-            rs = ps.executeQuery();
+            cs = prepareCall(sql);
+            applyQueryTimeout(cs);
+            binder.bind(cs);
+            cs.execute();
+            // Los parametros de salida se leen antes de cerrar o devolver la sentencia al cache
+            final T output = outputReader.read(cs);
+            failed = false;
+            return output;
 
-            return  rs.next() && rs.getBoolean("IS_CLIENT");
+        } finally {
+            final long elapsed = System.nanoTime() - start;
+            As400StatementMetrics.record(statementId, elapsed, 0, failed);
+            closeResources(cs, null);
+            leave(bulkheads, statementId, elapsed, failed);
+        }
+    }
+
+    private <E> void callBatchOnce(final As400Bulkheads.Workload workload, final String statementId, final String sql,
+                                   final List<E> elements, final BatchBinder<E> binder) throws SQLException, ServiceException {
+        CallableStatement cs = null;
+        final List<As400Bulkhead> bulkheads = admit(EnumSet.of(workload));
+        final long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+            cs = prepareCall(sql);
+            applyQueryTimeout(cs);
+            for (final E element : elements) {
+                binder.bind(cs, element);
+                cs.addBatch();
+            }
+            cs.executeBatch();
+            failed = false;
 
-        } catch (SQLException sqle) {
-            logUtils.logError(this.getClass().getName(), ERROR_CHECK_IS_CLIENT, ERROR_CHECK_IS_CLIENT, sqle);
-            throw new ServiceException(this.getClass().getName(), ERROR_CHECK_IS_CLIENT, sqle);
         } finally {
-            managerDataAccessAs400.closeResources(ps, rs);
+            final long elapsed = System.nanoTime() - start;
+            As400StatementMetrics.record(statementId, elapsed, elements.size(), failed);
+            closeResources(cs, null);
+            leave(bulkheads, statementId, elapsed, failed);
+        }
+    }
+
+    // Primero las particiones de la carga, en el orden del enum para que dos operaciones que ocupan varias no se esperen
+    // entre si, y despues el limite global. Si algo rechaza se devuelven los permisos ya tomados
+    private List<As400Bulkhead> admit(final EnumSet<As400Bulkheads.Workload> workloads) throws ServiceException {
+        final List<As400Bulkhead> acquired = new ArrayList<>(workloads.size());
+        try {
+            for (final As400Bulkheads.Workload workload : workloads) {
+                final As400Bulkhead bulkhead = as400Bulkheads.get(workload);
+                bulkhead.acquire();
+                acquired.add(bulkhead);
+            }
+            as400ConcurrencyLimiter.acquire();
+        } catch (ServiceException e) {
+            releaseAll(acquired);
+            throw e;
+        }
+        return acquired;
+    }
+
+    private void leave(final List<As400Bulkhead> bulkheads, final String statementId, final long elapsedNanos, final boolean failed) {
+        as400ConcurrencyLimiter.release(statementId, elapsedNanos, failed);
+        releaseAll(bulkheads);
+    }
+
+    private static void releaseAll(final List<As400Bulkhead> bulkheads) {
+        for (int i = bulkheads.size() - 1; i >= 0; i--) {
+            bulkheads.get(i).release();
+        }
+    }
+
+    // El timeout de la sentencia nunca supera lo que queda del plazo del pedido
+    private void applyQueryTimeout(final PreparedStatement statement) throws SQLException {
+        int timeoutSeconds = queryTimeoutSeconds;
+        if (RequestDeadline.isSet()) {
+            final int remainingSeconds = (int) Math.max(1, (RequestDeadline.remainingMillis() + 999) / 1000);
+            timeoutSeconds = timeoutSeconds > 0 ? Math.min(timeoutSeconds, remainingSeconds) : remainingSeconds;
+        }
+        if (timeoutSeconds > 0) {
+            statement.setQueryTimeout(timeoutSeconds);
+        }
+    }
+
+    private ServiceException sqlError(final String errorMessage, final SQLException sqlException) {
+        logUtils.logError(this.getClass().getName(), errorMessage, sqlException.getMessage());
+        return new ServiceException(this.getClass().getCanonicalName(), errorMessage, sqlException);
+    }
+
+    private PreparedStatement prepareStatement(final String sql) throws SQLException {
+        if (isLeased()) {
+            return leasedStatement(sql, false);
+        }
+        return managerDataAccessAs400.prepareStatement(sql);
+    }
+
+    private CallableStatement prepareCall(final String sql) throws SQLException {
+        if (isLeased()) {
+            return (CallableStatement) leasedStatement(sql, true);
+        }
+        return managerDataAccessAs400.prepareCall(sql);
+    }
+
+    private PreparedStatement leasedStatement(final String sql, final boolean callable) throws SQLException {
+        final Connection connection = As400ConnectionLease.connection(as400DataSource);
+        if (statementCacheSize <= 0) {
+            return callable ? connection.prepareCall(sql) : connection.prepareStatement(sql);
+        }
+
+        final As400StatementCache statementCache = As400ConnectionLease.statementCache(statementCacheSize);
+        PreparedStatement statement = statementCache.get(sql);
+        if (statement == null) {
+            statement = callable ? connection.prepareCall(sql) : connection.prepareStatement(sql);
+            statementCache.put(sql, statement);
         }
+        return statement;
     }
 
-    private Date parseDate(final String stringDate) throws ServiceException {
+    private void closeResources(final PreparedStatement statement, final ResultSet resultSet) {
+        if (isLeased()) {
+            closeQuietly(resultSet);
+            closeLeasedStatement(statement);
+            return;
+        }
+        managerDataAccessAs400.closeResources(statement, resultSet);
+    }
+
+    // Las sentencias cacheadas quedan abiertas hasta que el lease libera la conexion
+    private void closeLeasedStatement(final PreparedStatement statement) {
+        if (statementCacheSize > 0 && statement != null && As400ConnectionLease.statementCache(statementCacheSize).contains(statement)) {
+            return;
+        }
+        closeQuietly(statement);
+    }
+
+    // Las operaciones que escriben corren dentro de un lease: sus lecturas quedan en el primario y ven sus propias escrituras
+    private boolean isReadRouted() {
+        return readRoutingEnabled && as400ReadDataSource != null && !As400ConnectionLease.isActive();
+    }
+
+    // Con la conexion compartida solo se cierran statement y result set; la conexion la libera el lease
+    private boolean isLeased() {
+        return connectionLeaseEnabled && as400DataSource != null && As400ConnectionLease.isActive();
+    }
+
+    private boolean isTransactionalLease() {
+        return isLeased() && As400ConnectionLease.isTransactional();
+    }
+
+    private static void closeQuietly(final AutoCloseable resource) {
+        if (resource == null) {
+            return;
+        }
         try {
-            return DateUtils.parseDate(stringDate, YYYY_MM_DD_DATE_FORMAT);
-        } catch (ParseException e) {
-            throw new ServiceException(this.getClass().getCanonicalName(), "Error al parsear feha de nacimiento", e);
+            resource.close();
+        } catch (Exception ignored) {
+            // El cierre de recursos no debe ocultar el resultado de la operacion
         }
     }
 
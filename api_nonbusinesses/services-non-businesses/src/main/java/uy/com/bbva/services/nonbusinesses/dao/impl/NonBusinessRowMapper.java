@@ -0,0 +1,114 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl;
+
+import uy.com.bbva.dtos.commons.model.*;
+import uy.com.bbva.dtos.commons.v1.model.IdentityDocument;
+import uy.com.bbva.nonbusinessescommons.dtos.models.ContactDetail;
+import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.model.*;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Mapea una forma de la consulta de no cliente leyendo las columnas por indice.
+ * Cada forma tiene su propio SQL y solo resuelve las columnas que ese SQL selecciona.
+ */
+final class NonBusinessRowMapper {
+
+    private final String sql;
+    private final boolean includeOwnerData;
+    private final boolean includeContactDetails;
+    private final ColumnIndexes columns;
+
+    NonBusinessRowMapper(final String sql, final boolean includeOwnerData, final boolean includeContactDetails) {
+        this.sql = sql;
+        this.includeOwnerData = includeOwnerData;
+        this.includeContactDetails = includeContactDetails;
+
+        final List<String> labels = new ArrayList<>(List.of("BBNCPJNDOC", "BBNCPJRASO", "BBNCPJFRUT"));
+        if (includeOwnerData) {
+            labels.addAll(List.of("BBNCPFNOM1", "BBNCPFNOM2", "BBNCPFAPE1", "BBNCPFAPE2", "BBNCPFFNAC"));
+        }
+        if (includeContactDetails) {
+            labels.addAll(List.of("BBNCPJMAIL", "BBNCPJTEL1"));
+        }
+        this.columns = new ColumnIndexes(labels.toArray(new String[0]));
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    NonBusiness map(final ResultSet rs, final NonBusinessIdDatatype nonBusinessDatatype) throws SQLException, ServiceException {
+        final int[] index = columns.resolve(rs);
+        int column = 0;
+
+        final NonBusiness nonBusiness = new NonBusiness();
+        final BusinessDocument businessDocument = new BusinessDocument();
+        businessDocument.setDocumentNumber(As400Codec.text(rs.getString(index[column++])));
+        businessDocument.setBusinessDocumentType(new GenericObject("RUT", "RUT"));
+        nonBusiness.setBusinessDocuments(List.of(businessDocument));
+        nonBusiness.setLegalName(As400Codec.text(rs.getString(index[column++])));
+        final LegalDocument legalDocument = new LegalDocument();
+        legalDocument.setLegalDocumentType(new GenericIdDescription("BUSINESS_LICENSE_CERTIFICATE_OF_GOOD_STANDING", "Certificate"));
+        final LocalDate date = As400Codec.parseDate(rs.getString(index[column++]));
+        legalDocument.setExpirationDate(As400Codec.startOfDay(date));
+        legalDocument.setActive(date.isAfter(LocalDate.now()));
+        nonBusiness.setLegalDocuments(List.of(legalDocument));
+
+        if (includeOwnerData) {
+            final List<LegalRepresentative> legalRepresentatives = new ArrayList<>();
+            final LegalRepresentative owner = new LegalRepresentative();
+            owner.setFirstName(As400Codec.text(rs.getString(index[column++])));
+            owner.setMiddleName(As400Codec.text(rs.getString(index[column++])));
+            owner.setLastName(As400Codec.text(rs.getString(index[column++])));
+            owner.setSecondLastName(As400Codec.text(rs.getString(index[column++])));
+            owner.setRole("OWNER");
+            final BirthData birthData = new BirthData();
+            birthData.setBirthDate(parseDate(rs.getString(index[column++])));
+            owner.setBirthData(birthData);
+            final IdentityDocument ownerDocument = new IdentityDocument();
+            ownerDocument.setDocumentNumber(nonBusinessDatatype.getPersonDocument());
+            ownerDocument.setDocumentType(new GenericIdDescription("DNI", "Cedula"));
+            ownerDocument.setCountry(new GenericObject("UY", "Uruguay"));
+            owner.setIdentityDocument(ownerDocument);
+            legalRepresentatives.add(owner);
+            nonBusiness.setLegalRepresentatives(legalRepresentatives);
+        }
+
+        if (includeContactDetails) {
+            final List<ContactDetail> contactDetails = new ArrayList<>();
+            final ContactDetail emailContact = new ContactDetail();
+            final EmailContact email = new EmailContact();
+            email.setContactDetailType("EMAIL");
+            email.setAddress(As400Codec.text(rs.getString(index[column++])));
+            emailContact.setContact(email);
+            contactDetails.add(emailContact);
+            final ContactDetail cellphoneContact = new ContactDetail();
+            final MobileContact cellphone = new MobileContact();
+            cellphone.setContactDetailType("MOBILE");
+            cellphone.setNumber(As400Codec.text(rs.getString(index[column])));
+            cellphoneContact.setContact(cellphone);
+            contactDetails.add(cellphoneContact);
+            nonBusiness.setContactDetails(contactDetails);
+        }
+
+        return nonBusiness;
+    }
+
+    // La fecha de nacimiento admite lo mismo que el parseo lenient original; sin fecha queda null en vez de fallar la consulta
+    private static Date parseDate(final String stringDate) throws ServiceException {
+        try {
+            final LocalDate date = As400Codec.parseLenientDate(stringDate);
+            return date == null ? null : As400Codec.startOfDay(date);
+        } catch (DateTimeException e) {
+            throw new ServiceException(DAOImpl.class.getCanonicalName(), "Error al parsear feha de nacimiento", e);
+        }
+    }
+}
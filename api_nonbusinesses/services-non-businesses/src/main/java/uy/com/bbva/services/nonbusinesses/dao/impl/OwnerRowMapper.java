@@ -0,0 +1,24 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl;
+
+import uy.com.bbva.dtos.commons.v1.model.RelatedPerson;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapea el dueño de la unipersonal leyendo las columnas por indice.
+ */
+final class OwnerRowMapper {
+
+    private final ColumnIndexes columns = new ColumnIndexes("BBNCPFNOM1", "BBNCPFNOM2", "BBNCPFAPE1", "BBNCPFAPE2");
+
+    RelatedPerson map(final ResultSet rs) throws SQLException {
+        final int[] index = columns.resolve(rs);
+        final RelatedPerson owner = new RelatedPerson();
+        owner.setFirstName(As400Codec.textOrEmpty(rs.getString(index[0])));
+        owner.setMiddleName(As400Codec.textOrEmpty(rs.getString(index[1])));
+        owner.setLastName(As400Codec.textOrEmpty(rs.getString(index[2])));
+        owner.setSecondLastName(As400Codec.textOrEmpty(rs.getString(index[3])));
+        return owner;
+    }
+}
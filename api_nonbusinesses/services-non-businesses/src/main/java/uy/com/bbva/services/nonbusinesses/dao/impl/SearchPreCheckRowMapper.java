@@ -0,0 +1,27 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl;
+
+import uy.com.bbva.services.nonbusinesses.model.SearchPreCheck;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapea el pre-chequeo de la busqueda leyendo las columnas por indice; el dueño se mapea con OwnerRowMapper.
+ */
+final class SearchPreCheckRowMapper {
+
+    private final ColumnIndexes columns = new ColumnIndexes("IS_CLIENT", "BBNCEMESTA", "BBNCPFNOM1");
+    private final OwnerRowMapper ownerRowMapper = new OwnerRowMapper();
+
+    SearchPreCheck map(final ResultSet rs) throws SQLException {
+        final int[] index = columns.resolve(rs);
+        final SearchPreCheck preCheck = new SearchPreCheck();
+        preCheck.setClient(rs.getBoolean(index[0]));
+        preCheck.setStatus(As400Codec.textOrEmpty(rs.getString(index[1])));
+        // Sin la persona registrada las columnas del dueño vienen nulas
+        if (rs.getString(index[2]) != null) {
+            preCheck.setOwner(ownerRowMapper.map(rs));
+        }
+        return preCheck;
+    }
+}
@@ -0,0 +1,32 @@
+package uy.com.bbva.services.nonbusinesses.model;
+
+/**
+ * Columnas de la empresa modificadas por un PATCH. Solo los campos informados se escriben.
+ */
+public class BusinessPatch {
+
+    private String commercialName;
+    private String bankBranch;
+    private Formation formation;
+    private LegalDocument legalDocument;
+
+    public String getCommercialName() { return commercialName; }
+
+    public void setCommercialName(String commercialName) { this.commercialName = commercialName; }
+
+    public String getBankBranch() { return bankBranch; }
+
+    public void setBankBranch(String bankBranch) { this.bankBranch = bankBranch; }
+
+    public Formation getFormation() { return formation; }
+
+    public void setFormation(Formation formation) { this.formation = formation; }
+
+    public LegalDocument getLegalDocument() { return legalDocument; }
+
+    public void setLegalDocument(LegalDocument legalDocument) { this.legalDocument = legalDocument; }
+
+    public boolean isEmpty() {
+        return commercialName == null && bankBranch == null && formation == null;
+    }
+}
@@ -0,0 +1,22 @@
+package uy.com.bbva.services.nonbusinesses.model;
+
+import uy.com.bbva.dtos.commons.v1.model.RelatedPerson;
+
+public class SearchPreCheck {
+
+    private boolean client;
+    private String status;
+    private RelatedPerson owner;
+
+    public boolean isClient() { return client; }
+
+    public void setClient(boolean client) { this.client = client; }
+
+    public String getStatus() { return status; }
+
+    public void setStatus(String status) { this.status = status; }
+
+    public RelatedPerson getOwner() { return owner; }
+
+    public void setOwner(RelatedPerson owner) { this.owner = owner; }
+}
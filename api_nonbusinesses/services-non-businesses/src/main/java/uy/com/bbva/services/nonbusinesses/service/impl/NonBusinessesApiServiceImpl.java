@@ -15,16 +15,21 @@ import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdData
 import uy.com.bbva.nonbusinessescommons.idmanagement.idmanagement.NonBusinessIdManagement;
 import uy.com.bbva.services.commons.exceptions.BusinessException;
 import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.dao.As400ConnectionLease;
 import uy.com.bbva.services.nonbusinesses.dao.DAO;
+import uy.com.bbva.services.nonbusinesses.dao.RequestDeadline;
 import uy.com.bbva.services.nonbusinesses.model.*;
 import uy.com.bbva.services.nonbusinesses.model.Location;
 import uy.com.bbva.services.nonbusinesses.model.exceptions.DGIException;
 import uy.com.bbva.services.nonbusinesses.model.external.BusinessInformation;
 import uy.com.bbva.services.nonbusinesses.model.status.Status;
 import uy.com.bbva.services.nonbusinesses.service.NonBusinessesApiService;
-import uy.com.bbva.services.nonbusinesses.service.external.BusinessInformationService;
 import uy.com.bbva.services.nonbusinesses.service.external.RisksService;
 import uy.com.bbva.services.nonbusinesses.service.utils.AddressUtils;
+import uy.com.bbva.services.nonbusinesses.service.utils.BlockingTaskExecutor;
+import uy.com.bbva.services.nonbusinesses.service.utils.BusinessInformationCache;
+import uy.com.bbva.services.nonbusinesses.service.utils.DGIUnavailableException;
+import uy.com.bbva.services.nonbusinesses.service.utils.DepartmentCatalog;
 import uy.com.bbva.services.nonbusinesses.service.utils.validator.NameValidator;
 import uy.com.bbva.services.nonbusinesses.service.utils.validator.Validator;
 
@@ -34,6 +39,11 @@ import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 
 import static org.apache.commons.lang3.StringUtils.*;
@@ -53,10 +63,10 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
     private AddressUtils addressUtil;
 
     @Autowired
-    private RisksService risksService;
+    private DepartmentCatalog departmentCatalog;
 
     @Autowired
-    private BusinessInformationService businessInformationService;
+    private RisksService risksService;
 
     @Autowired
     private NonBusinessIdManagement nonBusinessIdManagement;
@@ -64,9 +74,24 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
     @Autowired
     private NameValidator nameValidator;
 
+    @Autowired
+    private BlockingTaskExecutor blockingTaskExecutor;
+
+    @Autowired
+    private BusinessInformationCache businessInformationCache;
+
     @Value("${api.non-businesses.validate.name:true}")
     private boolean validateName;
 
+    @Value("${api.non-businesses.as400.connection-lease.transactional:false}")
+    private boolean transactionalLease;
+
+    @Value("${api.non-businesses.request.deadline-ms:0}")
+    private long requestDeadlineMillis;
+
+    @Value("${api.non-businesses.search.parallel-dgi:false}")
+    private boolean parallelDgiLookup;
+
     private static final int CI_DOCUMENT = 1;
     private static final int RUT_DOCUMENT = 3;
     private static final int URUGUAY_CODE = 845;
@@ -84,6 +109,7 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
     private static final String RESUME = "RETOMA";
     private static final List<String> FINAL_STATES = List.of("PROCESADO", "ANULADO");
     private static final List<String> RESUME_STATES = List.of(ENTRY, RESUME);
+    private static final List<String> NON_SEARCHABLE_STATES = List.of("PROCESADO", "ANULADO", ENTRY, RESUME);
 
     private static final String SEARCH_PROCESS = "NBSEARCH";
     private static final String POST_PROCESS = "NBPOST";
@@ -102,9 +128,14 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
     private static final String ERROR_INVALID_MAIL = "El correo esta en la lista negra";
     private static final String ERROR_INVALID_USER_ID = "El user-id es invalido";
     private static final String ERROR_DOCUMENT_NOT_MATCHING = "Los documentos no coinciden";
+    private static final String ERROR_OWNER_NOT_FOUND = "No se encontraron los datos del dueño de la unipersonal";
 
     @Override
     public DataList search(final String userId, final NonBusinessSearch nonBusinessSearch) throws ServiceException {
+        return RequestDeadline.call(requestDeadlineMillis, () -> doSearch(userId, nonBusinessSearch));
+    }
+
+    private DataList doSearch(final String userId, final NonBusinessSearch nonBusinessSearch) throws ServiceException {
 
         final String[] parts = trimToEmpty(userId).split("-", 2);
 
@@ -129,23 +160,29 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
         nonBusinessIdDatatype.setBusinessCountry(URUGUAY_CODE);
         nonBusinessIdDatatype.setBusinessDocument(rut);
 
-        final boolean isRutClient = dao.checkIsClient(rut);
-
-        if (isRutClient) {
-            logUtils.logError(this.getClass().getCanonicalName(), ERROR_ALREADY_CLIENT, ERROR_ALREADY_CLIENT, new Exception(ERROR_ALREADY_CLIENT));
-            dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_CLI_ERR").setProcess(SEARCH_PROCESS));
-            throw new BusinessException(ERROR_ALREADY_CLIENT, ERROR_ALREADY_CLIENT, "NON_BUSINESS_SEARCH_ERROR_ALREADY_CLIENT", new Exception(ERROR_ALREADY_CLIENT));
+        // La consulta a DGI arranca antes de las validaciones del AS400; las reglas se evaluan en el mismo orden de siempre.
+        // El AS400 se usa en dos leases separados, antes y despues de DGI: la conexion no queda tomada mientras se espera
+        final Future<BusinessInformation> dgiLookup = startBusinessInformationLookup(rut);
+        final SearchPreCheck preCheck;
+        final BusinessInformation businessInformation;
+        try {
+            preCheck = As400ConnectionLease.call(transactionalLease, () -> {
+                final SearchPreCheck searchPreCheck = dao.getSearchPreCheck(ownerDocument, rut);
+                checkSearchable(nonBusinessIdDatatype, searchPreCheck, dgiLookup);
+                return searchPreCheck;
+            });
+            businessInformation = dgiLookup == null ? getBusinessInformation(nonBusinessIdDatatype) : awaitBusinessInformation(nonBusinessIdDatatype, dgiLookup);
+        } finally {
+            // La consulta no sobrevive a la busqueda: si se abandona por cualquier motivo se cancela
+            cancel(dgiLookup);
         }
 
-        final String currentStatus = dao.getStatus(ownerDocument, rut);
+        return As400ConnectionLease.call(transactionalLease, () -> completeSearch(nonBusinessIdDatatype, preCheck, businessInformation));
+    }
 
-        if (FINAL_STATES.contains(currentStatus) || RESUME_STATES.contains(currentStatus)) {
-            logUtils.logError(this.getClass().getCanonicalName(), ERROR_INVALID_STATUS, ERROR_INVALID_STATUS, new Exception(ERROR_INVALID_STATUS));
-            dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_ESI_ERR").setProcess(SEARCH_PROCESS).setMessage("Estado invalido " + currentStatus));
-            throw new BusinessException(ERROR_INVALID_STATUS, ERROR_INVALID_STATUS, "NON_BUSINESS_SEARCH_INVALID_CURRENT_STATUS", new Exception(ERROR_INVALID_STATUS));
-        }
+    private DataList completeSearch(final NonBusinessIdDatatype nonBusinessIdDatatype, final SearchPreCheck preCheck,
+                                    final BusinessInformation businessInformation) throws ServiceException {
 
-        final BusinessInformation businessInformation = getBusinessInformation(nonBusinessIdDatatype);
         dao.updateBusinessInformation(businessInformation);
 
         final LocalDate today = LocalDate.now();
@@ -163,14 +200,24 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
             throw new BusinessException(ERROR_RUT_NOT_UNIPERSONAL, ERROR_RUT_NOT_UNIPERSONAL, "NON_BUSINESS_SEARCH_ERROR_DGI_EMPRESA_NO_UNIPERSONAL", new Exception(ERROR_RUT_NOT_UNIPERSONAL));
         }
 
-        final RelatedPerson owner = dao.getOwner(nonBusinessIdDatatype);
+        final RelatedPerson owner = preCheck.getOwner();
+        if (validateName && owner == null) {
+            logUtils.logError(this.getClass().getCanonicalName(), ERROR_OWNER_NOT_FOUND, ERROR_OWNER_NOT_FOUND, new Exception(ERROR_OWNER_NOT_FOUND));
+            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_OWNER_NOT_FOUND, new Exception(ERROR_OWNER_NOT_FOUND));
+        }
+
         if (validateName && !nameValidator.similarName(owner, businessInformation.getName())) {
             logUtils.logError(this.getClass().getCanonicalName(), ERROR_RUT_NOT_UNIPERSONAL, ERROR_RUT_NOT_UNIPERSONAL, new Exception(ERROR_RUT_NOT_UNIPERSONAL));
             dao.auditStatusChange(nonBusinessIdDatatype, Status.of("DGINTC_ERR").setProcess(SEARCH_PROCESS).setMessage(businessInformation.getName()));
             throw new BusinessException(ERROR_RUT_NOT_UNIPERSONAL, ERROR_RUT_NOT_UNIPERSONAL, "NON_BUSINESS_SEARCH_ERROR_DGI_NOMBRE_NO_CORRESPONDE_PF", new Exception(ERROR_RUT_NOT_UNIPERSONAL));
         }
 
-        dao.updateStatus(nonBusinessIdDatatype, "DGI_OK");
+        // Otro pedido pudo cambiar el estado durante la consulta a DGI; sin fila el procedimiento la crea como UPDATE_STATUS
+        if (!dao.updateStatusUnless(nonBusinessIdDatatype, "DGI_OK", NON_SEARCHABLE_STATES)) {
+            logUtils.logError(this.getClass().getCanonicalName(), ERROR_INVALID_STATUS, ERROR_INVALID_STATUS, new Exception(ERROR_INVALID_STATUS));
+            dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_ESI_ERR").setProcess(SEARCH_PROCESS).setMessage("Estado modificado durante la busqueda"));
+            throw new BusinessException(ERROR_INVALID_STATUS, ERROR_INVALID_STATUS, "NON_BUSINESS_SEARCH_INVALID_CURRENT_STATUS", new Exception(ERROR_INVALID_STATUS));
+        }
         dao.auditStatusChange(nonBusinessIdDatatype, Status.of("DGI_OK").setProcess(SEARCH_PROCESS));
 
         final NonBusinessInformation nonBusinessInformation = new NonBusinessInformation();
@@ -193,6 +240,10 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
 
     @Override
     public String postNonBusiness(final String rut, final String ownerDocument, final String cellphone) throws ServiceException {
+        return RequestDeadline.call(requestDeadlineMillis, () -> As400ConnectionLease.call(transactionalLease, () -> doPostNonBusiness(rut, ownerDocument, cellphone)));
+    }
+
+    private String doPostNonBusiness(final String rut, final String ownerDocument, final String cellphone) throws ServiceException {
 
         Validator.of(rut).check(StringUtils::isNumeric, "NON_BUSINESS_POST_RUT_NOT_NUMERIC", "Invalid rut");
         Validator.of(ownerDocument).check(StringUtils::isNumeric, "NON_BUSINESS_POST_CI_NOT_NUMERIC", "Invalid document");
@@ -212,12 +263,16 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
             throw new BusinessException(ERROR_FINAL_STATE, ERROR_FINAL_STATE, "NON_BUSINESS_POST_USER_ON_FINAL_STATE", new Exception(ERROR_FINAL_STATE));
         }
 
-        if (isEmpty(currentStatus) || RESUME_STATES.contains(currentStatus)) {
-            dao.createNonBusiness(rut, ownerDocument, cellphone);
+        // La lectura anterior solo evita el viaje en el caso comun: el procedimiento vuelve a comprobar el estado final al crear
+        if ((isEmpty(currentStatus) || RESUME_STATES.contains(currentStatus))
+                && !dao.createNonBusinessUnless(rut, ownerDocument, cellphone, FINAL_STATES)) {
+            dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_ESI_ERR").setProcess(POST_PROCESS).setMessage("El estado paso a final antes del alta"));
+            throw new BusinessException(ERROR_FINAL_STATE, ERROR_FINAL_STATE, "NON_BUSINESS_POST_USER_ON_FINAL_STATE", new Exception(ERROR_FINAL_STATE));
         }
 
-        if (ENTRY.equals(currentStatus)) {
-            dao.updateStatus(nonBusinessIdDatatype, RESUME);
+        if (ENTRY.equals(currentStatus) && !dao.updateStatusIf(nonBusinessIdDatatype, RESUME, RESUME_STATES)) {
+            dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_ESI_ERR").setProcess(POST_PROCESS).setMessage("El estado cambio antes de retomar"));
+            throw new BusinessException(ERROR_INVALID_STATUS, ERROR_INVALID_STATUS, "NON_BUSINESS_POST_INVALID_CURRENT_STATUS", new Exception(ERROR_INVALID_STATUS));
         }
 
         final String status = isEmpty(currentStatus) ? ENTRY : RESUME;
@@ -228,6 +283,10 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
 
     @Override
     public DataNonBusiness getNonBusinessById(final String nonBusinessId, final String expand) throws ServiceException {
+        return RequestDeadline.call(requestDeadlineMillis, () -> doGetNonBusinessById(nonBusinessId, expand));
+    }
+
+    private DataNonBusiness doGetNonBusinessById(final String nonBusinessId, final String expand) throws ServiceException {
 
         final NonBusinessIdDatatype nonBusinessIdDatatype = getNonBusinessIdDatatypeFromNonBusinessId(nonBusinessId);
         final boolean includeOwnerData = expand.toUpperCase().contains("LEGAL-REPRESENTATIVES");
@@ -245,6 +304,10 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
 
     @Override
     public void createContactDetail(final String nonBusinessId, final ContactDetail contactDetailBody) throws ServiceException {
+        RequestDeadline.run(requestDeadlineMillis, () -> As400ConnectionLease.run(transactionalLease, () -> doCreateContactDetail(nonBusinessId, contactDetailBody)));
+    }
+
+    private void doCreateContactDetail(final String nonBusinessId, final ContactDetail contactDetailBody) throws ServiceException {
 
         final NonBusinessIdDatatype nonBusinessIdDatatype = getNonBusinessIdDatatypeFromNonBusinessId(nonBusinessId);
         if (ContactTypeEnum.EMAIL.getId().equals(contactDetailBody.getContact().getContactDetailType().trim())) {
@@ -255,17 +318,16 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
                     .check(mail -> isNotEmpty(mail.getAddress()), "EMPTY_MAIL", "Email is required")
                     .check(mail -> Pattern.compile(MAIL_REGEX).matcher(mail.getAddress()).matches(), "INVALID_MAIL_PATTERN", "Invalid mail");
 
+            RequestDeadline.check(this.getClass().getCanonicalName());
             if (risksService.isMailBlacklisted(emailContact, nonBusinessIdDatatype)) {
                 logUtils.logError(this.getClass().getCanonicalName(), ERROR_INVALID_MAIL, ERROR_INVALID_MAIL, new Exception(ERROR_INVALID_MAIL));
                 dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_EBL_ERR").setProcess(CONTACT_PROCESS).setMessage(emailContact.getAddress() + " es un correo invalido para el documento"));
                 throw new BusinessException(ERROR_INVALID_MAIL, ERROR_INVALID_MAIL, "ERROR_BLACKLISTED_EMAIL", new Exception(ERROR_INVALID_MAIL));
             }
 
-            dao.updatePersonMail(nonBusinessIdDatatype, emailContact.getAddress());
-            dao.updateBusinessMail(nonBusinessIdDatatype, emailContact.getAddress());
+            dao.updateContactMail(nonBusinessIdDatatype, emailContact.getAddress());
 
-            dao.updateStatus(nonBusinessIdDatatype, "NB_CNT_OK");
-            dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_CNTE_OK").setProcess(CONTACT_PROCESS));
+            dao.updateStatusAndAudit(nonBusinessIdDatatype, "NB_CNT_OK", Status.of("NB_CNTE_OK").setProcess(CONTACT_PROCESS));
 
         } else if (ContactTypeEnum.MOBILE.getId().equals(contactDetailBody.getContact().getContactDetailType().trim())) {
 
@@ -275,11 +337,9 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
                     .check(mobile -> isNotEmpty(mobile.getNumber()), "EMPTY_MOBILE", "Cellphone is required")
                     .check(mobile -> Pattern.compile(CELLPHONE_REGEX).matcher(mobile.getNumber()).matches(), "ERROR_INVALID_MOBILE_PATTERN", "Invalid cellphone");
 
-            dao.updatePersonMobile(nonBusinessIdDatatype, mobileContact.getNumber());
-            dao.updateBusinessMobile(nonBusinessIdDatatype, mobileContact.getNumber());
+            dao.updateContactMobile(nonBusinessIdDatatype, mobileContact.getNumber());
 
-            dao.updateStatus(nonBusinessIdDatatype, "NB_CNT_OK");
-            dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_CNTM_OK").setProcess(CONTACT_PROCESS));
+            dao.updateStatusAndAudit(nonBusinessIdDatatype, "NB_CNT_OK", Status.of("NB_CNTM_OK").setProcess(CONTACT_PROCESS));
 
         }
 
@@ -287,30 +347,39 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
 
     @Override
     public void createAddress(final String nonBusinessId, final Address address) throws ServiceException {
+        RequestDeadline.run(requestDeadlineMillis, () -> As400ConnectionLease.run(transactionalLease, () -> doCreateAddress(nonBusinessId, address)));
+    }
+
+    private void doCreateAddress(final String nonBusinessId, final Address address) throws ServiceException {
 
-        final Map<String, GenericIdDescription> departmentsMap = dao.getDepartments();
+        final Map<String, GenericIdDescription> departmentsMap = departmentCatalog.getDepartments();
         final AddressDatatype addressDatatype = addressUtil.getAddressDatatypeFromAddress(address, departmentsMap);
         final NonBusinessIdDatatype nonBusinessIdDatatype = getNonBusinessIdDatatypeFromNonBusinessId(nonBusinessId);
 
 
         dao.createAddress(nonBusinessIdDatatype, addressDatatype);
 
-        dao.updateStatus(nonBusinessIdDatatype, "NB_ADD_OK");
-        dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_ADD_OK").setProcess(ADDRESS_PROCESS));
+        dao.updateStatusAndAudit(nonBusinessIdDatatype, "NB_ADD_OK", Status.of("NB_ADD_OK").setProcess(ADDRESS_PROCESS));
 
     }
 
     @Override
     public void patchNonBusiness(final String nonBusinessId, final NonBusiness nonBusiness) throws ServiceException {
+        RequestDeadline.run(requestDeadlineMillis, () -> As400ConnectionLease.run(transactionalLease, () -> doPatchNonBusiness(nonBusinessId, nonBusiness)));
+    }
+
+    private void doPatchNonBusiness(final String nonBusinessId, final NonBusiness nonBusiness) throws ServiceException {
 
         final NonBusinessIdDatatype nonBusinessIdDatatype = getNonBusinessIdDatatypeFromNonBusinessId(nonBusinessId);
 
+        final BusinessPatch businessPatch = new BusinessPatch();
+
         if (!isEmpty(nonBusiness.getDoingBusinessAs())) {
-            dao.updateBusinessCommercialName(nonBusinessIdDatatype, nonBusiness.getDoingBusinessAs());
+            businessPatch.setCommercialName(nonBusiness.getDoingBusinessAs());
         }
 
         if (nonBusiness.getBank() != null && nonBusiness.getBank().getBranch() != null) {
-            dao.updateBusinessBankBranch(nonBusinessIdDatatype, nonBusiness.getBank().getBranch().getId());
+            businessPatch.setBankBranch(nonBusiness.getBank().getBranch().getId());
         }
 
         if (nonBusiness.getFormation() != null) {
@@ -319,10 +388,15 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
                     .findFirst().orElse(null);
 
             if (legalDocument != null) {
-                dao.updateBusinessFormationData(nonBusinessIdDatatype, nonBusiness.getFormation(), legalDocument);
+                businessPatch.setFormation(nonBusiness.getFormation());
+                businessPatch.setLegalDocument(legalDocument);
             }
         }
 
+        if (!businessPatch.isEmpty()) {
+            dao.patchBusiness(nonBusinessIdDatatype, businessPatch);
+        }
+
         if (nonBusiness.getUser() != null) {
             Validator.of(nonBusiness.getUser())
                     .check(user -> isNotEmpty(user.getName()), "EMPTY_NAME", "Name is required")
@@ -334,33 +408,118 @@ public class NonBusinessesApiServiceImpl implements NonBusinessesApiService {
             dao.createTemporaryPassword(nonBusinessIdDatatype, nonBusiness.getUser());
         }
 
-        dao.updateStatus(nonBusinessIdDatatype, "NB_USER_OK");
-        dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_USER_OK").setProcess(BUSINESS_DATA_PROCESS));
+        dao.updateStatusAndAudit(nonBusinessIdDatatype, "NB_USER_OK", Status.of("NB_USER_OK").setProcess(BUSINESS_DATA_PROCESS));
 
     }
 
     @Override
     public void patchNonBusinessEconomicData(final String nonBusinessId, final EconomicData economicData) throws ServiceException {
+        RequestDeadline.run(requestDeadlineMillis, () -> As400ConnectionLease.run(transactionalLease, () -> doPatchNonBusinessEconomicData(nonBusinessId, economicData)));
+    }
+
+    private void doPatchNonBusinessEconomicData(final String nonBusinessId, final EconomicData economicData) throws ServiceException {
         final NonBusinessIdDatatype nonBusinessIdDatatype = getNonBusinessIdDatatypeFromNonBusinessId(nonBusinessId);
         dao.updateBusinessEconomicData(nonBusinessIdDatatype, economicData);
-        dao.updateStatus(nonBusinessIdDatatype, "NB_ECO_OK");
-        dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_ECO_OK").setProcess(ECONOMIC_DATA_PROCESS));
+        dao.updateStatusAndAudit(nonBusinessIdDatatype, "NB_ECO_OK", Status.of("NB_ECO_OK").setProcess(ECONOMIC_DATA_PROCESS));
     }
 
     @Override
     public void updateTerms(final String nonBusinessId, final String termId) throws ServiceException {
+        RequestDeadline.run(requestDeadlineMillis, () -> As400ConnectionLease.run(transactionalLease, () -> doUpdateTerms(nonBusinessId, termId)));
+    }
+
+    private void doUpdateTerms(final String nonBusinessId, final String termId) throws ServiceException {
         final NonBusinessIdDatatype nonBusinessIdDatatype = getNonBusinessIdDatatypeFromNonBusinessId(nonBusinessId);
         final int version = dao.getTermVersion(termId);
-        dao.updateStatus(nonBusinessIdDatatype, "NB_TYC_OK");
-        dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_TYC_OK").setProcess(ACCEPT_TERMS_PROCESS).setMessage(String.format("Aceptacion del documento: %s, version: %s", termId, version)));
+        dao.updateStatusAndAudit(nonBusinessIdDatatype, "NB_TYC_OK", Status.of("NB_TYC_OK").setProcess(ACCEPT_TERMS_PROCESS).setMessage(String.format("Aceptacion del documento: %s, version: %s", termId, version)));
+    }
+
+    private void checkSearchable(final NonBusinessIdDatatype nonBusinessIdDatatype, final SearchPreCheck preCheck, final Future<BusinessInformation> dgiLookup) throws ServiceException {
+        if (preCheck.isClient()) {
+            cancel(dgiLookup);
+            logUtils.logError(this.getClass().getCanonicalName(), ERROR_ALREADY_CLIENT, ERROR_ALREADY_CLIENT, new Exception(ERROR_ALREADY_CLIENT));
+            dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_CLI_ERR").setProcess(SEARCH_PROCESS));
+            throw new BusinessException(ERROR_ALREADY_CLIENT, ERROR_ALREADY_CLIENT, "NON_BUSINESS_SEARCH_ERROR_ALREADY_CLIENT", new Exception(ERROR_ALREADY_CLIENT));
+        }
+
+        final String currentStatus = preCheck.getStatus();
+
+        if (FINAL_STATES.contains(currentStatus) || RESUME_STATES.contains(currentStatus)) {
+            cancel(dgiLookup);
+            logUtils.logError(this.getClass().getCanonicalName(), ERROR_INVALID_STATUS, ERROR_INVALID_STATUS, new Exception(ERROR_INVALID_STATUS));
+            dao.auditStatusChange(nonBusinessIdDatatype, Status.of("NB_ESI_ERR").setProcess(SEARCH_PROCESS).setMessage("Estado invalido " + currentStatus));
+            throw new BusinessException(ERROR_INVALID_STATUS, ERROR_INVALID_STATUS, "NON_BUSINESS_SEARCH_INVALID_CURRENT_STATUS", new Exception(ERROR_INVALID_STATUS));
+        }
     }
 
     private BusinessInformation getBusinessInformation(final NonBusinessIdDatatype nonBusinessIdDatatype) throws ServiceException {
+        // Sin tiempo para la consulta a DGI no tiene sentido iniciarla
+        RequestDeadline.check(this.getClass().getCanonicalName());
         try {
-            return businessInformationService.getBusinessInformation(nonBusinessIdDatatype.getBusinessDocument());
+            return businessInformationCache.get(nonBusinessIdDatatype.getBusinessDocument());
         } catch (DGIException e) {
-            dao.auditStatusChange(nonBusinessIdDatatype, Status.of("DGICNX_ERR").setMessage("Error consultando DGI para el rut" + e.getRut()));
+            auditDgiError(nonBusinessIdDatatype, e.getRut());
             throw new ServiceException(this.getClass().getCanonicalName(), ERROR_GET_BUSINESS_INFORMATION, e);
+        } catch (DGIUnavailableException e) {
+            auditDgiError(nonBusinessIdDatatype, e.getRut());
+            throw e;
+        }
+    }
+
+    /**
+     * Inicia la consulta a DGI en el ejecutor de tareas bloqueantes, con el plazo que le queda al pedido.
+     * Devuelve null si la consulta en paralelo esta deshabilitada o el ejecutor no la acepta: se hace en linea.
+     */
+    private Future<BusinessInformation> startBusinessInformationLookup(final String rut) {
+        if (!parallelDgiLookup) {
+            return null;
+        }
+        final long budgetMillis = RequestDeadline.handoffBudgetMillis();
+        try {
+            return blockingTaskExecutor.getExecutor().submit(() -> RequestDeadline.call(budgetMillis, () -> {
+                RequestDeadline.check(this.getClass().getCanonicalName());
+                try {
+                    return businessInformationCache.get(rut);
+                } catch (DGIException e) {
+                    throw new ServiceException(this.getClass().getCanonicalName(), ERROR_GET_BUSINESS_INFORMATION, e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    // La auditoria usa el AS400 y por eso se hace en el hilo del pedido, dentro de su conexion
+    private BusinessInformation awaitBusinessInformation(final NonBusinessIdDatatype nonBusinessIdDatatype, final Future<BusinessInformation> dgiLookup) throws ServiceException {
+        try {
+            return RequestDeadline.isSet() ? dgiLookup.get(RequestDeadline.remainingMillis(), TimeUnit.MILLISECONDS) : dgiLookup.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ServiceException) {
+                if (cause.getCause() instanceof DGIException) {
+                    auditDgiError(nonBusinessIdDatatype, ((DGIException) cause.getCause()).getRut());
+                } else if (cause instanceof DGIUnavailableException) {
+                    auditDgiError(nonBusinessIdDatatype, ((DGIUnavailableException) cause).getRut());
+                }
+                throw (ServiceException) cause;
+            }
+            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_GET_BUSINESS_INFORMATION, cause);
+        } catch (TimeoutException e) {
+            RequestDeadline.check(this.getClass().getCanonicalName());
+            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_GET_BUSINESS_INFORMATION, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_GET_BUSINESS_INFORMATION, e);
+        }
+    }
+
+    private void auditDgiError(final NonBusinessIdDatatype nonBusinessIdDatatype, final String rut) throws ServiceException {
+        dao.auditStatusChange(nonBusinessIdDatatype, Status.of("DGICNX_ERR").setMessage("Error consultando DGI para el rut" + rut));
+    }
+
+    private static void cancel(final Future<?> task) {
+        if (task != null) {
+            task.cancel(true);
         }
     }
 
@@ -0,0 +1,106 @@
+package uy.com.bbva.services.nonbusinesses.service.utils;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecutor de las tareas bloqueantes que el servicio delega fuera del hilo del pedido: la consulta a DGI en paralelo
+ * con el pre-chequeo de la busqueda y la renovacion en segundo plano del cache de DGI.
+ * En modo virtual cada tarea corre en su propio hilo virtual y la concurrencia deja de estar acotada por un pool;
+ * en modo plataforma usa un pool fijo con una cola acotada: con el pool y la cola llenos la tarea se rechaza y el
+ * llamador la hace en su propio hilo. Si la JVM no soporta hilos virtuales se usa el modo plataforma.
+ * Los hilos que atienden los pedidos son del contenedor y quedan fuera del alcance de este modulo: pasarlos a hilos
+ * virtuales (spring.threads.virtual.enabled) depende de la aplicacion que lo despliega y no se configura aca.
+ */
+@Component
+public class BlockingTaskExecutor implements InitializingBean, DisposableBean {
+
+    @Autowired
+    private LogUtils logUtils;
+
+    @Value("${api.non-businesses.execution.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${api.non-businesses.execution.platform-pool-size:32}")
+    private int platformPoolSize;
+
+    @Value("${api.non-businesses.execution.platform-queue-capacity:256}")
+    private int platformQueueCapacity;
+
+    @Value("${api.non-businesses.execution.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    private static final String ERROR_VIRTUAL_THREADS_UNAVAILABLE = "La JVM no soporta hilos virtuales, se usan hilos de plataforma";
+
+    private ExecutorService executor;
+    private boolean virtual;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (virtualThreads) {
+            executor = newVirtualThreadPerTaskExecutor();
+            if (executor == null) {
+                logUtils.logError(this.getClass().getName(), ERROR_VIRTUAL_THREADS_UNAVAILABLE, ERROR_VIRTUAL_THREADS_UNAVAILABLE);
+            }
+        }
+        virtual = executor != null;
+        if (!virtual) {
+            // Sin cola, una tarea que no encuentra hilo libre se rechaza en lugar de esperar
+            final BlockingQueue<Runnable> queue = platformQueueCapacity > 0 ? new ArrayBlockingQueue<>(platformQueueCapacity) : new SynchronousQueue<>();
+            executor = new ThreadPoolExecutor(platformPoolSize, platformPoolSize, 0L, TimeUnit.MILLISECONDS, queue, platformThreadFactory());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    // Por reflexion para compilar y ejecutar tambien en JVM anteriores a la 21
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory platformThreadFactory() {
+        final AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "nb-blocking-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,307 @@
+package uy.com.bbva.services.nonbusinesses.service.utils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.dao.RequestDeadline;
+import uy.com.bbva.services.nonbusinesses.model.exceptions.DGIException;
+import uy.com.bbva.services.nonbusinesses.model.external.BusinessInformation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache por RUT de los datos de empresa de DGI.
+ * Un dato vigente se devuelve sin consultar DGI; vencido pero dentro de la ventana de obsolescencia se devuelve igual
+ * y se refresca en segundo plano. Los errores de DGI se recuerdan por un plazo corto para no insistir contra un
+ * servicio que acaba de fallar: se guarda solo el mensaje y cada pedido recibe su propia excepcion.
+ * Con el cache lleno se descarta la entrada usada hace mas tiempo.
+ * Las consultas simultaneas por el mismo RUT comparten una unica llamada a DGI y su resultado o error.
+ */
+@Component
+public class BusinessInformationCache {
+
+    @Autowired
+    private BusinessInformationGuard businessInformationGuard;
+
+    @Autowired
+    private BlockingTaskExecutor blockingTaskExecutor;
+
+    @Autowired
+    private LogUtils logUtils;
+
+    @Value("${api.non-businesses.dgi.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${api.non-businesses.dgi.cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Value("${api.non-businesses.dgi.cache.stale-ms:1800000}")
+    private long staleMillis;
+
+    @Value("${api.non-businesses.dgi.cache.negative-ttl-ms:30000}")
+    private long negativeTtlMillis;
+
+    @Value("${api.non-businesses.dgi.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${api.non-businesses.dgi.single-flight.enabled:false}")
+    private boolean singleFlight;
+
+    private static final String ERROR_REFRESH = "Error al refrescar en segundo plano los datos de DGI del rut ";
+    private static final String ERROR_SHARED_LOOKUP = "Error al esperar la consulta a DGI en curso para el rut ";
+    private static final String ERROR_RECENT_FAILURE = "DGI fallo recientemente para el rut ";
+
+    // Aviso a los que esperan de que la consulta se abandono sin respuesta de DGI; nunca llega a un llamador
+    private static final RuntimeException ABANDONED = new RuntimeException("Consulta a DGI abandonada", null, false, false) {
+    };
+
+    // Orden de acceso: la entrada mas antigua es la usada hace mas tiempo y se descarta en O(1) al superar el maximo
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, BusinessInformationCache.Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    // Cerrojo explicito en lugar de synchronized: un hilo virtual que espera el cerrojo no bloquea su hilo portador
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, CompletableFuture<BusinessInformation>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder refreshNanos = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public BusinessInformation get(final String rut) throws DGIException, ServiceException {
+        if (!enabled) {
+            return load(rut);
+        }
+
+        final Entry entry = lookup(rut);
+        if (entry != null) {
+            final long ageNanos = System.nanoTime() - entry.loadedAtNanos;
+            if (entry.failed) {
+                if (ageNanos < TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis)) {
+                    negativeHits.increment();
+                    throw new DGIUnavailableException(this.getClass().getCanonicalName(), ERROR_RECENT_FAILURE + rut, rut,
+                            new Exception(entry.failureMessage));
+                }
+            } else if (ageNanos < TimeUnit.MILLISECONDS.toNanos(ttlMillis)) {
+                hits.increment();
+                return entry.value;
+            } else if (ageNanos < TimeUnit.MILLISECONDS.toNanos(ttlMillis + staleMillis)) {
+                staleHits.increment();
+                refreshInBackground(rut, entry);
+                return entry.value;
+            }
+        }
+
+        misses.increment();
+        try {
+            final BusinessInformation value = load(rut);
+            put(rut, new Entry(value, false, null));
+            return value;
+        } catch (DGIException e) {
+            put(rut, new Entry(null, true, e.getMessage()));
+            throw e;
+        }
+    }
+
+    public void invalidate(final String rut) {
+        lock.lock();
+        try {
+            entries.remove(rut);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refreshInBackground(final String rut, final Entry stale) {
+        // Un solo refresco por entrada: el resto de los pedidos sigue usando el dato obsoleto mientras tanto
+        if (!stale.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            blockingTaskExecutor.getExecutor().execute(() -> refresh(rut, stale));
+        } catch (RejectedExecutionException e) {
+            stale.refreshing.set(false);
+        }
+    }
+
+    private void refresh(final String rut, final Entry stale) {
+        final long start = System.nanoTime();
+        try {
+            put(rut, new Entry(load(rut), false, null));
+        } catch (Exception e) {
+            // Un refresco fallido no reemplaza el dato obsoleto: se reintenta con el proximo pedido
+            refreshFailures.increment();
+            stale.refreshing.set(false);
+            logUtils.logError(this.getClass().getName(), ERROR_REFRESH + rut, e.getMessage());
+        } finally {
+            refreshes.increment();
+            refreshNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Consulta DGI; con single-flight, si ya hay una consulta en curso por el mismo RUT se espera su resultado
+     * dentro del plazo del pedido en lugar de iniciar otra.
+     * Solo se comparte lo que responde DGI, el dato o su error; si el pedido que consulta la abandona por un motivo
+     * propio (su plazo, una cancelacion) los que esperaban vuelven a consultar por su cuenta.
+     */
+    private BusinessInformation load(final String rut) throws DGIException, ServiceException {
+        if (!singleFlight) {
+            return fetch(rut);
+        }
+
+        final CompletableFuture<BusinessInformation> own = new CompletableFuture<>();
+        final CompletableFuture<BusinessInformation> shared = inFlight.putIfAbsent(rut, own);
+        if (shared != null) {
+            coalesced.increment();
+            return await(rut, shared);
+        }
+
+        try {
+            final BusinessInformation value = fetch(rut);
+            own.complete(value);
+            return value;
+        } catch (DGIException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } catch (Exception e) {
+            // Se saca antes de avisar: el que reintenta no debe volver a encontrar esta consulta
+            inFlight.remove(rut, own);
+            own.completeExceptionally(ABANDONED);
+            throw e;
+        } finally {
+            inFlight.remove(rut, own);
+        }
+    }
+
+    private BusinessInformation fetch(final String rut) throws DGIException, ServiceException {
+        return businessInformationGuard.call(rut);
+    }
+
+    private BusinessInformation await(final String rut, final CompletableFuture<BusinessInformation> shared) throws DGIException, ServiceException {
+        try {
+            return RequestDeadline.isSet() ? shared.get(RequestDeadline.remainingMillis(), TimeUnit.MILLISECONDS) : shared.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause == ABANDONED) {
+                return load(rut);
+            }
+            if (cause instanceof DGIException) {
+                throw (DGIException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_SHARED_LOOKUP + rut, cause);
+        } catch (TimeoutException e) {
+            RequestDeadline.check(this.getClass().getCanonicalName());
+            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_SHARED_LOOKUP + rut, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_SHARED_LOOKUP + rut, e);
+        }
+    }
+
+    private Entry lookup(final String rut) {
+        lock.lock();
+        try {
+            return entries.get(rut);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(final String rut, final Entry entry) {
+        lock.lock();
+        try {
+            entries.put(rut, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getHitRatio() {
+        final long served = hits.sum() + staleHits.sum() + negativeHits.sum();
+        final long total = served + misses.sum();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getStaleHits() {
+        return staleHits.sum();
+    }
+
+    public long getNegativeHits() {
+        return negativeHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.sum();
+    }
+
+    public long getAverageRefreshMillis() {
+        final long count = refreshes.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(refreshNanos.sum() / count);
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Entry {
+        private final BusinessInformation value;
+        private final boolean failed;
+        private final String failureMessage;
+        private final long loadedAtNanos = System.nanoTime();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(final BusinessInformation value, final boolean failed, final String failureMessage) {
+            this.value = value;
+            this.failed = failed;
+            this.failureMessage = failureMessage;
+        }
+    }
+}
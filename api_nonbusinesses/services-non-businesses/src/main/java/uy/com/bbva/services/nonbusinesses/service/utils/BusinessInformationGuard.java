@@ -0,0 +1,254 @@
+package uy.com.bbva.services.nonbusinesses.service.utils;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.dao.RequestDeadline;
+import uy.com.bbva.services.nonbusinesses.model.exceptions.DGIException;
+import uy.com.bbva.services.nonbusinesses.model.external.BusinessInformation;
+import uy.com.bbva.services.nonbusinesses.service.external.BusinessInformationService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Llamadas a DGI aisladas en un pool propio y acotado, con un tiempo maximo por llamada.
+ * Un DGI lento ocupa solo los hilos de este pool y el pedido deja de esperar al vencer el plazo. Opcionalmente, si la
+ * primera llamada no respondio en el percentil configurado de la latencia observada, se envia una segunda y se usa la
+ * primera respuesta exitosa.
+ */
+@Component
+public class BusinessInformationGuard implements InitializingBean, DisposableBean {
+
+    @Autowired
+    private BusinessInformationService businessInformationService;
+
+    @Value("${api.non-businesses.dgi.guard.enabled:false}")
+    private boolean enabled;
+
+    @Value("${api.non-businesses.dgi.bulkhead.max-concurrent:16}")
+    private int maxConcurrent;
+
+    @Value("${api.non-businesses.dgi.bulkhead.queue-capacity:0}")
+    private int queueCapacity;
+
+    @Value("${api.non-businesses.dgi.timeout-ms:3000}")
+    private long timeoutMillis;
+
+    @Value("${api.non-businesses.dgi.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${api.non-businesses.dgi.hedge.percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${api.non-businesses.dgi.hedge.min-samples:20}")
+    private int hedgeMinSamples;
+
+    private static final int LATENCY_WINDOW = 256;
+
+    private static final String ERROR_BULKHEAD_FULL = "Se supero el limite de consultas concurrentes a DGI";
+    private static final String ERROR_TIMEOUT = "DGI no respondio en el tiempo maximo para el rut ";
+    private static final String ERROR_CALL = "Error al consultar DGI para el rut ";
+
+    // Latencias de las ultimas llamadas exitosas, para calcular el retardo de la llamada de respaldo
+    private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_WINDOW);
+    private final AtomicLong latencySamples = new AtomicLong();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder hedgesIssued = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+
+    private ThreadPoolExecutor executor;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        // Sin cola, una llamada que no encuentra hilo libre se rechaza en lugar de esperar detras de un DGI lento
+        final BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        final AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            final Thread thread = new Thread(runnable, "nb-dgi-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Las fallas propias de DGI (pool lleno, tiempo vencido, error de la llamada) salen como DGIUnavailableException;
+     * el plazo vencido del pedido o su interrupcion salen como ServiceException.
+     */
+    public BusinessInformation call(final String rut) throws DGIException, ServiceException {
+        if (executor == null) {
+            return businessInformationService.getBusinessInformation(rut);
+        }
+        calls.increment();
+
+        final long start = System.nanoTime();
+        final long timeoutNanos = timeoutNanos();
+        final CompletionService<BusinessInformation> attempts = new ExecutorCompletionService<>(executor);
+        final List<Future<BusinessInformation>> submitted = new ArrayList<>(2);
+        try {
+            try {
+                submitted.add(attempts.submit(() -> attempt(rut)));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw new DGIUnavailableException(this.getClass().getCanonicalName(), ERROR_BULKHEAD_FULL, rut, e);
+            }
+
+            Future<BusinessInformation> done = null;
+            final long hedgeDelayNanos = hedgeDelayNanos();
+            if (hedgeDelayNanos < timeoutNanos) {
+                done = attempts.poll(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    hedge(attempts, rut, submitted);
+                }
+            }
+
+            Throwable failure = null;
+            for (int pending = submitted.size(); pending > 0; pending--) {
+                if (done == null) {
+                    done = attempts.poll(timeoutNanos - (System.nanoTime() - start), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        timeouts.increment();
+                        RequestDeadline.check(this.getClass().getCanonicalName());
+                        throw new DGIUnavailableException(this.getClass().getCanonicalName(), ERROR_TIMEOUT + rut, rut, new TimeoutException(ERROR_TIMEOUT + rut));
+                    }
+                }
+                try {
+                    final BusinessInformation value = done.get();
+                    if (done != submitted.get(0)) {
+                        hedgesWon.increment();
+                    }
+                    return value;
+                } catch (ExecutionException e) {
+                    // Si falla una de las dos llamadas todavia puede responder la otra
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                    done = null;
+                }
+            }
+            throw rethrow(rut, failure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_CALL + rut, e);
+        } finally {
+            // La llamada que no gano, o que vencio, no debe seguir ocupando un hilo del pool
+            submitted.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private BusinessInformation attempt(final String rut) throws DGIException {
+        final long start = System.nanoTime();
+        final BusinessInformation value = businessInformationService.getBusinessInformation(rut);
+        recordLatency(System.nanoTime() - start);
+        return value;
+    }
+
+    private void hedge(final CompletionService<BusinessInformation> attempts, final String rut, final List<Future<BusinessInformation>> submitted) {
+        try {
+            submitted.add(attempts.submit(() -> attempt(rut)));
+            hedgesIssued.increment();
+        } catch (RejectedExecutionException e) {
+            // Sin capacidad libre no se envia la llamada de respaldo: se sigue esperando la primera
+        }
+    }
+
+    private long timeoutNanos() {
+        final long millis = Math.min(timeoutMillis > 0 ? timeoutMillis : Long.MAX_VALUE, RequestDeadline.remainingMillis());
+        return millis == Long.MAX_VALUE ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private long hedgeDelayNanos() {
+        if (!hedgeEnabled) {
+            return Long.MAX_VALUE;
+        }
+        final int samples = (int) Math.min(latencySamples.get(), LATENCY_WINDOW);
+        if (samples < Math.max(1, hedgeMinSamples)) {
+            return Long.MAX_VALUE;
+        }
+        final long[] sorted = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        final int index = (int) Math.ceil(hedgePercentile * samples) - 1;
+        return sorted[Math.max(0, Math.min(samples - 1, index))];
+    }
+
+    private void recordLatency(final long elapsedNanos) {
+        latencies.set((int) (latencySamples.getAndIncrement() % LATENCY_WINDOW), elapsedNanos);
+    }
+
+    private ServiceException rethrow(final String rut, final Throwable failure) throws DGIException, ServiceException {
+        if (failure instanceof DGIException) {
+            throw (DGIException) failure;
+        }
+        if (failure instanceof ServiceException) {
+            throw (ServiceException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        return new DGIUnavailableException(this.getClass().getCanonicalName(), ERROR_CALL + rut, rut, failure);
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public long getHedgesIssued() {
+        return hedgesIssued.sum();
+    }
+
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    public long getHedgeDelayMillis() {
+        final long nanos = hedgeDelayNanos();
+        return nanos == Long.MAX_VALUE ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    public int getActiveCount() {
+        return executor == null ? 0 : executor.getActiveCount();
+    }
+}
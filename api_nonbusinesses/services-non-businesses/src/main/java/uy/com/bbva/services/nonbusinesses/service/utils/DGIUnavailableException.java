@@ -0,0 +1,23 @@
+package uy.com.bbva.services.nonbusinesses.service.utils;
+
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+
+/**
+ * DGI no pudo atender la consulta de un rut: pool de DGI lleno, tiempo maximo vencido, falla de la llamada o un error
+ * de DGI reciente que el cache todavia recuerda. Se audita igual que un DGIException; el cache no la guarda.
+ */
+public class DGIUnavailableException extends ServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String rut;
+
+    public DGIUnavailableException(final String className, final String message, final String rut, final Throwable cause) {
+        super(className, message, cause);
+        this.rut = rut;
+    }
+
+    public String getRut() {
+        return rut;
+    }
+}
@@ -0,0 +1,141 @@
+package uy.com.bbva.services.nonbusinesses.service.utils;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uy.com.bbva.dtos.commons.model.GenericIdDescription;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.dao.DAO;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Catalogo inmutable de departamentos cargado al iniciar y refrescado periodicamente.
+ * La carga inicial corre en segundo plano: con el AS400 lento o caido la aplicacion levanta igual y el primer lector
+ * espera esa carga o, si fallo, la reintenta.
+ * Los lectores siempre obtienen la ultima foto cargada sin bloquearse durante un refresco.
+ * Con un intervalo de refresco cero o negativo el catalogo se carga una sola vez y solo se refresca a pedido.
+ */
+@Component
+public class DepartmentCatalog implements InitializingBean, DisposableBean {
+
+    @Autowired
+    private DAO dao;
+
+    @Autowired
+    private LogUtils logUtils;
+
+    @Value("${api.non-businesses.departments.refresh-interval-minutes:60}")
+    private long refreshIntervalMinutes;
+
+    private static final String ERROR_REFRESH_DEPARTMENTS = "Error al refrescar el catalogo de departamentos";
+
+    private volatile Map<String, GenericIdDescription> departments;
+    private ScheduledExecutorService scheduler;
+
+    // Carga en curso, la inicial o la de un lector: los lectores simultaneos esperan esa carga en lugar de lanzar otra
+    private final AtomicReference<CompletableFuture<Map<String, GenericIdDescription>>> loading = new AtomicReference<>();
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "nb-departments-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.execute(this::loadQuietly);
+
+        if (refreshIntervalMinutes <= 0) {
+            // La carga inicial ya encolada termina igual; despues el hilo se libera
+            scheduler.shutdown();
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMinutes, refreshIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Devuelve la foto actual, que es inmutable: quien necesite modificarla debe copiarla.
+     */
+    public Map<String, GenericIdDescription> getDepartments() throws ServiceException {
+        final Map<String, GenericIdDescription> snapshot = departments;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        return load();
+    }
+
+    // Solo mientras no hay foto: una sola carga para la inicial y todos los lectores simultaneos
+    private Map<String, GenericIdDescription> load() throws ServiceException {
+        final CompletableFuture<Map<String, GenericIdDescription>> own = new CompletableFuture<>();
+        final CompletableFuture<Map<String, GenericIdDescription>> shared = loading.compareAndExchange(null, own);
+        if (shared != null) {
+            return await(shared);
+        }
+        try {
+            // Otra carga pudo terminar entre la lectura de la foto y la toma de la carga
+            if (departments == null) {
+                refresh();
+            }
+            own.complete(departments);
+            return departments;
+        } catch (ServiceException | RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.set(null);
+        }
+    }
+
+    // Las filas sin codigo no se pueden buscar por codigo: se descartan en lugar de invalidar todo el catalogo
+    public void refresh() throws ServiceException {
+        departments = dao.getDepartments().entrySet().stream()
+                .filter(department -> department.getKey() != null && department.getValue() != null)
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private Map<String, GenericIdDescription> await(final CompletableFuture<Map<String, GenericIdDescription>> shared) throws ServiceException {
+        try {
+            return shared.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ServiceException) {
+                throw (ServiceException) e.getCause();
+            }
+            throw new ServiceException(this.getClass().getCanonicalName(), ERROR_REFRESH_DEPARTMENTS, e.getCause());
+        }
+    }
+
+    private void loadQuietly() {
+        try {
+            load();
+        } catch (ServiceException | RuntimeException e) {
+            // Sin foto: el primer lector reintenta la carga
+            logUtils.logError(this.getClass().getName(), ERROR_REFRESH_DEPARTMENTS, e.getMessage());
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (ServiceException | RuntimeException e) {
+            // Se mantiene la foto anterior hasta el siguiente refresco
+            logUtils.logError(this.getClass().getName(), ERROR_REFRESH_DEPARTMENTS, e.getMessage());
+        }
+    }
+}
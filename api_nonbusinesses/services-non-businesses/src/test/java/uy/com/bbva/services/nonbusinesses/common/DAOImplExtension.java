@@ -0,0 +1,57 @@
+package uy.com.bbva.services.nonbusinesses.common;
+
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.ReflectionUtils;
+import uy.com.bbva.services.nonbusinesses.dao.impl.As400Bulkheads;
+import uy.com.bbva.services.nonbusinesses.dao.impl.As400CircuitBreaker;
+import uy.com.bbva.services.nonbusinesses.dao.impl.As400ConcurrencyLimiter;
+import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
+
+/**
+ * Completa el DAOImpl de la prueba con los colaboradores del AS400 que arma Spring, sin mocks.
+ * Se registra despues de MockitoExtension: corre con los mocks ya inyectados y respeta los que la prueba ya fijo.
+ */
+public class DAOImplExtension implements BeforeEachCallback {
+
+    private static final int BULKHEAD_PERMITS = 10;
+    private static final long BULKHEAD_MAX_WAIT_MS = 100L;
+
+    @Override
+    public void beforeEach(final ExtensionContext context) {
+        for (final Object testInstance : context.getRequiredTestInstances().getAllInstances()) {
+            ReflectionUtils.doWithFields(testInstance.getClass(), field -> {
+                ReflectionUtils.makeAccessible(field);
+                final Object dao = field.get(testInstance);
+                if (dao != null) {
+                    complete(dao);
+                }
+            }, field -> DAOImpl.class.equals(field.getType()));
+        }
+    }
+
+    private static void complete(final Object dao) {
+        setIfAbsent(dao, "as400Bulkheads", bulkheads());
+        // Sin configurar, el limite adaptativo queda deshabilitado
+        setIfAbsent(dao, "as400ConcurrencyLimiter", new As400ConcurrencyLimiter());
+        // Sin configurar, el circuito queda deshabilitado
+        setIfAbsent(dao, "as400CircuitBreaker", new As400CircuitBreaker());
+    }
+
+    private static As400Bulkheads bulkheads() {
+        final As400Bulkheads bulkheads = new As400Bulkheads();
+        ReflectionTestUtils.setField(bulkheads, "readPermits", BULKHEAD_PERMITS);
+        ReflectionTestUtils.setField(bulkheads, "businessWritePermits", BULKHEAD_PERMITS);
+        ReflectionTestUtils.setField(bulkheads, "auditWritePermits", BULKHEAD_PERMITS);
+        ReflectionTestUtils.setField(bulkheads, "maxWaitMillis", BULKHEAD_MAX_WAIT_MS);
+        bulkheads.afterPropertiesSet();
+        return bulkheads;
+    }
+
+    private static void setIfAbsent(final Object dao, final String field, final Object value) {
+        if (ReflectionTestUtils.getField(dao, field) == null) {
+            ReflectionTestUtils.setField(dao, field, value);
+        }
+    }
+}
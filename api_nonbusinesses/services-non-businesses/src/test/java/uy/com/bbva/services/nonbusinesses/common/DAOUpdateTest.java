@@ -18,6 +18,7 @@ import static org.mockito.Mockito.*;
  * Encapsula la lógica común de configuración, ejecución y verificación.
  */
 @ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
 public abstract class DAOUpdateTest {
 
     @Mock
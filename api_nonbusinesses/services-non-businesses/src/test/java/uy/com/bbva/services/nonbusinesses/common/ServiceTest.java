@@ -7,9 +7,10 @@ import uy.com.bbva.logcommons.log.utils.LogUtils;
 import uy.com.bbva.nonbusinessescommons.idmanagement.idmanagement.NonBusinessIdManagement;
 import uy.com.bbva.services.commons.exceptions.ServiceException;
 import uy.com.bbva.services.nonbusinesses.dao.DAO;
-import uy.com.bbva.services.nonbusinesses.service.external.BusinessInformationService;
 import uy.com.bbva.services.nonbusinesses.service.external.RisksService;
 import uy.com.bbva.services.nonbusinesses.service.utils.AddressUtils;
+import uy.com.bbva.services.nonbusinesses.service.utils.BusinessInformationCache;
+import uy.com.bbva.services.nonbusinesses.service.utils.DepartmentCatalog;
 import uy.com.bbva.services.nonbusinesses.service.utils.validator.NameValidator;
 
 import java.sql.SQLException;
@@ -26,7 +27,7 @@ public abstract class ServiceTest{
     public DAO dao;
 
     @Mock
-    public BusinessInformationService businessInformationService;
+    public BusinessInformationCache businessInformationCache;
 
     @Mock
     public NonBusinessIdManagement nonBusinessIdManagement;
@@ -34,6 +35,9 @@ public abstract class ServiceTest{
     @Mock
     public AddressUtils addressUtil;
 
+    @Mock
+    public DepartmentCatalog departmentCatalog;
+
     @Mock
     public LogUtils logUtils;
 
@@ -12,8 +12,13 @@ import uy.com.bbva.services.nonbusinesses.model.*;
 import uy.com.bbva.services.nonbusinesses.model.external.BusinessInformation;
 import uy.com.bbva.services.nonbusinesses.model.status.Status;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.*;
 
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
 import static uy.com.bbva.dtos.commons.utils.Constants.*;
 
 /**
@@ -132,6 +137,7 @@ public class TestDataFactory {
 
     // ========== Status Data ==========
     public static final String STATUS_ID_INGRESO = "INGRESO";
+    public static final String STATUS_ID_RETOMA = "RETOMA";
     public static final String STATUS_ID_DGI_OK = "DGI_OK";
     public static final String STATUS_ID_DGI_ERROR = "DGINTC_ERR";
     public static final String STATUS_ID_DGI_CERT_ERROR = "DGICRT_ERR";
@@ -638,4 +644,21 @@ public class TestDataFactory {
         return map;
     }
 
-}
\ No newline at end of file
+    /**
+     * Hace que el ResultSet simulado asigne un indice a cada etiqueta que se le pide y que la lectura por indice
+     * devuelva lo configurado para esa etiqueta. Permite seguir configurando las columnas por nombre.
+     */
+    public static void resolveColumnsByLabel(ResultSet resultSet) throws SQLException {
+        List<String> labels = new ArrayList<>();
+        lenient().when(resultSet.findColumn(anyString())).thenAnswer(invocation -> {
+            String label = invocation.getArgument(0);
+            if (!labels.contains(label)) {
+                labels.add(label);
+            }
+            return labels.indexOf(label) + 1;
+        });
+        lenient().when(resultSet.getString(anyInt())).thenAnswer(invocation -> resultSet.getString(labels.get((int) invocation.getArgument(0) - 1)));
+        lenient().when(resultSet.getBoolean(anyInt())).thenAnswer(invocation -> resultSet.getBoolean(labels.get((int) invocation.getArgument(0) - 1)));
+    }
+
+}
@@ -0,0 +1,127 @@
+package uy.com.bbva.services.nonbusinesses.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+import uy.com.bbva.services.nonbusinesses.dao.impl.As400Bulkheads;
+import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas de las particiones de capacidad AS400.
+ * Valida el limite por clase de carga, el rechazo al vencer la espera y que una particion saturada no afecte a las demas.
+ */
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Suite de pruebas de As400Bulkhead:")
+class As400BulkheadTest {
+
+    @InjectMocks
+    private DAOImpl daoImpl;
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private As400Bulkheads bulkheads;
+
+    @BeforeEach
+    void setUp() {
+        bulkheads = new As400Bulkheads();
+        ReflectionTestUtils.setField(bulkheads, "readPermits", 1);
+        ReflectionTestUtils.setField(bulkheads, "businessWritePermits", 1);
+        ReflectionTestUtils.setField(bulkheads, "auditWritePermits", 1);
+        ReflectionTestUtils.setField(bulkheads, "maxWaitMillis", 10L);
+        bulkheads.afterPropertiesSet();
+        ReflectionTestUtils.setField(daoImpl, "as400Bulkheads", bulkheads);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar cuando no hay permisos y registrar la saturacion")
+    void acquire_givenNoPermits_rejectsAfterWait() throws Exception {
+        final As400Bulkhead bulkhead = new As400Bulkhead("READ", 1, 10);
+        bulkhead.acquire();
+
+        assertEquals(1.0, bulkhead.snapshot().getSaturation());
+        assertThrows(ServiceException.class, bulkhead::acquire);
+
+        bulkhead.release();
+        bulkhead.acquire();
+        final As400Bulkhead.Snapshot snapshot = bulkhead.snapshot();
+        assertEquals(2, snapshot.getAcquired());
+        assertEquals(1, snapshot.getRejected());
+        assertEquals(1, snapshot.getPeakInUse());
+    }
+
+    @Test
+    @DisplayName("No debe limitar cuando la particion no tiene permisos configurados")
+    void acquire_givenUnbounded_neverRejects() throws Exception {
+        final As400Bulkhead bulkhead = new As400Bulkhead("READ", 0, 0);
+        bulkhead.acquire();
+        bulkhead.acquire();
+
+        assertEquals(2, bulkhead.snapshot().getInUse());
+        assertEquals(0, bulkhead.snapshot().getSaturation());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar lecturas con la particion de lectura saturada sin tocar el pool")
+    void query_givenReadPartitionSaturated_rejectsWithoutConnection() throws Exception {
+        bulkheads.get(As400Bulkheads.Workload.READ).acquire();
+
+        assertThrows(ServiceException.class, () -> daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+
+        verifyNoInteractions(managerDataAccessAs400);
+        assertEquals(1, bulkheads.snapshot().get("READ").getRejected());
+    }
+
+    @Test
+    @DisplayName("Debe permitir lecturas aunque las escrituras de auditoria esten saturadas")
+    void query_givenAuditPartitionSaturated_readsStillRun() throws Exception {
+        bulkheads.get(As400Bulkheads.Workload.AUDIT_WRITE).acquire();
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID);
+
+        final As400Bulkhead.Snapshot read = bulkheads.snapshot().get("READ");
+        assertEquals(1, read.getAcquired());
+        assertEquals(0, read.getInUse());
+    }
+
+    @Test
+    @DisplayName("Debe liberar el permiso de escritura aunque la sentencia falle")
+    void update_givenFailure_releasesPermit() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenThrow(new SQLException(ERROR_EXECUTION));
+
+        assertThrows(ServiceException.class, () -> daoImpl.updateBusinessBankBranch(createBusinessDatatype(), "001"));
+
+        assertEquals(0, bulkheads.snapshot().get("BUSINESS_WRITE").getInUse());
+    }
+}
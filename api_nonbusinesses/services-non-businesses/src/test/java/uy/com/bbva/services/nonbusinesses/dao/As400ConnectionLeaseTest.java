@@ -0,0 +1,186 @@
+package uy.com.bbva.services.nonbusinesses.dao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.commons.exceptions.BusinessException;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas para As400ConnectionLease.
+ * Valida que todas las llamadas al DAO de una operacion compartan una unica conexion.
+ */
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Suite de pruebas de As400ConnectionLease:")
+class As400ConnectionLeaseTest {
+
+    @InjectMocks
+    private DAOImpl daoImpl;
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private DataSource as400DataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Test
+    @DisplayName("Debe reutilizar una unica conexion para todas las llamadas del DAO dentro del lease")
+    void call_givenSeveralDaoCalls_sharesSingleConnection() throws Exception {
+        ReflectionTestUtils.setField(daoImpl, "connectionLeaseEnabled", true);
+        when(as400DataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        As400ConnectionLease.run(false, () -> {
+            daoImpl.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID);
+            daoImpl.checkIsClient(RUT_FROM_USER_ID);
+        });
+
+        verify(as400DataSource, times(1)).getConnection();
+        verify(preparedStatement, times(2)).close();
+        verify(resultSet, times(2)).close();
+        verify(connection, times(1)).close();
+        verifyNoInteractions(managerDataAccessAs400);
+        assertFalse(As400ConnectionLease.isActive());
+    }
+
+    @Test
+    @DisplayName("Debe contabilizar una conexion obtenida para todas las sentencias del lease")
+    void call_givenSeveralDaoCalls_recordsStatementsPerConnection() throws Exception {
+        ReflectionTestUtils.setField(daoImpl, "connectionLeaseEnabled", true);
+        when(as400DataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        final long acquiredBefore = As400ConnectionLease.getConnectionsAcquired();
+        final long servedBefore = As400ConnectionLease.getStatementsServed();
+
+        As400ConnectionLease.run(false, () -> {
+            daoImpl.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID);
+            daoImpl.checkIsClient(RUT_FROM_USER_ID);
+            daoImpl.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID);
+        });
+
+        assertEquals(1, As400ConnectionLease.getConnectionsAcquired() - acquiredBefore);
+        assertEquals(3, As400ConnectionLease.getStatementsServed() - servedBefore);
+    }
+
+    @Test
+    @DisplayName("Debe usar ManagerDataAccessAs400 cuando no hay un lease activo")
+    void daoCall_givenNoActiveLease_usesManagerDataAccess() throws Exception {
+        ReflectionTestUtils.setField(daoImpl, "connectionLeaseEnabled", true);
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        daoImpl.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID);
+
+        verify(managerDataAccessAs400).closeResources(preparedStatement, resultSet);
+        verifyNoInteractions(as400DataSource);
+    }
+
+    @Test
+    @DisplayName("No debe obtener conexion si la operacion no accede al AS400")
+    void call_givenNoDaoCalls_doesNotAcquireConnection() throws Exception {
+        final String result = As400ConnectionLease.call(true, () -> "OK");
+
+        assertEquals("OK", result);
+        verifyNoInteractions(as400DataSource);
+    }
+
+    @Test
+    @DisplayName("Debe confirmar la transaccion cuando la operacion termina correctamente")
+    void call_givenTransactionalSuccess_commitsAndCloses() throws Exception {
+        when(as400DataSource.getConnection()).thenReturn(connection);
+
+        As400ConnectionLease.run(true, () -> acquire());
+
+        verify(connection).setAutoCommit(false);
+        verify(connection).commit();
+        verify(connection, never()).rollback();
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Debe revertir la transaccion cuando la operacion falla")
+    void call_givenTransactionalFailure_rollsBackAndCloses() throws Exception {
+        when(as400DataSource.getConnection()).thenReturn(connection);
+        final ServiceException failure = new ServiceException(DAO_CLASS_NAME, ERROR_DATABASE, new Exception(ERROR_DATABASE));
+
+        final ServiceException thrown = assertThrows(ServiceException.class, () -> As400ConnectionLease.run(true, () -> {
+            acquire();
+            throw failure;
+        }));
+
+        assertSame(failure, thrown);
+        verify(connection, never()).commit();
+        verify(connection).rollback();
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Debe confirmar la auditoria de un rechazo de negocio")
+    void call_givenBusinessException_commitsBeforeRethrowing() throws Exception {
+        when(as400DataSource.getConnection()).thenReturn(connection);
+
+        assertThrows(BusinessException.class, () -> As400ConnectionLease.run(true, () -> {
+            acquire();
+            throw new BusinessException(ERROR_DAO, ERROR_DAO, "ERROR_CODE", new Exception(ERROR_DAO));
+        }));
+
+        verify(connection).commit();
+        verify(connection, never()).rollback();
+    }
+
+    @Test
+    @DisplayName("Debe liberar la conexion solo al cerrar el lease mas externo")
+    void call_givenNestedLeases_releasesOnOutermostOnly() throws Exception {
+        when(as400DataSource.getConnection()).thenReturn(connection);
+
+        As400ConnectionLease.run(false, () -> {
+            As400ConnectionLease.run(false, () -> acquire());
+            verify(connection, never()).close();
+            assertTrue(As400ConnectionLease.isActive());
+        });
+
+        verify(connection).close();
+        assertFalse(As400ConnectionLease.isActive());
+    }
+
+    private void acquire() throws ServiceException {
+        try {
+            As400ConnectionLease.connection(as400DataSource);
+        } catch (java.sql.SQLException e) {
+            throw new ServiceException(DAO_CLASS_NAME, ERROR_DATABASE, e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package uy.com.bbva.services.nonbusinesses.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas del ruteo de lecturas de DAOImpl.
+ * Valida que las lecturas fuera de una operacion de escritura vayan a la fuente de lectura y que el resto quede en el primario.
+ */
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Suite de pruebas del ruteo de lecturas AS400:")
+class As400ReadRoutingTest {
+
+    @InjectMocks
+    private DAOImpl daoImpl;
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private DataSource readDataSource;
+
+    @Mock
+    private Connection readConnection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(daoImpl, "as400DataSource", null);
+        ReflectionTestUtils.setField(daoImpl, "as400ReadDataSource", readDataSource);
+        ReflectionTestUtils.setField(daoImpl, "readRoutingEnabled", true);
+    }
+
+    @Test
+    @DisplayName("Debe leer de la fuente de lectura y cerrar su conexion fuera de una operacion de escritura")
+    void query_outsideLease_usesReadDataSource() throws Exception {
+        when(readDataSource.getConnection()).thenReturn(readConnection);
+        when(readConnection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        assertEquals("", daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+
+        verify(resultSet).close();
+        verify(preparedStatement).close();
+        verify(readConnection).close();
+        verifyNoInteractions(managerDataAccessAs400);
+    }
+
+    @Test
+    @DisplayName("Debe mantener las lecturas en el primario dentro de una operacion de escritura")
+    void query_insideLease_staysOnPrimary() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        As400ConnectionLease.run(false, () -> daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+
+        verifyNoInteractions(readDataSource);
+        verify(managerDataAccessAs400).closeResources(preparedStatement, resultSet);
+    }
+
+    @Test
+    @DisplayName("Debe enviar las escrituras al primario aunque el ruteo este habilitado")
+    void update_outsideLease_staysOnPrimary() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+
+        daoImpl.updateBusinessBankBranch(createBusinessDatatype(), "001");
+
+        verifyNoInteractions(readDataSource);
+        verify(preparedStatement).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("No debe usar la fuente de lectura cuando el ruteo esta deshabilitado")
+    void query_routingDisabled_staysOnPrimary() throws Exception {
+        ReflectionTestUtils.setField(daoImpl, "readRoutingEnabled", false);
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID);
+
+        verifyNoInteractions(readDataSource);
+    }
+
+    @Test
+    @DisplayName("Debe cerrar la conexion de lectura cuando falla la consulta")
+    void query_readFailure_closesConnectionAndThrows() throws Exception {
+        when(readDataSource.getConnection()).thenReturn(readConnection);
+        when(readConnection.prepareStatement(anyString())).thenThrow(new SQLException(ERROR_DATABASE));
+
+        assertThrows(ServiceException.class, () -> daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+
+        verify(readConnection).close();
+    }
+}
@@ -0,0 +1,60 @@
+package uy.com.bbva.services.nonbusinesses.dao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransactionRollbackException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas para As400SqlErrors.
+ * Valida la clasificacion por tipo de excepcion, SQLState y codigo de DB2 for i.
+ */
+@DisplayName("Suite de pruebas de As400SqlErrors:")
+class As400SqlErrorsTest {
+
+    @Test
+    @DisplayName("Debe clasificar como conectividad los SQLState 08 y las excepciones de conexion")
+    void classify_givenConnectionFailure_returnsConnectivity() {
+        assertEquals(As400SqlErrors.Kind.CONNECTIVITY, As400SqlErrors.classify(new SQLException(ERROR_DATABASE, "08S01")));
+        assertEquals(As400SqlErrors.Kind.CONNECTIVITY, As400SqlErrors.classify(new SQLException(ERROR_DATABASE, "08003", -99999)));
+        assertEquals(As400SqlErrors.Kind.CONNECTIVITY, As400SqlErrors.classify(new SQLNonTransientConnectionException(ERROR_DATABASE)));
+    }
+
+    @Test
+    @DisplayName("Debe clasificar como transitorios los bloqueos y deadlocks")
+    void classify_givenLockOrDeadlock_returnsTransient() {
+        assertEquals(As400SqlErrors.Kind.TRANSIENT, As400SqlErrors.classify(new SQLException(ERROR_DATABASE, "57033", -913)));
+        assertEquals(As400SqlErrors.Kind.TRANSIENT, As400SqlErrors.classify(new SQLException(ERROR_DATABASE, null, -911)));
+        assertEquals(As400SqlErrors.Kind.TRANSIENT, As400SqlErrors.classify(new SQLTransactionRollbackException(ERROR_DATABASE)));
+    }
+
+    @Test
+    @DisplayName("Debe clasificar como timeout las sentencias canceladas por tiempo, no como transitorias")
+    void classify_givenStatementTimeout_returnsTimeout() {
+        assertEquals(As400SqlErrors.Kind.TIMEOUT, As400SqlErrors.classify(new SQLTimeoutException(ERROR_DATABASE)));
+        assertEquals(As400SqlErrors.Kind.TIMEOUT, As400SqlErrors.classify(new SQLException(ERROR_DATABASE, "57014", -952)));
+    }
+
+    @Test
+    @DisplayName("Debe clasificar como permanentes las violaciones de restricciones y los errores sin SQLState")
+    void classify_givenConstraintViolation_returnsPermanent() {
+        assertEquals(As400SqlErrors.Kind.PERMANENT, As400SqlErrors.classify(new SQLException(ERROR_DATABASE, "23505", -803)));
+        assertEquals(As400SqlErrors.Kind.PERMANENT, As400SqlErrors.classify(new SQLException(ERROR_DATABASE)));
+    }
+
+    @Test
+    @DisplayName("Debe clasificar la causa de una ServiceException")
+    void classify_givenWrappedException_usesCause() {
+        final ServiceException wrapped = new ServiceException(DAO_CLASS_NAME, ERROR_DATABASE, new SQLException(ERROR_DATABASE, "08001"));
+
+        assertEquals(As400SqlErrors.Kind.CONNECTIVITY, As400SqlErrors.classify((Throwable) wrapped));
+        assertEquals(As400SqlErrors.Kind.PERMANENT, As400SqlErrors.classify((Throwable) new IllegalStateException()));
+    }
+}
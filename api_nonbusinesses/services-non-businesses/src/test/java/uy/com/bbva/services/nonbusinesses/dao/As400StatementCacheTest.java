@@ -0,0 +1,117 @@
+package uy.com.bbva.services.nonbusinesses.dao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas para As400StatementCache.
+ * Valida la reutilizacion de sentencias por conexion, la limpieza de parametros y el desalojo LRU.
+ */
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Suite de pruebas de As400StatementCache:")
+class As400StatementCacheTest {
+
+    private static final String SQL_1 = "SELECT 1 FROM SYSIBM.SYSDUMMY1";
+    private static final String SQL_2 = "SELECT 2 FROM SYSIBM.SYSDUMMY1";
+    private static final String SQL_3 = "SELECT 3 FROM SYSIBM.SYSDUMMY1";
+
+    @InjectMocks
+    private DAOImpl daoImpl;
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private DataSource as400DataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private PreparedStatement otherStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Test
+    @DisplayName("Debe devolver la sentencia cacheada con los parametros limpios")
+    void get_givenCachedStatement_clearsParametersAndCountsHit() throws Exception {
+        final As400StatementCache cache = new As400StatementCache(2);
+        final long hits = As400StatementCache.getHits();
+        final long misses = As400StatementCache.getMisses();
+
+        assertNull(cache.get(SQL_1));
+        cache.put(SQL_1, preparedStatement);
+
+        assertSame(preparedStatement, cache.get(SQL_1));
+        verify(preparedStatement).clearParameters();
+        assertEquals(hits + 1, As400StatementCache.getHits());
+        assertEquals(misses + 1, As400StatementCache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Debe desalojar y cerrar la sentencia menos usada al superar el tamaño maximo")
+    void put_givenFullCache_evictsLeastRecentlyUsed() throws Exception {
+        final As400StatementCache cache = new As400StatementCache(2);
+        final PreparedStatement thirdStatement = mock(PreparedStatement.class);
+
+        cache.put(SQL_1, preparedStatement);
+        cache.put(SQL_2, otherStatement);
+        cache.get(SQL_1);
+        cache.put(SQL_3, thirdStatement);
+
+        verify(otherStatement).close();
+        verify(preparedStatement, never()).close();
+        assertFalse(cache.contains(otherStatement));
+        assertTrue(cache.contains(preparedStatement));
+        assertTrue(cache.contains(thirdStatement));
+    }
+
+    @Test
+    @DisplayName("Debe preparar una sola vez la misma sentencia dentro del lease y cerrarla al liberarlo")
+    void daoCall_givenLeaseWithCache_preparesStatementOnce() throws Exception {
+        ReflectionTestUtils.setField(daoImpl, "connectionLeaseEnabled", true);
+        ReflectionTestUtils.setField(daoImpl, "statementCacheSize", 8);
+        when(as400DataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        As400ConnectionLease.run(false, () -> {
+            daoImpl.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID);
+            daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID);
+            verify(preparedStatement, never()).close();
+        });
+
+        verify(connection, times(1)).prepareStatement(anyString());
+        verify(preparedStatement).clearParameters();
+        verify(resultSet, times(2)).close();
+        verify(preparedStatement).close();
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,111 @@
+package uy.com.bbva.services.nonbusinesses.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas del nucleo de ejecucion JDBC de DAOImpl.
+ * Valida las metricas por sentencia y la politica de timeout comun a todas las operaciones.
+ */
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Suite de pruebas de As400StatementMetrics:")
+class As400StatementMetricsTest {
+
+    @InjectMocks
+    private DAOImpl daoImpl;
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void setUp() {
+        As400StatementMetrics.reset();
+    }
+
+    @Test
+    @DisplayName("Debe registrar ejecuciones y filas leidas por sentencia")
+    void query_givenRows_recordsExecutionAndRows() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false, true);
+        when(resultSet.getString("DEPISOCOD")).thenReturn(DEPARTMENT_CANELONES_ID);
+        when(resultSet.getString("DEPNOM")).thenReturn(DEPARTMENT_CANELONES_NAME);
+
+        daoImpl.getDepartments();
+        daoImpl.checkIsClient(BUSINESS_RUT_VALID);
+
+        final As400StatementMetrics.Snapshot departments = As400StatementMetrics.snapshot().get("GET_DEPARTMENTS");
+        assertEquals(1, departments.getExecutions());
+        assertEquals(1, departments.getRows());
+        assertEquals(0, departments.getErrors());
+        assertEquals(1, As400StatementMetrics.snapshot().get("CHECK_IS_CLIENT").getRows());
+    }
+
+    @Test
+    @DisplayName("Debe registrar las filas afectadas y los errores de las actualizaciones")
+    void update_givenFailure_recordsError() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(2).thenThrow(new SQLException(ERROR_EXECUTION));
+
+        daoImpl.updateBusinessBankBranch(createBusinessDatatype(), "001");
+        assertThrows(ServiceException.class, () -> daoImpl.updateBusinessBankBranch(createBusinessDatatype(), "001"));
+
+        final As400StatementMetrics.Snapshot bankBranch = As400StatementMetrics.snapshot().get("UPDATE_BANK_BRANCH");
+        assertEquals(2, bankBranch.getExecutions());
+        assertEquals(2, bankBranch.getRows());
+        assertEquals(1, bankBranch.getErrors());
+    }
+
+    @Test
+    @DisplayName("Debe aplicar el timeout configurado a cada sentencia")
+    void query_givenConfiguredTimeout_setsQueryTimeout() throws Exception {
+        ReflectionTestUtils.setField(daoImpl, "queryTimeoutSeconds", 5);
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID);
+
+        verify(preparedStatement).setQueryTimeout(5);
+    }
+
+    @Test
+    @DisplayName("No debe tocar el timeout del driver cuando no esta configurado")
+    void query_givenNoTimeout_keepsDriverDefault() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID);
+
+        verify(preparedStatement, never()).setQueryTimeout(anyInt());
+    }
+}
@@ -0,0 +1,104 @@
+package uy.com.bbva.services.nonbusinesses.dao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas para RequestDeadline.
+ * Valida el anidamiento de plazos y su traduccion a timeouts de sentencia en DAOImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Suite de pruebas de RequestDeadline:")
+class RequestDeadlineTest {
+
+    @InjectMocks
+    private DAOImpl daoImpl;
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Test
+    @DisplayName("Un plazo anidado no debe extender el del pedido y debe restaurarse al salir")
+    void call_givenNestedBudget_keepsEarliestDeadline() throws Exception {
+        assertFalse(RequestDeadline.isSet());
+
+        RequestDeadline.run(1_000, () -> {
+            final long outer = RequestDeadline.remainingMillis();
+            RequestDeadline.run(60_000, () -> assertTrue(RequestDeadline.remainingMillis() <= outer));
+            RequestDeadline.run(0, () -> assertTrue(RequestDeadline.isSet()));
+            assertTrue(RequestDeadline.isSet());
+        });
+
+        assertFalse(RequestDeadline.isSet());
+        assertEquals(Long.MAX_VALUE, RequestDeadline.remainingMillis());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar el trabajo cuando el plazo vencio")
+    void check_givenExpiredDeadline_throws() throws Exception {
+        final ServiceException exception = assertThrows(ServiceException.class, () -> RequestDeadline.run(1, () -> {
+            awaitExpiry();
+            RequestDeadline.check(DAO_CLASS_NAME);
+        }));
+
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    @DisplayName("Debe limitar el timeout de la sentencia al tiempo que queda del pedido")
+    void query_givenDeadline_capsQueryTimeout() throws Exception {
+        ReflectionTestUtils.setField(daoImpl, "queryTimeoutSeconds", 30);
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        RequestDeadline.run(1_500, () -> daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+
+        verify(preparedStatement).setQueryTimeout(intThat(seconds -> seconds >= 1 && seconds <= 2));
+    }
+
+    @Test
+    @DisplayName("No debe tocar el AS400 con el plazo vencido")
+    void query_givenExpiredDeadline_failsWithoutConnection() {
+        assertThrows(ServiceException.class, () -> RequestDeadline.run(1, () -> {
+            awaitExpiry();
+            daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID);
+        }));
+
+        verifyNoInteractions(managerDataAccessAs400);
+    }
+
+    private static void awaitExpiry() {
+        while (RequestDeadline.remainingMillis() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+}
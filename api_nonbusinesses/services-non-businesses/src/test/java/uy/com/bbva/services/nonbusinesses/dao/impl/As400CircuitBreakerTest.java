@@ -0,0 +1,200 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+import uy.com.bbva.services.nonbusinesses.dao.As400ConnectionLease;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas de la politica de errores AS400 de DAOImpl.
+ * Valida el circuit breaker de conectividad y los reintentos acotados de los errores transitorios.
+ */
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Suite de pruebas de As400CircuitBreaker:")
+class As400CircuitBreakerTest {
+
+    private static final SQLException CONNECTION_LOST = new SQLException(ERROR_DATABASE, "08S01");
+    private static final SQLException ROW_IN_USE = new SQLException(ERROR_DATABASE, "57033", -913);
+    private static final SQLException STATEMENT_TIMEOUT = new SQLTimeoutException(ERROR_DATABASE, "57014", -952);
+
+    @InjectMocks
+    private DAOImpl daoImpl;
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private DataSource as400DataSource;
+
+    @Mock
+    private Connection connection;
+
+    private As400CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new As400CircuitBreaker();
+        ReflectionTestUtils.setField(breaker, "enabled", true);
+        ReflectionTestUtils.setField(breaker, "failureThreshold", 2);
+        ReflectionTestUtils.setField(breaker, "openMillis", 60_000L);
+        ReflectionTestUtils.setField(daoImpl, "as400CircuitBreaker", breaker);
+        ReflectionTestUtils.setField(daoImpl, "transientMaxRetries", 2);
+        ReflectionTestUtils.setField(daoImpl, "transientBackoffMillis", 1L);
+    }
+
+    @Test
+    @DisplayName("Debe abrir el circuito tras fallas de conectividad seguidas y rechazar sin tocar el pool")
+    void query_givenConnectivityFailures_opensAndFailsFast() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenThrow(CONNECTION_LOST);
+
+        assertThrows(ServiceException.class, () -> daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+        assertThrows(ServiceException.class, () -> daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+        assertEquals(As400CircuitBreaker.State.OPEN, breaker.getState());
+
+        final ServiceException rejected = assertThrows(ServiceException.class, () -> daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+
+        assertFalse(rejected.getCause() instanceof SQLException);
+        verify(managerDataAccessAs400, times(2)).prepareStatement(anyString());
+        assertEquals(1, breaker.getRejected());
+    }
+
+    @Test
+    @DisplayName("Debe cerrar el circuito cuando la operacion de prueba tiene exito")
+    void query_givenSuccessfulProbe_closesCircuit() throws Exception {
+        ReflectionTestUtils.setField(breaker, "openMillis", 0L);
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenThrow(CONNECTION_LOST, CONNECTION_LOST).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        assertThrows(ServiceException.class, () -> daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+        assertThrows(ServiceException.class, () -> daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+        daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID);
+
+        assertEquals(As400CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("No debe abrir el circuito por errores permanentes")
+    void update_givenPermanentFailures_keepsCircuitClosed() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenThrow(new SQLException(ERROR_DATABASE, "23505", -803));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ServiceException.class, () -> daoImpl.updateBusinessBankBranch(createBusinessDatatype(), "001"));
+        }
+
+        assertEquals(As400CircuitBreaker.State.CLOSED, breaker.getState());
+        verify(preparedStatement, times(3)).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("Debe reintentar los errores transitorios hasta el maximo configurado")
+    void query_givenTransientFailures_retriesThenSucceeds() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenThrow(ROW_IN_USE, ROW_IN_USE).thenReturn(resultSet);
+
+        assertEquals("", daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+
+        verify(preparedStatement, times(3)).executeQuery();
+        verify(managerDataAccessAs400, times(3)).closeResources(any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe fallar cuando los errores transitorios superan los reintentos")
+    void query_givenPersistentTransientFailure_throwsAfterRetries() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenThrow(ROW_IN_USE);
+
+        final ServiceException exception = assertThrows(ServiceException.class, () -> daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+
+        assertSame(ROW_IN_USE, exception.getCause());
+        verify(preparedStatement, times(3)).executeQuery();
+    }
+
+    @Test
+    @DisplayName("No debe reintentar ni sumar carga cuando la sentencia vence su tiempo maximo")
+    void query_givenStatementTimeout_doesNotRetryAndCountsForCircuit() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenThrow(STATEMENT_TIMEOUT);
+
+        assertThrows(ServiceException.class, () -> daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+        assertThrows(ServiceException.class, () -> daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+
+        verify(preparedStatement, times(2)).executeQuery();
+        assertEquals(As400CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("No debe reintentar dentro de una operacion transaccional")
+    void update_givenTransientFailureInsideTransactionalLease_doesNotRetry() throws Exception {
+        useLeasedConnection();
+        when(preparedStatement.executeUpdate()).thenThrow(ROW_IN_USE);
+
+        assertThrows(ServiceException.class, () -> As400ConnectionLease.run(true,
+                () -> daoImpl.updateBusinessBankBranch(createBusinessDatatype(), "001")));
+
+        verify(preparedStatement, times(1)).executeUpdate();
+        verify(connection).rollback();
+    }
+
+    @Test
+    @DisplayName("Debe reintentar dentro de un lease sin transaccion: cada sentencia se confirma sola")
+    void update_givenTransientFailureInsideNonTransactionalLease_retries() throws Exception {
+        useLeasedConnection();
+        when(preparedStatement.executeUpdate()).thenThrow(ROW_IN_USE).thenReturn(1);
+
+        As400ConnectionLease.run(false, () -> daoImpl.updateBusinessBankBranch(createBusinessDatatype(), "001"));
+
+        verify(preparedStatement, times(2)).executeUpdate();
+        verify(as400DataSource, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Debe reintentar cuando el lease no comparte conexion")
+    void update_givenTransientFailureWithLeaseDisabled_retries() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenThrow(ROW_IN_USE).thenReturn(1);
+
+        As400ConnectionLease.run(true, () -> daoImpl.updateBusinessBankBranch(createBusinessDatatype(), "001"));
+
+        verify(preparedStatement, times(2)).executeUpdate();
+    }
+
+    private void useLeasedConnection() throws SQLException {
+        ReflectionTestUtils.setField(daoImpl, "connectionLeaseEnabled", true);
+        ReflectionTestUtils.setField(daoImpl, "statementCacheSize", 0);
+        ReflectionTestUtils.setField(daoImpl, "as400DataSource", as400DataSource);
+        when(as400DataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+    }
+}
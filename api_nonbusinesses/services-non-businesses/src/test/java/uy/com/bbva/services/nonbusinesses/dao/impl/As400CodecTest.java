@@ -0,0 +1,95 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas para As400Codec.
+ * Compara el resultado con SimpleDateFormat en GMT, que es el formato que el codec reemplaza.
+ */
+@DisplayName("Suite de pruebas de As400Codec:")
+class As400CodecTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {FORMATION_DATE_FORMATTED, FORMATION_DATE_OLD_FORMATTED, FORMATION_DATE_FUTURE_FORMATTED, "20240229"})
+    @DisplayName("Debe formatear igual que SimpleDateFormat yyyyMMdd en GMT")
+    void formatDate_matchesSimpleDateFormatInGmt(final String value) {
+        final Date date = parseDate(value);
+        final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+
+        assertEquals(dateFormat.format(date), As400Codec.formatDate(date));
+    }
+
+    @Test
+    @DisplayName("Debe interpretar una fecha CHAR yyyyMMdd")
+    void parseDate_givenValidValue_returnsLocalDate() {
+        assertEquals(LocalDate.of(2025, 10, 3), As400Codec.parseDate(FORMATION_DATE_FORMATTED));
+    }
+
+    @Test
+    @DisplayName("Debe devolver el inicio del dia en la zona del servidor")
+    void parseStartOfDay_matchesLocalMidnight() {
+        assertEquals(parseDate(FORMATION_DATE_FORMATTED), As400Codec.parseStartOfDay(FORMATION_DATE_FORMATTED));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "2025100", "2025-10-3", "20251301", "20250230", "        "})
+    @DisplayName("Debe rechazar fechas CHAR invalidas")
+    void parseDate_givenInvalidValue_throwsDateTimeException(final String value) {
+        assertThrows(DateTimeException.class, () -> As400Codec.parseDate(value));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar una fecha nula")
+    void parseDate_givenNull_throwsDateTimeException() {
+        assertThrows(DateTimeException.class, () -> As400Codec.parseDate(null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"19900115", "19900231", "19901301", "20240229", "20230229"})
+    @DisplayName("Debe trasladar mes y dia fuera de rango igual que SimpleDateFormat lenient")
+    void parseLenientDate_matchesLenientSimpleDateFormat(final String value) throws Exception {
+        final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd");
+        dateFormat.setLenient(true);
+
+        assertEquals(dateFormat.parse(value), As400Codec.startOfDay(As400Codec.parseLenientDate(value)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"00000000", "", "        "})
+    @DisplayName("Debe interpretar ceros o blancos como sin fecha")
+    void parseLenientDate_givenNoDate_returnsNull(final String value) {
+        assertNull(As400Codec.parseLenientDate(value));
+        assertNull(As400Codec.parseLenientDate(null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2025100", "2025-10-3", "1990AB01"})
+    @DisplayName("Debe rechazar valores que no son una fecha CHAR")
+    void parseLenientDate_givenMalformedValue_throwsDateTimeException(final String value) {
+        assertThrows(DateTimeException.class, () -> As400Codec.parseLenientDate(value));
+    }
+
+    @Test
+    @DisplayName("Debe quitar el relleno y reutilizar la instancia cuando no hay relleno")
+    void text_trimsPaddingAndReusesUnpaddedInstance() {
+        final String unpadded = BUSINESS_NAME_VALID;
+
+        assertEquals(BUSINESS_NAME_VALID, As400Codec.text(BUSINESS_NAME_VALID + "     "));
+        assertSame(unpadded, As400Codec.text(unpadded));
+        assertNull(As400Codec.text(null));
+        assertEquals("", As400Codec.textOrEmpty(null));
+    }
+}
@@ -0,0 +1,251 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas para As400ConcurrencyLimiter.
+ * Valida el ajuste del limite segun la latencia y el rechazo inmediato de las operaciones que lo exceden.
+ */
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Suite de pruebas de As400ConcurrencyLimiter:")
+class As400ConcurrencyLimiterTest {
+
+    private static final long NORMAL_LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW_LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST_FAILURE_LATENCY = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String STATEMENT_ID = "GET_STATUS";
+    private static final String SLOW_STATEMENT_ID = "GET_NON_BUSINESS";
+
+    @InjectMocks
+    private DAOImpl daoImpl;
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    private As400ConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new As400ConcurrencyLimiter();
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "initialLimit", 4);
+        ReflectionTestUtils.setField(limiter, "minLimit", 1);
+        ReflectionTestUtils.setField(limiter, "maxLimit", 8);
+        ReflectionTestUtils.setField(limiter, "latencyTolerance", 2.0);
+        ReflectionTestUtils.setField(limiter, "backoffRatio", 0.5);
+        ReflectionTestUtils.setField(limiter, "baselineWindowSamples", 1000);
+        limiter.afterPropertiesSet();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar de inmediato las operaciones que exceden el limite")
+    void acquire_givenLimitReached_rejects() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+        }
+
+        assertThrows(ServiceException.class, limiter::acquire);
+        assertEquals(1, limiter.getRejected());
+        assertEquals(4, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Debe bajar el limite cuando la latencia supera la referencia")
+    void release_givenSlowSamples_decreasesLimit() throws Exception {
+        sample(NORMAL_LATENCY);
+        sample(SLOW_LATENCY);
+
+        assertEquals(2, limiter.getLimit());
+        sample(SLOW_LATENCY);
+        sample(SLOW_LATENCY);
+
+        assertEquals(1, limiter.getLimit());
+        assertTrue(limiter.getDecreases() >= 2);
+    }
+
+    @Test
+    @DisplayName("Debe bajar el limite una sola vez ante una rafaga de muestras lentas de operaciones concurrentes")
+    void release_givenConcurrentSlowSamples_decreasesLimitOncePerWindow() throws Exception {
+        sample(NORMAL_LATENCY);
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+        }
+        for (int i = 0; i < 4; i++) {
+            limiter.release(STATEMENT_ID, SLOW_LATENCY, i % 2 == 0);
+        }
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(1, limiter.getDecreases());
+
+        sample(SLOW_LATENCY);
+
+        assertEquals(1, limiter.getLimit());
+        assertEquals(2, limiter.getDecreases());
+    }
+
+    @Test
+    @DisplayName("Debe bajar el limite una sola vez con muchas muestras lentas que llegan a la vez desde varios hilos")
+    void release_givenSlowBurstFromManyThreads_decreasesLimitOnce() throws Exception {
+        ReflectionTestUtils.setField(limiter, "initialLimit", 8);
+        limiter.afterPropertiesSet();
+        sample(NORMAL_LATENCY);
+        final int threads = 8;
+        for (int i = 0; i < threads; i++) {
+            limiter.acquire();
+        }
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService callers = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> releases = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                releases.add(callers.submit(() -> {
+                    start.await();
+                    limiter.release(STATEMENT_ID, SLOW_LATENCY, false);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<?> release : releases) {
+                release.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(1, limiter.getDecreases());
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Debe subir el limite con latencia normal y carga cercana al limite")
+    void release_givenNormalSamplesUnderLoad_increasesLimit() throws Exception {
+        sample(NORMAL_LATENCY);
+        for (int round = 0; round < 20; round++) {
+            limiter.acquire();
+            limiter.acquire();
+            limiter.acquire();
+            limiter.release(STATEMENT_ID, NORMAL_LATENCY, false);
+            limiter.release(STATEMENT_ID, NORMAL_LATENCY, false);
+            limiter.release(STATEMENT_ID, NORMAL_LATENCY, false);
+        }
+
+        assertTrue(limiter.getLimit() > 4);
+        assertTrue(limiter.getLimit() <= 8);
+    }
+
+    @Test
+    @DisplayName("Debe seguir bajando el limite con una latencia que se degrada en forma sostenida")
+    void release_givenSteadilyDegradingLatency_keepsDecreasingLimit() throws Exception {
+        double latency = NORMAL_LATENCY;
+        for (int i = 0; i < 100; i++) {
+            sample(STATEMENT_ID, (long) latency);
+            latency *= 1.03;
+        }
+
+        assertEquals(1, limiter.getLimit());
+        assertTrue(limiter.getDecreases() > 50);
+        assertEquals(10, limiter.getBaselineMillis(STATEMENT_ID));
+    }
+
+    @Test
+    @DisplayName("Debe comparar cada sentencia con su propia referencia")
+    void release_givenSlowButStableStatement_doesNotDecreaseLimit() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            sample(STATEMENT_ID, NORMAL_LATENCY);
+            sample(SLOW_STATEMENT_ID, SLOW_LATENCY);
+        }
+
+        assertEquals(0, limiter.getDecreases());
+        assertEquals(4, limiter.getLimit());
+        assertEquals(100, limiter.getBaselineMillis(SLOW_STATEMENT_ID));
+    }
+
+    @Test
+    @DisplayName("No debe tomar las fallas rapidas como referencia de latencia")
+    void release_givenFastFailures_keepsBaseline() throws Exception {
+        sample(NORMAL_LATENCY);
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+            limiter.release(STATEMENT_ID, FAST_FAILURE_LATENCY, true);
+        }
+        sample(NORMAL_LATENCY);
+        sample(NORMAL_LATENCY);
+
+        assertEquals(10, limiter.getBaselineMillis(STATEMENT_ID));
+        assertEquals(0, limiter.getDecreases());
+    }
+
+    @Test
+    @DisplayName("Debe bajar el limite ante una falla lenta")
+    void release_givenSlowFailure_decreasesLimit() throws Exception {
+        sample(NORMAL_LATENCY);
+        limiter.acquire();
+        limiter.release(STATEMENT_ID, SLOW_LATENCY, true);
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(10, limiter.getBaselineMillis(STATEMENT_ID));
+    }
+
+    @Test
+    @DisplayName("No debe limitar cuando esta deshabilitado")
+    void acquire_givenDisabled_neverRejects() throws Exception {
+        final As400ConcurrencyLimiter disabled = new As400ConcurrencyLimiter();
+
+        disabled.acquire();
+        disabled.acquire();
+
+        assertEquals(0, disabled.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar la operacion del DAO sin tocar el pool y devolver el permiso de la particion")
+    void query_givenLimitReached_rejectsWithoutConnection() throws Exception {
+        final As400Bulkheads bulkheads = (As400Bulkheads) ReflectionTestUtils.getField(daoImpl, "as400Bulkheads");
+        ReflectionTestUtils.setField(daoImpl, "as400ConcurrencyLimiter", limiter);
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+        }
+
+        assertThrows(ServiceException.class, () -> daoImpl.getStatus(PERSON_DOCUMENT_VALID, BUSINESS_RUT_VALID));
+
+        verifyNoInteractions(managerDataAccessAs400);
+        assertEquals(0, bulkheads.snapshot().get("READ").getInUse());
+    }
+
+    private void sample(final long latency) throws ServiceException {
+        sample(STATEMENT_ID, latency);
+    }
+
+    private void sample(final String statementId, final long latency) throws ServiceException {
+        limiter.acquire();
+        limiter.release(statementId, latency, false);
+    }
+}
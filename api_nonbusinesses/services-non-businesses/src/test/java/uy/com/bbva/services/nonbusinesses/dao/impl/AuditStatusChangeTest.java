@@ -8,18 +8,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import uy.com.bbva.logcommons.log.utils.LogUtils;
 import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
 import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
 import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
 import uy.com.bbva.services.nonbusinesses.dao.SQLStatements;
 import uy.com.bbva.services.nonbusinesses.model.status.Status;
 
 import java.sql.CallableStatement;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +36,7 @@ import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
  * Valida la auditoría de cambios de estado en el sistema de no clientes.
  */
 @ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
 @DisplayName("Suite de pruebas de DAOImpl.auditStatusChange():")
 class AuditStatusChangeTest {
 
@@ -47,6 +52,9 @@ class AuditStatusChangeTest {
     @Mock
     private CallableStatement callableStatement;
 
+    @Mock
+    private AuditStatusChangeWriter auditStatusChangeWriter;
+
     private static final String ERROR_MESSAGE = "Ocurrio un error al auditar el cambio de estado";
 
     private static final int PARAM_INDEX_BUSINESS_COUNTRY = 1;
@@ -438,4 +446,60 @@ class AuditStatusChangeTest {
 
             verify(callableStatement).setInt(PARAM_INDEX_CHANNEL_ID, CHANNEL_ID_GEMA);
         }
-}
\ No newline at end of file
+
+    // ========== Async Mode ==========
+
+        @Test
+        @DisplayName("Debe delegar en el writer asincrono cuando la auditoria asincrona esta habilitada")
+        void auditStatusChange_givenAsyncEnabled_enqueuesWithoutPreparingCall() throws Exception {
+            ReflectionTestUtils.setField(daoImpl, "asyncAuditEnabled", true);
+
+            daoImpl.auditStatusChange(nonBusinessDatatype, status);
+
+            verify(auditStatusChangeWriter).enqueue(nonBusinessDatatype, status);
+            verify(managerDataAccessAs400, never()).prepareCall(anyString());
+        }
+
+        @Test
+        @DisplayName("Debe registrar en el writer un destino que envia el batch por el nucleo del DAO")
+        void afterPropertiesSet_givenAsyncEnabled_startsWriterWithBatchSink() throws Exception {
+            ReflectionTestUtils.setField(daoImpl, "asyncAuditEnabled", true);
+            when(managerDataAccessAs400.prepareCall(SQLStatements.AUDIT_STATUS_CHANGE)).thenReturn(callableStatement);
+            final ArgumentCaptor<AuditStatusChangeWriter.Sink> sink = ArgumentCaptor.forClass(AuditStatusChangeWriter.Sink.class);
+
+            daoImpl.afterPropertiesSet();
+            verify(auditStatusChangeWriter).start(sink.capture());
+            sink.getValue().writeBatch(List.of(
+                    new AuditStatusChangeWriter.AuditEvent(nonBusinessDatatype, status),
+                    new AuditStatusChangeWriter.AuditEvent(nonBusinessDatatype, status)));
+
+            verify(callableStatement, times(2)).addBatch();
+            verify(callableStatement).executeBatch();
+            verify(callableStatement, times(2)).setString(PARAM_INDEX_STATUS_ID, status.getId());
+            verify(managerDataAccessAs400).closeResources(callableStatement, null);
+        }
+
+        @Test
+        @DisplayName("No debe reintentar un batch de auditoria fallido")
+        void writeBatch_givenTransientError_doesNotRetry() throws Exception {
+            ReflectionTestUtils.setField(daoImpl, "asyncAuditEnabled", true);
+            when(managerDataAccessAs400.prepareCall(SQLStatements.AUDIT_STATUS_CHANGE)).thenReturn(callableStatement);
+            when(callableStatement.executeBatch()).thenThrow(new SQLException("Deadlock", "40001"));
+            final ArgumentCaptor<AuditStatusChangeWriter.Sink> sink = ArgumentCaptor.forClass(AuditStatusChangeWriter.Sink.class);
+            daoImpl.afterPropertiesSet();
+            verify(auditStatusChangeWriter).start(sink.capture());
+
+            assertThrows(ServiceException.class,
+                    () -> sink.getValue().writeBatch(List.of(new AuditStatusChangeWriter.AuditEvent(nonBusinessDatatype, status))));
+
+            verify(callableStatement, times(1)).executeBatch();
+        }
+
+        @Test
+        @DisplayName("No debe iniciar el writer cuando la auditoria asincrona esta deshabilitada")
+        void afterPropertiesSet_givenAsyncDisabled_doesNotStartWriter() {
+            daoImpl.afterPropertiesSet();
+
+            verify(auditStatusChangeWriter, never()).start(any());
+        }
+}
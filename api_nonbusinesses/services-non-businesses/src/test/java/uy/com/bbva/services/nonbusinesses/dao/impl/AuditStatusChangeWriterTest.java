@@ -0,0 +1,265 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.model.status.Status;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas para AuditStatusChangeWriter.
+ * Valida el encolado, el envio en batches, el reintento por fila en orden y el vaciado de la cola al detener el writer.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Suite de pruebas de AuditStatusChangeWriter:")
+class AuditStatusChangeWriterTest {
+
+    @InjectMocks
+    private AuditStatusChangeWriter writer;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private AuditStatusChangeWriter.Sink sink;
+
+    private NonBusinessIdDatatype nonBusinessDatatype;
+    private Status status;
+
+    @BeforeEach
+    void setUp() {
+        nonBusinessDatatype = createBusinessWithPersonDatatype();
+        status = createStatus();
+
+        ReflectionTestUtils.setField(writer, "queueCapacity", 10);
+        ReflectionTestUtils.setField(writer, "batchSize", 2);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 50L);
+        ReflectionTestUtils.setField(writer, "offerTimeoutMs", 10L);
+        ReflectionTestUtils.setField(writer, "shutdownTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(writer, "maxAttempts", 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+    }
+
+    @Test
+    @DisplayName("Debe enviar todos los eventos encolados en batches al detener el writer")
+    void enqueue_givenRunningWriter_flushesAllEventsOnStop() throws Exception {
+        writer.start(sink);
+
+        writer.enqueue(nonBusinessDatatype, status);
+        writer.enqueue(nonBusinessDatatype, status);
+        writer.enqueue(nonBusinessDatatype, status);
+        writer.stop();
+
+        verify(sink, atLeast(2)).writeBatch(anyList());
+        verify(sink, never()).write(any());
+        assertEquals(3, writer.getFlushedEvents());
+        assertEquals(0, writer.getFailedEvents());
+        assertEquals(0, writer.getQueueDepth());
+        assertTrue(writer.getFlushCount() >= 2);
+    }
+
+    @Test
+    @DisplayName("Debe escribir en el hilo llamador cuando el writer esta detenido")
+    void enqueue_givenStoppedWriter_writesOnCallerThread() throws Exception {
+        writer.start(sink);
+        writer.stop();
+
+        writer.enqueue(nonBusinessDatatype, status);
+
+        verify(sink).write(argThat(event -> event.status == status && event.nonBusinessIdDatatype == nonBusinessDatatype));
+        assertEquals(1, writer.getCallerRunsEvents());
+        assertEquals(1, writer.getFlushedEvents());
+    }
+
+    @Test
+    @DisplayName("Debe propagar al llamador el error de la escritura en su hilo")
+    void enqueue_givenStoppedWriterAndWriteFailure_throwsServiceException() throws Exception {
+        writer.start(sink);
+        writer.stop();
+        final ServiceException failure = new ServiceException(DAO_CLASS_NAME, ERROR_EXECUTION, new SQLException(ERROR_EXECUTION));
+        doThrow(failure).when(sink).write(any());
+
+        assertSame(failure, assertThrows(ServiceException.class, () -> writer.enqueue(nonBusinessDatatype, status)));
+        assertEquals(0, writer.getFlushedEvents());
+    }
+
+    @Test
+    @DisplayName("Debe reintentar de a una las filas de un batch fallido")
+    void flush_givenBatchFailure_writesEachEvent() throws Exception {
+        doThrow(new ServiceException(DAO_CLASS_NAME, ERROR_EXECUTION, new SQLException(ERROR_EXECUTION))).when(sink).writeBatch(anyList());
+
+        flushStopped(2);
+
+        verify(sink, times(2)).write(any());
+        assertEquals(2, writer.getFlushedEvents());
+        assertEquals(0, writer.getFailedEvents());
+        verify(logUtils).logError(eq(AuditStatusChangeWriter.class.getName()), anyString(), eq(ERROR_EXECUTION));
+    }
+
+    @Test
+    @DisplayName("No debe repetir las filas que el batch llego a escribir")
+    void flush_givenPartialBatchFailure_writesOnlyFailedEvents() throws Exception {
+        final BatchUpdateException partial = new BatchUpdateException(ERROR_EXECUTION, new int[]{1, Statement.EXECUTE_FAILED});
+        doThrow(new ServiceException(DAO_CLASS_NAME, ERROR_EXECUTION, partial)).when(sink).writeBatch(anyList());
+
+        flushStopped(2);
+
+        verify(sink, times(1)).write(any());
+        assertEquals(2, writer.getFlushedEvents());
+    }
+
+    @Test
+    @DisplayName("Debe reintentar una fila fallida hasta agotar los intentos y recien ahi contarla como perdida")
+    void flush_givenPersistentFailure_retriesUntilMaxAttempts() throws Exception {
+        final ServiceException failure = new ServiceException(DAO_CLASS_NAME, ERROR_EXECUTION, new SQLException(ERROR_EXECUTION));
+        doThrow(failure).when(sink).writeBatch(anyList());
+        doThrow(failure).when(sink).write(any());
+
+        flushStopped(1);
+
+        verify(sink, times(3)).write(any());
+        assertEquals(2, writer.getRetriedEvents());
+        assertEquals(1, writer.getFailedEvents());
+        assertEquals(0, writer.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Debe recuperar una fila reintentada cuando la escritura vuelve a funcionar")
+    void flush_givenTransientFailure_recoversRetriedEvent() throws Exception {
+        final ServiceException failure = new ServiceException(DAO_CLASS_NAME, ERROR_EXECUTION, new SQLException(ERROR_EXECUTION));
+        doThrow(failure).when(sink).writeBatch(anyList());
+        doThrow(failure).doNothing().when(sink).write(any());
+
+        flushStopped(1);
+
+        verify(sink, times(2)).write(any());
+        assertEquals(1, writer.getRetriedEvents());
+        assertEquals(1, writer.getFlushedEvents());
+        assertEquals(0, writer.getFailedEvents());
+    }
+
+    @Test
+    @DisplayName("Debe escribir una fila reintentada antes que las encoladas despues de ella")
+    void flush_givenRetriedEvent_keepsEnqueueOrder() throws Exception {
+        ReflectionTestUtils.setField(writer, "batchSize", 1);
+        final ServiceException failure = new ServiceException(DAO_CLASS_NAME, ERROR_EXECUTION, new SQLException(ERROR_EXECUTION));
+        final CountDownLatch enqueued = new CountDownLatch(1);
+        final List<String> written = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            final List<AuditStatusChangeWriter.AuditEvent> batch = invocation.getArgument(0);
+            final String id = batch.get(0).status.getId();
+            // El primer evento falla cuando los siguientes ya estan en la cola
+            if (STATUS_ID_INGRESO.equals(id)) {
+                assertTrue(enqueued.await(5, TimeUnit.SECONDS));
+                throw failure;
+            }
+            written.add(id);
+            return null;
+        }).when(sink).writeBatch(anyList());
+        doThrow(failure).doAnswer(invocation -> {
+            written.add(invocation.<AuditStatusChangeWriter.AuditEvent>getArgument(0).status.getId());
+            return null;
+        }).when(sink).write(any());
+        writer.start(sink);
+
+        writer.enqueue(nonBusinessDatatype, Status.of(STATUS_ID_INGRESO));
+        writer.enqueue(nonBusinessDatatype, Status.of(STATUS_ID_DGI_OK));
+        writer.enqueue(nonBusinessDatatype, Status.of(STATUS_ID_NB_CNT_OK));
+        enqueued.countDown();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.getFlushedEvents() < 3 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        writer.stop();
+
+        assertEquals(List.of(STATUS_ID_INGRESO, STATUS_ID_DGI_OK, STATUS_ID_NB_CNT_OK), written);
+        assertEquals(1, writer.getRetriedEvents());
+        assertEquals(3, writer.getFlushedEvents());
+    }
+
+    @Test
+    @DisplayName("Debe enviar el batch en armado sin la marca de interrupcion al detener el writer")
+    void stop_givenBatchInProgress_flushesWithoutInterruptFlag() throws Exception {
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 5000L);
+        final AtomicBoolean interruptedWhileWriting = new AtomicBoolean();
+        doAnswer(invocation -> {
+            interruptedWhileWriting.compareAndSet(false, Thread.currentThread().isInterrupted());
+            return null;
+        }).when(sink).writeBatch(anyList());
+        writer.start(sink);
+
+        writer.enqueue(nonBusinessDatatype, status);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.getQueueDepth() > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        writer.stop();
+
+        verify(sink).writeBatch(anyList());
+        assertFalse(interruptedWhileWriting.get());
+        assertEquals(1, writer.getFlushedEvents());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Debe vaciar la cola sin la marca de interrupcion del llamador y restaurarla al terminar")
+    void stop_givenInterruptedCaller_drainsAndRestoresInterrupt() throws Exception {
+        final AtomicBoolean interruptedWhileWriting = new AtomicBoolean();
+        doAnswer(invocation -> {
+            interruptedWhileWriting.compareAndSet(false, Thread.currentThread().isInterrupted());
+            return null;
+        }).when(sink).writeBatch(anyList());
+        writer.start(sink);
+        writer.stop();
+        final BlockingQueue<AuditStatusChangeWriter.AuditEvent> queue = (BlockingQueue<AuditStatusChangeWriter.AuditEvent>) ReflectionTestUtils.getField(writer, "queue");
+        queue.offer(new AuditStatusChangeWriter.AuditEvent(nonBusinessDatatype, status));
+        queue.offer(new AuditStatusChangeWriter.AuditEvent(nonBusinessDatatype, status));
+
+        Thread.currentThread().interrupt();
+        writer.stop();
+
+        assertTrue(Thread.interrupted());
+        assertFalse(interruptedWhileWriting.get());
+        assertEquals(2, writer.getFlushedEvents());
+    }
+
+    // Envia un batch con el writer detenido, todo en el hilo de la prueba
+    private void flushStopped(final int events) {
+        writer.start(sink);
+        writer.stop();
+        final List<AuditStatusChangeWriter.AuditEvent> batch = new ArrayList<>();
+        for (int i = 0; i < events; i++) {
+            batch.add(new AuditStatusChangeWriter.AuditEvent(nonBusinessDatatype, status));
+        }
+        ReflectionTestUtils.invokeMethod(writer, "flush", batch);
+        writer.stop();
+    }
+}
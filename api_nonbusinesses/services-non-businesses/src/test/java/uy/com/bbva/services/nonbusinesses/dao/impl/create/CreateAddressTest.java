@@ -3,6 +3,7 @@ package uy.com.bbva.services.nonbusinesses.dao.impl.create;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.EnumSource;
@@ -10,6 +11,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
 import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
 import uy.com.bbva.services.nonbusinesses.common.SqlExceptionScenarios;
 import uy.com.bbva.services.nonbusinesses.dao.SQLStatements;
 import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
@@ -32,6 +34,7 @@ import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
  * Valida la creación de direcciones para entidades no-cliente.
  */
 @DisplayName("Suite de pruebas de DAOImpl.createAddress():")
+@ExtendWith(DAOImplExtension.class)
 class CreateAddressTest extends DAOCreate {
 
     @InjectMocks
@@ -2,12 +2,14 @@ package uy.com.bbva.services.nonbusinesses.dao.impl.create;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
 import uy.com.bbva.services.nonbusinesses.common.SqlExceptionScenarios;
 import uy.com.bbva.services.nonbusinesses.dao.SQLStatements;
 import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
@@ -28,6 +30,7 @@ import static uy.com.bbva.services.nonbusinesses.model.status.Status.GEMA_CHANNE
  * Valida la creación de direcciones para entidades no-cliente.
  */
 @DisplayName("Test suite para DAOImpl.createNonBusiness():")
+@ExtendWith(DAOImplExtension.class)
 class CreateNonBusinessTest extends DAOCreate {
 
     @InjectMocks
@@ -0,0 +1,81 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl.create;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+import uy.com.bbva.services.nonbusinesses.dao.SQLStatements;
+import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
+
+import java.sql.CallableStatement;
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas para DAOImpl.createNonBusinessUnless()
+ * Valida que el alta y la comprobacion del estado final se resuelven en una unica llamada al procedimiento.
+ */
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Test suite para DAOImpl.createNonBusinessUnless():")
+class CreateNonBusinessUnlessTest {
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private CallableStatement callableStatement;
+
+    @InjectMocks
+    private DAOImpl daoImpl;
+
+    @Test
+    @DisplayName("Debe crear el no cliente cuando el estado actual no esta rechazado")
+    void createNonBusinessUnless_givenAllowedStatus_returnsTrue() throws Exception {
+        when(managerDataAccessAs400.prepareCall(SQLStatements.CREATE_NON_BUSINESS_UNLESS)).thenReturn(callableStatement);
+        when(callableStatement.getInt(16)).thenReturn(1);
+
+        assertTrue(daoImpl.createNonBusinessUnless(BUSINESS_RUT_VALID, PERSON_DOCUMENT_VALID, MOBILE_VALID, List.of(STATUS_ID_PROCESADO, STATUS_ID_ANULADO)));
+
+        var inOrder = inOrder(callableStatement);
+        inOrder.verify(callableStatement).setString(3, PERSON_DOCUMENT_VALID);
+        inOrder.verify(callableStatement).setString(6, BUSINESS_RUT_VALID);
+        inOrder.verify(callableStatement).setString(7, MOBILE_VALID);
+        inOrder.verify(callableStatement).setString(15, STATUS_ID_PROCESADO + "," + STATUS_ID_ANULADO);
+        inOrder.verify(callableStatement).registerOutParameter(16, Types.INTEGER);
+        inOrder.verify(callableStatement).execute();
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
+    }
+
+    @Test
+    @DisplayName("Debe informar que no creo el no cliente cuando el estado paso a final")
+    void createNonBusinessUnless_givenRejectedStatus_returnsFalse() throws Exception {
+        when(managerDataAccessAs400.prepareCall(SQLStatements.CREATE_NON_BUSINESS_UNLESS)).thenReturn(callableStatement);
+        when(callableStatement.getInt(16)).thenReturn(0);
+
+        assertFalse(daoImpl.createNonBusinessUnless(BUSINESS_RUT_VALID, PERSON_DOCUMENT_VALID, MOBILE_VALID, List.of(STATUS_ID_PROCESADO)));
+    }
+
+    @Test
+    @DisplayName("Debe crear sin condicion cuando no hay estados rechazados")
+    void createNonBusinessUnless_givenNoRejectedStatuses_createsUnconditionally() throws Exception {
+        when(managerDataAccessAs400.prepareCall(SQLStatements.CREATE_NON_BUSINESS)).thenReturn(callableStatement);
+
+        assertTrue(daoImpl.createNonBusinessUnless(BUSINESS_RUT_VALID, PERSON_DOCUMENT_VALID, MOBILE_VALID, List.of()));
+
+        verify(callableStatement).execute();
+        verify(callableStatement, never()).registerOutParameter(anyInt(), anyInt());
+    }
+}
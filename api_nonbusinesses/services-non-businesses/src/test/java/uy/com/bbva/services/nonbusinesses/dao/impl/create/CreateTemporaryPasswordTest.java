@@ -21,6 +21,7 @@ import uy.com.bbva.mongo.commons.ManagerMongoDBAccess;
 import uy.com.bbva.mongo.commons.MongoTemplateBBVA;
 import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
 import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
 import uy.com.bbva.services.nonbusinesses.common.TestDataFactory;
 import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
 import uy.com.bbva.services.nonbusinesses.model.User;
@@ -36,6 +37,7 @@ import static uy.com.bbva.dtos.commons.utils.Constants.*;
 import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
 
 @ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
 @DisplayName("Pruebas de creación de contraseña temporal")
 class CreateTemporaryPasswordTest {
 
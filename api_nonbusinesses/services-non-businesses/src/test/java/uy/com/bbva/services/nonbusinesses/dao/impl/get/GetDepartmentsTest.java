@@ -10,6 +10,7 @@ import uy.com.bbva.dtos.commons.model.GenericIdDescription;
 import uy.com.bbva.logcommons.log.utils.LogUtils;
 import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
 import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
 import uy.com.bbva.services.nonbusinesses.dao.SQLStatements;
 import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
 
@@ -22,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
 @DisplayName("Suite de pruebas de DAOImpl.getDepartments():")
 class GetDepartmentsTest {
 
@@ -186,6 +188,23 @@ class GetDepartmentsTest {
         verifyResourceManagement();
     }
 
+    @Test
+    @DisplayName("Debe descartar las filas sin codigo ISO")
+    void getDepartments_shouldSkipRows_whenIsoCodeIsNull() throws Exception {
+        setupPreparedStatementMock();
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getString("DEPISOCOD")).thenReturn(null, ISO_CODE_1);
+        when(resultSet.getInt("DEPBTCOD")).thenReturn(BT_CODE_2, BT_CODE_1);
+        when(resultSet.getString("DEPNOM")).thenReturn(NAME_2, NAME_1);
+
+        Map<String, GenericIdDescription> result = daoImpl.getDepartments();
+
+        assertEquals(1, result.size());
+        assertEquals(NAME_1, result.get(ISO_CODE_1).getDescription());
+        verifyResourceManagement();
+    }
+
     private void setupPreparedStatementMock() throws SQLException {
         when(managerDataAccessAs400.prepareStatement(SQLStatements.GET_DEPARTMENTS))
                 .thenReturn(preparedStatement);
@@ -261,11 +280,6 @@ class GetDepartmentsTest {
     private void verifyServiceException(ServiceException exception, SQLException sqlException) {
         assertEquals(ERROR_MESSAGE, exception.getInternalMessage());
         assertEquals(sqlException, exception.getCause());
-        verify(logUtils).logError(
-                eq(DAO_CLASS_NAME),
-                eq(ERROR_MESSAGE),
-                eq(ERROR_MESSAGE),
-                eq(sqlException)
-        );
+        verify(logUtils).logError(DAO_CLASS_NAME, ERROR_MESSAGE, sqlException.getMessage());
     }
 }
\ No newline at end of file
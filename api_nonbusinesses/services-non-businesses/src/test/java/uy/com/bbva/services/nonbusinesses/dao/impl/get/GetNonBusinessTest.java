@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -16,6 +18,7 @@ import uy.com.bbva.logcommons.log.utils.LogUtils;
 import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
 import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
 import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
 import uy.com.bbva.services.nonbusinesses.dao.SQLStatements;
 import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
 import uy.com.bbva.services.nonbusinesses.model.LegalRepresentative;
@@ -24,13 +27,18 @@ import uy.com.bbva.services.nonbusinesses.model.NonBusiness;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static uy.com.bbva.dtos.commons.utils.Constants.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.parseDate;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.resolveColumnsByLabel;
 
 @ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
 @DisplayName("Suite de pruebas de DAOImpl.getNonBusiness():")
 class GetNonBusinessTest {
 
@@ -91,15 +99,16 @@ class GetNonBusinessTest {
     private NonBusinessIdDatatype nonBusinessIdDatatype;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws SQLException {
         nonBusinessIdDatatype = createNonBusinessIdDatatype();
         configureDaoProperties();
+        resolveColumnsByLabel(resultSet);
     }
 
     @Test
     @DisplayName("Debe retornar NonBusiness con toda la información cuando includeOwnerData y includeContactDetails son true")
     void getNonBusiness_shouldReturnCompleteNonBusiness_whenAllFlagsAreTrue() throws Exception {
-        setupMocksForQuery();
+        setupMocksForQuery(SQLStatements.GET_NON_BUSINESS);
         mockResultSetWithSpacedData();
 
         NonBusiness result = dao.getNonBusiness(nonBusinessIdDatatype, true, true);
@@ -118,7 +127,7 @@ class GetNonBusinessTest {
     @Test
     @DisplayName("Debe retornar NonBusiness sin datos de owner cuando includeOwnerData es false")
     void getNonBusiness_shouldReturnNonBusinessWithoutOwnerData_whenIncludeOwnerDataIsFalse() throws Exception {
-        setupMocksForQuery();
+        setupMocksForQuery(SQLStatements.GET_NON_BUSINESS_WITH_CONTACT_DETAILS);
         mockBasicResultSet();
 
         NonBusiness result = dao.getNonBusiness(nonBusinessIdDatatype, false, true);
@@ -134,7 +143,7 @@ class GetNonBusinessTest {
     @Test
     @DisplayName("Debe retornar NonBusiness sin datos de contacto cuando includeContactDetails es false")
     void getNonBusiness_shouldReturnNonBusinessWithoutContactDetails_whenIncludeContactDetailsIsFalse() throws Exception {
-        setupMocksForQuery();
+        setupMocksForQuery(SQLStatements.GET_NON_BUSINESS_WITH_OWNER);
         mockResultSetWithOwnerData();
 
         NonBusiness result = dao.getNonBusiness(nonBusinessIdDatatype, true, false);
@@ -150,7 +159,7 @@ class GetNonBusinessTest {
     @Test
     @DisplayName("Debe retornar null cuando no hay resultados")
     void getNonBusiness_shouldReturnNull_whenNoResultsFound() throws Exception {
-        setupMocksForQuery();
+        setupMocksForQuery(SQLStatements.GET_NON_BUSINESS);
         when(resultSet.next()).thenReturn(false);
 
         NonBusiness result = dao.getNonBusiness(nonBusinessIdDatatype, true, true);
@@ -159,10 +168,24 @@ class GetNonBusinessTest {
         verify(managerDataAccessAs400).closeResources(preparedStatement, resultSet);
     }
 
+    @ParameterizedTest
+    @CsvSource({"00000000,", "19900231,19900303"})
+    @DisplayName("Debe tolerar fechas de nacimiento en cero o fuera de rango")
+    void getNonBusiness_shouldTolerateZeroOrOutOfRangeBirthDate(String birthDate, String expected) throws Exception {
+        setupMocksForQuery(SQLStatements.GET_NON_BUSINESS_WITH_OWNER);
+        mockResultSetWithOwnerData();
+        when(resultSet.getString("BBNCPFFNAC")).thenReturn(birthDate);
+
+        NonBusiness result = dao.getNonBusiness(nonBusinessIdDatatype, true, false);
+
+        Date expectedDate = expected == null ? null : parseDate(expected);
+        assertEquals(expectedDate, result.getLegalRepresentatives().get(0).getBirthData().getBirthDate());
+    }
+
     @Test
     @DisplayName("Debe handlear documentos expirados")
     void getNonBusiness_shouldHandleExpiredLegalDocuments_whenExpirationDateIsInPast() throws Exception {
-        setupMocksForQuery();
+        setupMocksForQuery(SQLStatements.GET_NON_BUSINESS_WITH_CONTACT_DETAILS);
         mockResultSetWithExpiredDocument();
 
         NonBusiness result = dao.getNonBusiness(nonBusinessIdDatatype, false, true);
@@ -178,7 +201,7 @@ class GetNonBusinessTest {
     @Test
     @DisplayName("Debe lanzar ServiceException cuando exista un SQLException en la consulta")
     void getNonBusiness_shouldThrowServiceException_whenSQLExceptionOccurs() throws Exception {
-        setupMocksForQuery();
+        setupMocksForQuery(SQLStatements.GET_NON_BUSINESS);
         SQLException sqlException = new SQLException(DB_CONNECTION_ERROR);
         when(preparedStatement.executeQuery()).thenThrow(sqlException);
 
@@ -209,7 +232,7 @@ class GetNonBusinessTest {
     @Test
     @DisplayName("Debe handlear valores null en el ResultSet")
     void getNonBusiness_shouldHandleNullValues_whenResultSetContainsNulls() throws Exception {
-        setupMocksForQuery();
+        setupMocksForQuery(SQLStatements.GET_NON_BUSINESS);
         mockResultSetWithNullValues();
 
         NonBusiness result = dao.getNonBusiness(nonBusinessIdDatatype, true, true);
@@ -224,7 +247,7 @@ class GetNonBusinessTest {
     @Test
     @DisplayName("Debe handlear espacios en blanco en el ResultSet")
     void getNonBusiness_shouldTrimWhitespace_whenResultSetContainsWhitespace() throws Exception {
-        setupMocksForQuery();
+        setupMocksForQuery(SQLStatements.GET_NON_BUSINESS);
         mockResultSetWithWhitespace();
 
         NonBusiness result = dao.getNonBusiness(nonBusinessIdDatatype, true, true);
@@ -238,7 +261,7 @@ class GetNonBusinessTest {
     @Test
     @DisplayName("Debe siempre cerrar recursos, incluyendo escenarios de excepción")
     void getNonBusiness_shouldAlwaysCloseResources_whenExceptionOccurs() throws Exception {
-        setupMocksForQuery();
+        setupMocksForQuery(SQLStatements.GET_NON_BUSINESS);
         when(resultSet.next()).thenReturn(true);
         when(resultSet.getString("BBNCPJNDOC")).thenThrow(new SQLException(COLUMN_NOT_FOUND));
 
@@ -252,7 +275,7 @@ class GetNonBusinessTest {
     @Test
     @DisplayName("Debe retornar NonBusiness con la información minima cuando includeOwnerData y includeContactDetails son false")
     void getNonBusiness_shouldReturnMinimalNonBusiness_whenBothFlagsAreFalse() throws Exception {
-        setupMocksForQuery();
+        setupMocksForQuery(SQLStatements.GET_NON_BUSINESS_BASE);
         mockMinimalResultSet();
 
         NonBusiness result = dao.getNonBusiness(nonBusinessIdDatatype, false, false);
@@ -266,9 +289,33 @@ class GetNonBusinessTest {
         assertNull(result.getLegalRepresentatives());
         assertNull(result.getContactDetails());
 
+        verify(managerDataAccessAs400).prepareStatement(SQLStatements.GET_NON_BUSINESS_BASE);
+        verify(resultSet, never()).getString("BBNCPFNOM1");
+        verify(resultSet, never()).getString("BBNCPJMAIL");
+        verify(resultSet, never()).findColumn("BBNCPFNOM1");
+        verify(resultSet, never()).findColumn("BBNCPJMAIL");
         verify(managerDataAccessAs400).closeResources(preparedStatement, resultSet);
     }
 
+    @Test
+    @DisplayName("Debe elegir la forma de la consulta segun las expansiones pedidas")
+    void getNonBusiness_shouldSelectQueryShape_fromRequestedExpansions() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(false);
+
+        dao.getNonBusiness(nonBusinessIdDatatype, false, false);
+        dao.getNonBusiness(nonBusinessIdDatatype, true, false);
+        dao.getNonBusiness(nonBusinessIdDatatype, false, true);
+        dao.getNonBusiness(nonBusinessIdDatatype, true, true);
+
+        var inOrder = inOrder(managerDataAccessAs400);
+        inOrder.verify(managerDataAccessAs400).prepareStatement(SQLStatements.GET_NON_BUSINESS_BASE);
+        inOrder.verify(managerDataAccessAs400).prepareStatement(SQLStatements.GET_NON_BUSINESS_WITH_OWNER);
+        inOrder.verify(managerDataAccessAs400).prepareStatement(SQLStatements.GET_NON_BUSINESS_WITH_CONTACT_DETAILS);
+        inOrder.verify(managerDataAccessAs400).prepareStatement(SQLStatements.GET_NON_BUSINESS);
+    }
+
 
     // Helpers
 
@@ -288,8 +335,8 @@ class GetNonBusinessTest {
         ReflectionTestUtils.setField(dao, "encryptType", ENCRYPT_TYPE);
     }
 
-    private void setupMocksForQuery() throws Exception {
-        when(managerDataAccessAs400.prepareStatement(SQLStatements.GET_NON_BUSINESS))
+    private void setupMocksForQuery(String sql) throws Exception {
+        when(managerDataAccessAs400.prepareStatement(sql))
                 .thenReturn(preparedStatement);
         when(preparedStatement.executeQuery()).thenReturn(resultSet);
     }
@@ -13,6 +13,7 @@ import uy.com.bbva.logcommons.log.utils.LogUtils;
 import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
 import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
 import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
 import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
 
 import java.sql.PreparedStatement;
@@ -23,8 +24,10 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.resolveColumnsByLabel;
 
 @ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
 @DisplayName("Suite de pruebas de DAOImpl.getOwner():")
 class GetOwnerTest {
 
@@ -66,12 +69,29 @@ class GetOwnerTest {
     private static final String OWNER_NOT_FOUND_MESSAGE = "Owner not found";
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws SQLException {
         // Lanza StubbingException en los tests de SQLException, lenient previene errores en los casos que no se usa el stub
         lenient().when(nonBusinessIdDatatype.getPersonCountry()).thenReturn(VALID_PERSON_COUNTRY);
         lenient().when(nonBusinessIdDatatype.getPersonDocument()).thenReturn(VALID_PERSON_DOCUMENT);
         lenient().when(nonBusinessIdDatatype.getPersonDocumentType()).thenReturn(VALID_PERSON_DOCUMENT_TYPE);
+        resolveColumnsByLabel(resultSet);
+    }
 
+    @Test
+    @DisplayName("Resuelve los indices de columna una sola vez y luego lee por indice")
+    void getOwner_resolvesColumnIndexesOnce_acrossExecutions() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString("BBNCPFNOM1")).thenReturn(FIRST_NAME_VALUE);
+
+        dao.getOwner(nonBusinessIdDatatype);
+        RelatedPerson result = dao.getOwner(nonBusinessIdDatatype);
+
+        assertEquals(FIRST_NAME_VALUE, result.getFirstName());
+        verify(resultSet, times(1)).findColumn("BBNCPFNOM1");
+        verify(resultSet, times(1)).findColumn("BBNCPFAPE2");
+        verify(resultSet, times(2)).getString(1);
     }
 
     @Test
@@ -197,7 +217,7 @@ class GetOwnerTest {
             assertEquals(ERROR_CLASS_NAME, exception.getMessage());
             assertEquals(ERROR_GET_OWNER, exception.getInternalMessage());
             assertSame(sqlException, exception.getCause());
-            verify(logUtils).logError(eq(ERROR_CLASS_NAME), eq(ERROR_GET_OWNER), eq(ERROR_GET_OWNER), eq(sqlException));
+            verify(logUtils).logError(ERROR_CLASS_NAME, ERROR_GET_OWNER, sqlException.getMessage());
             verify(managerDataAccessAs400).closeResources(null, null);
         }
 
@@ -214,7 +234,7 @@ class GetOwnerTest {
             assertEquals(ERROR_CLASS_NAME, exception.getMessage());
             assertEquals(ERROR_GET_OWNER, exception.getInternalMessage());
             assertSame(sqlException, exception.getCause());
-            verify(logUtils).logError(eq(ERROR_CLASS_NAME), eq(ERROR_GET_OWNER), eq(ERROR_GET_OWNER), eq(sqlException));
+            verify(logUtils).logError(ERROR_CLASS_NAME, ERROR_GET_OWNER, sqlException.getMessage());
             verify(managerDataAccessAs400).closeResources(preparedStatement, null);
         }
 
@@ -231,7 +251,7 @@ class GetOwnerTest {
             assertEquals(ERROR_CLASS_NAME, exception.getMessage());
             assertEquals(ERROR_GET_OWNER, exception.getInternalMessage());
             assertSame(sqlException, exception.getCause());
-            verify(logUtils).logError(eq(ERROR_CLASS_NAME), eq(ERROR_GET_OWNER), eq(ERROR_GET_OWNER), eq(sqlException));
+            verify(logUtils).logError(ERROR_CLASS_NAME, ERROR_GET_OWNER, sqlException.getMessage());
             verify(managerDataAccessAs400).closeResources(preparedStatement, null);
         }
 
@@ -248,7 +268,7 @@ class GetOwnerTest {
             assertEquals(ERROR_CLASS_NAME, exception.getMessage());
             assertEquals(ERROR_GET_OWNER, exception.getInternalMessage());
             assertSame(sqlException, exception.getCause());
-            verify(logUtils).logError(eq(ERROR_CLASS_NAME), eq(ERROR_GET_OWNER), eq(ERROR_GET_OWNER), eq(sqlException));
+            verify(logUtils).logError(ERROR_CLASS_NAME, ERROR_GET_OWNER, sqlException.getMessage());
             verify(managerDataAccessAs400).closeResources(preparedStatement, null);
         }
 
@@ -266,7 +286,7 @@ class GetOwnerTest {
             assertEquals(ERROR_CLASS_NAME, exception.getMessage());
             assertEquals(ERROR_GET_OWNER, exception.getInternalMessage());
             assertSame(sqlException, exception.getCause());
-            verify(logUtils).logError(eq(ERROR_CLASS_NAME), eq(ERROR_GET_OWNER), eq(ERROR_GET_OWNER), eq(sqlException));
+            verify(logUtils).logError(ERROR_CLASS_NAME, ERROR_GET_OWNER, sqlException.getMessage());
             verify(managerDataAccessAs400).closeResources(preparedStatement, resultSet);
         }
 
@@ -285,7 +305,7 @@ class GetOwnerTest {
             assertEquals(ERROR_CLASS_NAME, exception.getMessage());
             assertEquals(ERROR_GET_OWNER, exception.getInternalMessage());
             assertSame(sqlException, exception.getCause());
-            verify(logUtils).logError(eq(ERROR_CLASS_NAME), eq(ERROR_GET_OWNER), eq(ERROR_GET_OWNER), eq(sqlException));
+            verify(logUtils).logError(ERROR_CLASS_NAME, ERROR_GET_OWNER, sqlException.getMessage());
             verify(managerDataAccessAs400).closeResources(preparedStatement, resultSet);
         }
     }
@@ -0,0 +1,165 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl.get;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
+import uy.com.bbva.services.nonbusinesses.model.SearchPreCheck;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.resolveColumnsByLabel;
+
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Suite de pruebas de DAOImpl.getSearchPreCheck():")
+class GetSearchPreCheckTest {
+
+    @InjectMocks
+    private DAOImpl dao;
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private static final String CI = "12345678";
+    private static final String RUT = "211234560018";
+    private static final String STATUS = "  DGI_OK  ";
+    private static final String FIRST_NAME_VALUE = "Juan";
+    private static final String LAST_NAME_VALUE = "Perez";
+    private static final String ERROR_CLASS_NAME = "uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl";
+    private static final String ERROR_SEARCH_PRE_CHECK = "Ocurrio un error al obtener los datos previos a la busqueda";
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        resolveColumnsByLabel(resultSet);
+    }
+
+    @Test
+    @DisplayName("Happy Path: retorna cliente, estado y dueño en una sola consulta")
+    void getSearchPreCheck_returnsAllData() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBoolean("IS_CLIENT")).thenReturn(false);
+        when(resultSet.getString("BBNCEMESTA")).thenReturn(STATUS);
+        when(resultSet.getString("BBNCPFNOM1")).thenReturn(FIRST_NAME_VALUE);
+        when(resultSet.getString("BBNCPFNOM2")).thenReturn(null);
+        when(resultSet.getString("BBNCPFAPE1")).thenReturn(LAST_NAME_VALUE);
+        when(resultSet.getString("BBNCPFAPE2")).thenReturn(null);
+
+        SearchPreCheck result = dao.getSearchPreCheck(CI, RUT);
+
+        assertFalse(result.isClient());
+        assertEquals(STATUS.trim(), result.getStatus());
+        assertNotNull(result.getOwner());
+        assertEquals(FIRST_NAME_VALUE, result.getOwner().getFirstName());
+        assertEquals("", result.getOwner().getMiddleName());
+        assertEquals(LAST_NAME_VALUE, result.getOwner().getLastName());
+        verify(preparedStatement, times(1)).executeQuery();
+        verify(managerDataAccessAs400).closeResources(preparedStatement, resultSet);
+    }
+
+    @Test
+    @DisplayName("Verifica el orden de los parametros de las tres subconsultas")
+    void getSearchPreCheck_setsParametersInCorrectOrder() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        dao.getSearchPreCheck(CI, RUT);
+
+        verify(preparedStatement).setString(1, RUT);
+        verify(preparedStatement).setString(6, CI);
+        verify(preparedStatement).setString(9, RUT);
+        verify(preparedStatement).setString(10, CI);
+        verify(preparedStatement, times(4)).setString(anyInt(), anyString());
+        verify(preparedStatement, times(8)).setInt(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Retorna estado vacio y sin dueño cuando no hay datos")
+    void getSearchPreCheck_returnsEmpty_whenNoRow() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(false);
+
+        SearchPreCheck result = dao.getSearchPreCheck(CI, RUT);
+
+        assertFalse(result.isClient());
+        assertEquals("", result.getStatus());
+        assertNull(result.getOwner());
+        verify(managerDataAccessAs400).closeResources(preparedStatement, resultSet);
+    }
+
+    @Test
+    @DisplayName("Retorna dueño nulo cuando la persona no existe")
+    void getSearchPreCheck_returnsNullOwner_whenPersonNotFound() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBoolean("IS_CLIENT")).thenReturn(true);
+        when(resultSet.getString("BBNCEMESTA")).thenReturn(null);
+        when(resultSet.getString("BBNCPFNOM1")).thenReturn(null);
+
+        SearchPreCheck result = dao.getSearchPreCheck(CI, RUT);
+
+        assertTrue(result.isClient());
+        assertEquals("", result.getStatus());
+        assertNull(result.getOwner());
+    }
+
+    @Test
+    @DisplayName("Lanza ServiceException cuando ocurre SQLException al ejecutar query")
+    void getSearchPreCheck_throwsServiceException_whenSqlExceptionOnExecuteQuery() throws Exception {
+        SQLException sqlException = new SQLException("Query execution failed");
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenThrow(sqlException);
+
+        ServiceException exception = assertThrows(ServiceException.class,
+                () -> dao.getSearchPreCheck(CI, RUT));
+
+        assertEquals(ERROR_CLASS_NAME, exception.getMessage());
+        assertEquals(ERROR_SEARCH_PRE_CHECK, exception.getInternalMessage());
+        assertSame(sqlException, exception.getCause());
+        verify(logUtils).logError(ERROR_CLASS_NAME, ERROR_SEARCH_PRE_CHECK, sqlException.getMessage());
+        verify(managerDataAccessAs400).closeResources(preparedStatement, null);
+    }
+
+    @Test
+    @DisplayName("Resuelve los indices de columna una sola vez y mapea el dueño con el mapper por indice")
+    void getSearchPreCheck_resolvesColumnIndexesOnce_acrossExecutions() throws Exception {
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString("BBNCPFNOM1")).thenReturn(FIRST_NAME_VALUE);
+
+        dao.getSearchPreCheck(CI, RUT);
+        SearchPreCheck result = dao.getSearchPreCheck(CI, RUT);
+
+        assertEquals(FIRST_NAME_VALUE, result.getOwner().getFirstName());
+        verify(resultSet, times(1)).findColumn("IS_CLIENT");
+        verify(resultSet, times(1)).findColumn("BBNCPFAPE2");
+    }
+}
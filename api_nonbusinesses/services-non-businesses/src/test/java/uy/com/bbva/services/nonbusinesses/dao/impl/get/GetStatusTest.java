@@ -11,6 +11,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import uy.com.bbva.logcommons.log.utils.LogUtils;
 import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
 import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
 import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
 
 import java.sql.PreparedStatement;
@@ -24,6 +25,7 @@ import static org.mockito.Mockito.*;
 import static uy.com.bbva.dtos.commons.utils.Constants.*;
 
 @ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
 @DisplayName("Suite de pruebas de DAOImpl.nonBusinessOnFinalState():")
 class GetStatusTest {
 
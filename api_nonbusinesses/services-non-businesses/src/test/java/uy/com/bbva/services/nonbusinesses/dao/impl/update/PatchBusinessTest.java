@@ -0,0 +1,149 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl.update;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+import uy.com.bbva.services.nonbusinesses.dao.SQLStatements;
+import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
+import uy.com.bbva.services.nonbusinesses.model.BusinessPatch;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.dtos.commons.utils.Constants.UY_COUNTRY_CODE;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas para DAOImpl.patchBusiness()
+ * Valida que solo las columnas informadas se escriben, en un unico UPDATE sobre la fila de la empresa.
+ */
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Suite de pruebas de DAOImpl.patchBusiness():")
+class PatchBusinessTest {
+
+    @InjectMocks
+    private DAOImpl daoImpl;
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    private static final String ERROR_MESSAGE = "Error al actualizar los datos de la empresa";
+    private static final String COMMERCIAL_NAME = "Nombre Comercial";
+    private static final String BANK_BRANCH = "001";
+
+    private NonBusinessIdDatatype nonBusinessDatatype;
+
+    @BeforeEach
+    void setUp() {
+        nonBusinessDatatype = createBusinessDatatype();
+    }
+
+    @Test
+    @DisplayName("Debe escribir todas las columnas informadas en una sola sentencia")
+    void patchBusiness_allFields_singleUpdate() throws Exception {
+        final ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        when(managerDataAccessAs400.prepareStatement(sqlCaptor.capture())).thenReturn(preparedStatement);
+
+        final BusinessPatch patch = new BusinessPatch();
+        patch.setCommercialName(COMMERCIAL_NAME);
+        patch.setBankBranch(BANK_BRANCH);
+        patch.setFormation(createFormation());
+        patch.setLegalDocument(createLegalDocumentBPS());
+
+        daoImpl.patchBusiness(nonBusinessDatatype, patch);
+
+        final String sql = sqlCaptor.getValue();
+        assertTrue(sql.contains(SQLStatements.SET_BUSINESS_COMMERCIAL_NAME));
+        assertTrue(sql.contains(SQLStatements.SET_BANK_BRANCH));
+        assertTrue(sql.contains(SQLStatements.SET_BUSINESS_FORMATION_DATA));
+        assertTrue(sql.contains(SQLStatements.BUSINESS_COMMERCIAL_NAME_CHANGED));
+        assertTrue(sql.contains(SQLStatements.BANK_BRANCH_CHANGED));
+        assertTrue(sql.contains(SQLStatements.BUSINESS_FORMATION_DATA_CHANGED));
+
+        verify(preparedStatement).setString(1, COMMERCIAL_NAME);
+        verify(preparedStatement).setString(2, BANK_BRANCH);
+        verify(preparedStatement).setString(3, FORMATION_DATE_FORMATTED);
+        verify(preparedStatement).setString(4, LEGAL_DOC_ISSUE_DATE_FORMATTED);
+        verify(preparedStatement).setString(5, LEGAL_DOC_NUMBER_VALID);
+        verify(preparedStatement).setString(6, LEGAL_DOC_ISSUE_DATE_FORMATTED);
+        verify(preparedStatement).setString(7, BUSINESS_RUT_VALID);
+        verify(preparedStatement).setInt(8, UY_COUNTRY_CODE);
+        verify(preparedStatement).setInt(9, BUSINESS_DOCUMENT_TYPE_DEFAULT);
+        verify(preparedStatement).setString(10, COMMERCIAL_NAME);
+        verify(preparedStatement).setString(11, BANK_BRANCH);
+        verify(preparedStatement).setString(12, FORMATION_DATE_FORMATTED);
+        verify(preparedStatement).setString(13, LEGAL_DOC_ISSUE_DATE_FORMATTED);
+        verify(preparedStatement).setString(14, LEGAL_DOC_NUMBER_VALID);
+        verify(preparedStatement).setString(15, LEGAL_DOC_ISSUE_DATE_FORMATTED);
+        verify(preparedStatement, times(1)).executeUpdate();
+        verify(managerDataAccessAs400, times(1)).prepareStatement(anyString());
+        verify(managerDataAccessAs400).closeResources(preparedStatement, null);
+    }
+
+    @Test
+    @DisplayName("Debe escribir solo la columna informada en un PATCH parcial")
+    void patchBusiness_onlyBankBranch_writesOnlyThatColumn() throws Exception {
+        final ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        when(managerDataAccessAs400.prepareStatement(sqlCaptor.capture())).thenReturn(preparedStatement);
+
+        final BusinessPatch patch = new BusinessPatch();
+        patch.setBankBranch(BANK_BRANCH);
+
+        daoImpl.patchBusiness(nonBusinessDatatype, patch);
+
+        assertEquals(String.format(SQLStatements.PATCH_BUSINESS, SQLStatements.SET_BANK_BRANCH, SQLStatements.BANK_BRANCH_CHANGED), sqlCaptor.getValue());
+        verify(preparedStatement).setString(1, BANK_BRANCH);
+        verify(preparedStatement).setString(2, BUSINESS_RUT_VALID);
+        verify(preparedStatement).setInt(3, UY_COUNTRY_CODE);
+        verify(preparedStatement).setInt(4, BUSINESS_DOCUMENT_TYPE_DEFAULT);
+        verify(preparedStatement).setString(5, BANK_BRANCH);
+        verify(preparedStatement).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("No debe ir a la base cuando el PATCH no informa columnas")
+    void patchBusiness_emptyPatch_doesNothing() throws Exception {
+        daoImpl.patchBusiness(nonBusinessDatatype, new BusinessPatch());
+
+        verifyNoInteractions(managerDataAccessAs400);
+    }
+
+    @Test
+    @DisplayName("Debe lanzar ServiceException cuando falla la ejecución del update")
+    void patchBusiness_executeFails_throwsServiceException() throws Exception {
+        final SQLException sqlException = new SQLException(ERROR_EXECUTION);
+        when(managerDataAccessAs400.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenThrow(sqlException);
+
+        final BusinessPatch patch = new BusinessPatch();
+        patch.setCommercialName(COMMERCIAL_NAME);
+
+        final ServiceException exception = assertThrows(ServiceException.class,
+                () -> daoImpl.patchBusiness(nonBusinessDatatype, patch));
+
+        assertEquals(ERROR_MESSAGE, exception.getInternalMessage());
+        assertSame(sqlException, exception.getCause());
+        verify(logUtils).logError(DAO_CLASS_NAME, ERROR_MESSAGE, ERROR_EXECUTION);
+        verify(managerDataAccessAs400).closeResources(preparedStatement, null);
+    }
+}
@@ -221,8 +221,7 @@ class UpdateBusinessEconomicDataTest extends DAOUpdateTest {
 
         assertDoesNotThrow(() -> daoImpl.updateBusinessEconomicData(nonBusinessIdDatatype, economicData));
 
-        verify(managerDataAccessAs400, never()).prepareStatement(any());
-        verify(managerDataAccessAs400).closeResources(null, null);
+        verifyNoInteractions(managerDataAccessAs400);
     }
 
     @Test
@@ -232,8 +231,7 @@ class UpdateBusinessEconomicDataTest extends DAOUpdateTest {
 
         assertDoesNotThrow(() -> daoImpl.updateBusinessEconomicData(nonBusinessIdDatatype, economicData));
 
-        verify(managerDataAccessAs400, never()).prepareStatement(any());
-        verify(managerDataAccessAs400).closeResources(null, null);
+        verifyNoInteractions(managerDataAccessAs400);
     }
 
     @ParameterizedTest(name = "[{index}] SQLException en: {0}")
@@ -43,6 +43,8 @@ class UpdateBusinessInformationTest extends DAOUpdateTest {
     private static final int PARAM_INDEX_RUT = 3;
     private static final int PARAM_INDEX_COUNTRY = 4;
     private static final int PARAM_INDEX_DOCUMENT_TYPE = 5;
+    private static final int PARAM_INDEX_CURRENT_NAME = 6;
+    private static final int PARAM_INDEX_CURRENT_EXPIRATION = 7;
 
     private BusinessInformation businessInformation;
 
@@ -76,6 +78,8 @@ class UpdateBusinessInformationTest extends DAOUpdateTest {
         ps.setString(PARAM_INDEX_RUT, businessInformation.getRut());
         ps.setInt(PARAM_INDEX_COUNTRY, UY_COUNTRY_CODE);
         ps.setInt(PARAM_INDEX_DOCUMENT_TYPE, RUT_DOCUMENT_TYPE);
+        ps.setString(PARAM_INDEX_CURRENT_NAME, name);
+        ps.setString(PARAM_INDEX_CURRENT_EXPIRATION, formattedExpiration);
     }
 
     @Override
@@ -88,6 +92,8 @@ class UpdateBusinessInformationTest extends DAOUpdateTest {
         verify(preparedStatement).setString(PARAM_INDEX_RUT, BUSINESS_RUT_VALID);
         verify(preparedStatement).setInt(PARAM_INDEX_COUNTRY, UY_COUNTRY_CODE);
         verify(preparedStatement).setInt(PARAM_INDEX_DOCUMENT_TYPE, RUT_DOCUMENT_TYPE);
+        verify(preparedStatement).setString(PARAM_INDEX_CURRENT_NAME, name);
+        verify(preparedStatement).setString(PARAM_INDEX_CURRENT_EXPIRATION, formattedExpiration);
     }
 
     @ParameterizedTest(name = "[{index}] Debe actualizar correctamente con nombre: ''{0}''")
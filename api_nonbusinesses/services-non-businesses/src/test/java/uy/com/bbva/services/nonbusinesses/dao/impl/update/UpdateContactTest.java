@@ -0,0 +1,119 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl.update;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+import uy.com.bbva.services.nonbusinesses.dao.SQLStatements;
+import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
+
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Suite de pruebas para DAOImpl.updateContactMail() y DAOImpl.updateContactMobile()
+ * Valida que persona y empresa se actualizan en una unica llamada al procedimiento.
+ */
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Suite de pruebas de DAOImpl.updateContactMail() y updateContactMobile():")
+class UpdateContactTest {
+
+    @InjectMocks
+    private DAOImpl daoImpl;
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private CallableStatement callableStatement;
+
+    private static final String ERROR_UPDATE_CONTACT_MAIL = "Error al actualizar el correo de la persona y la empresa";
+    private static final String ERROR_UPDATE_CONTACT_MOBILE = "Error al actualizar el celular de la persona y la empresa";
+
+    private NonBusinessIdDatatype nonBusinessDatatype;
+
+    @BeforeEach
+    void setUp() {
+        nonBusinessDatatype = createBusinessWithPersonDatatype();
+    }
+
+    @Test
+    @DisplayName("Debe actualizar el correo de persona y empresa en una sola llamada, persona primero")
+    void updateContactMail_success_singleCallPersonFirst() throws Exception {
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_CONTACT_MAIL)).thenReturn(callableStatement);
+
+        daoImpl.updateContactMail(nonBusinessDatatype, EMAIL_VALID);
+
+        final InOrder inOrder = inOrder(callableStatement, managerDataAccessAs400);
+        inOrder.verify(callableStatement).setString(1, EMAIL_VALID);
+        inOrder.verify(callableStatement).setString(2, nonBusinessDatatype.getPersonDocument());
+        inOrder.verify(callableStatement).setInt(3, nonBusinessDatatype.getPersonCountry());
+        inOrder.verify(callableStatement).setInt(4, nonBusinessDatatype.getPersonDocumentType());
+        inOrder.verify(callableStatement).setString(5, nonBusinessDatatype.getBusinessDocument());
+        inOrder.verify(callableStatement).setInt(6, nonBusinessDatatype.getBusinessCountry());
+        inOrder.verify(callableStatement).setInt(7, nonBusinessDatatype.getBusinessDocumentType());
+        inOrder.verify(callableStatement, times(1)).execute();
+        inOrder.verify(managerDataAccessAs400).closeResources(callableStatement, null);
+        verify(managerDataAccessAs400, never()).prepareStatement(anyString());
+    }
+
+    @Test
+    @DisplayName("Debe actualizar el celular de persona y empresa en una sola llamada")
+    void updateContactMobile_success_singleCall() throws Exception {
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_CONTACT_MOBILE)).thenReturn(callableStatement);
+
+        daoImpl.updateContactMobile(nonBusinessDatatype, MOBILE_VALID);
+
+        verify(callableStatement).setString(1, MOBILE_VALID);
+        verify(callableStatement, times(1)).execute();
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
+    }
+
+    @Test
+    @DisplayName("Debe lanzar ServiceException cuando falla la actualizacion del correo")
+    void updateContactMail_executeFails_throwsServiceException() throws Exception {
+        final SQLException sqlException = new SQLException(ERROR_EXECUTION);
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_CONTACT_MAIL)).thenReturn(callableStatement);
+        when(callableStatement.execute()).thenThrow(sqlException);
+
+        final ServiceException exception = assertThrows(ServiceException.class,
+                () -> daoImpl.updateContactMail(nonBusinessDatatype, EMAIL_VALID));
+
+        assertEquals(ERROR_UPDATE_CONTACT_MAIL, exception.getInternalMessage());
+        assertSame(sqlException, exception.getCause());
+        verify(logUtils).logError(DAO_CLASS_NAME, ERROR_UPDATE_CONTACT_MAIL, ERROR_EXECUTION);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
+    }
+
+    @Test
+    @DisplayName("Debe lanzar ServiceException cuando falla la preparacion de la llamada del celular")
+    void updateContactMobile_prepareFails_throwsServiceException() throws Exception {
+        final SQLException sqlException = new SQLException(ERROR_DATABASE);
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_CONTACT_MOBILE)).thenThrow(sqlException);
+
+        final ServiceException exception = assertThrows(ServiceException.class,
+                () -> daoImpl.updateContactMobile(nonBusinessDatatype, MOBILE_VALID));
+
+        assertEquals(ERROR_UPDATE_CONTACT_MOBILE, exception.getInternalMessage());
+        verify(logUtils).logError(DAO_CLASS_NAME, ERROR_UPDATE_CONTACT_MOBILE, ERROR_DATABASE);
+        verify(managerDataAccessAs400).closeResources(null, null);
+    }
+}
@@ -0,0 +1,190 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl.update;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+import uy.com.bbva.services.nonbusinesses.common.TestDataFactory;
+import uy.com.bbva.services.nonbusinesses.dao.As400Bulkhead;
+import uy.com.bbva.services.nonbusinesses.dao.SQLStatements;
+import uy.com.bbva.services.nonbusinesses.dao.impl.As400Bulkheads;
+import uy.com.bbva.services.nonbusinesses.dao.impl.AuditStatusChangeWriter;
+import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
+import uy.com.bbva.services.nonbusinesses.model.status.Status;
+
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Pruebas unitarias para el método updateStatusAndAudit de DAOImpl.
+ * Verifica que el estado y su auditoria se registran en una unica llamada al procedimiento, o con la auditoria
+ * asincronica habilitada, que el estado se escribe y la auditoria se encola.
+ */
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Pruebas de actualización y auditoría de estado de no-cliente")
+class UpdateStatusAndAuditTest {
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private CallableStatement callableStatement;
+
+    @Mock
+    private AuditStatusChangeWriter auditStatusChangeWriter;
+
+    @InjectMocks
+    private DAOImpl daoImpl;
+
+    private As400Bulkheads as400Bulkheads;
+    private NonBusinessIdDatatype nonBusinessDatatype;
+    private Status status;
+    private static final String ERROR_UPDATE_STATUS = "Ocurrio un error al actualizar el estado";
+
+    @BeforeEach
+    void setUp() {
+        nonBusinessDatatype = TestDataFactory.createBusinessWithPersonDatatype();
+        status = Status.of(STATUS_ID_NB_ADD_OK).setProcess(PROCESS_ADDRESS);
+        as400Bulkheads = (As400Bulkheads) ReflectionTestUtils.getField(daoImpl, "as400Bulkheads");
+    }
+
+    @Test
+    @DisplayName("Debe registrar estado y auditoria en una sola ejecucion")
+    void testUpdateStatusAndAudit_Success_SingleExecution() throws Exception {
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_STATUS_AND_AUDIT)).thenReturn(callableStatement);
+
+        daoImpl.updateStatusAndAudit(nonBusinessDatatype, STATUS_ID_NB_ADD_OK, status);
+
+        verify(callableStatement).setInt(1, nonBusinessDatatype.getBusinessCountry());
+        verify(callableStatement).setString(3, BUSINESS_RUT_VALID);
+        verify(callableStatement).setString(6, PERSON_DOCUMENT_VALID);
+        verify(callableStatement).setString(9, PROCESS_ADDRESS);
+        verify(callableStatement).setString(10, STATUS_ID_NB_ADD_OK);
+        verify(callableStatement).setString(13, STATUS_ID_NB_ADD_OK);
+        verify(callableStatement, times(1)).execute();
+        verify(managerDataAccessAs400, never()).prepareCall(SQLStatements.UPDATE_STATUS);
+        verify(managerDataAccessAs400, never()).prepareCall(SQLStatements.AUDIT_STATUS_CHANGE);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
+    }
+
+    @Test
+    @DisplayName("Debe permitir un estado distinto al id auditado")
+    void testUpdateStatusAndAudit_Success_WithDifferentAuditId() throws Exception {
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_STATUS_AND_AUDIT)).thenReturn(callableStatement);
+
+        daoImpl.updateStatusAndAudit(nonBusinessDatatype, STATUS_ID_NB_CNT_OK, Status.of("NB_CNTE_OK").setProcess(PROCESS_CONTACT));
+
+        verify(callableStatement).setString(10, "NB_CNTE_OK");
+        verify(callableStatement).setString(13, STATUS_ID_NB_CNT_OK);
+    }
+
+    @Test
+    @DisplayName("Debe ocupar las particiones de escritura de negocio y de auditoria")
+    void testUpdateStatusAndAudit_HoldsBusinessAndAuditPartitions() throws Exception {
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_STATUS_AND_AUDIT)).thenReturn(callableStatement);
+
+        daoImpl.updateStatusAndAudit(nonBusinessDatatype, STATUS_ID_NB_ADD_OK, status);
+
+        assertEquals(1, as400Bulkheads.snapshot().get("BUSINESS_WRITE").getAcquired());
+        assertEquals(1, as400Bulkheads.snapshot().get("AUDIT_WRITE").getAcquired());
+        assertEquals(0, as400Bulkheads.snapshot().get("AUDIT_WRITE").getInUse());
+    }
+
+    @Test
+    @DisplayName("Debe tomar y devolver ambas particiones en cada intento y no retenerlas durante la espera del reintento")
+    void testUpdateStatusAndAudit_TransientRetry_AcquiresPartitionsPerAttempt() throws Exception {
+        ReflectionTestUtils.setField(daoImpl, "transientMaxRetries", 1);
+        ReflectionTestUtils.setField(daoImpl, "transientBackoffMillis", 1L);
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_STATUS_AND_AUDIT)).thenReturn(callableStatement);
+        when(callableStatement.execute()).thenThrow(new SQLTransactionRollbackException(ERROR_EXECUTION)).thenReturn(true);
+
+        daoImpl.updateStatusAndAudit(nonBusinessDatatype, STATUS_ID_NB_ADD_OK, status);
+
+        verify(callableStatement, times(2)).execute();
+        assertEquals(2, as400Bulkheads.snapshot().get("BUSINESS_WRITE").getAcquired());
+        assertEquals(2, as400Bulkheads.snapshot().get("AUDIT_WRITE").getAcquired());
+        assertEquals(0, as400Bulkheads.snapshot().get("BUSINESS_WRITE").getInUse());
+        assertEquals(0, as400Bulkheads.snapshot().get("AUDIT_WRITE").getInUse());
+    }
+
+    @Test
+    @DisplayName("Debe devolver el permiso de escritura de negocio cuando la particion de auditoria esta llena")
+    void testUpdateStatusAndAudit_AuditPartitionFull_ReleasesBusinessPermit() throws Exception {
+        final As400Bulkhead auditBulkhead = as400Bulkheads.get(As400Bulkheads.Workload.AUDIT_WRITE);
+        final int permits = auditBulkhead.snapshot().getMaxPermits();
+        for (int i = 0; i < permits; i++) {
+            auditBulkhead.acquire();
+        }
+        try {
+            assertThrows(ServiceException.class, () -> daoImpl.updateStatusAndAudit(nonBusinessDatatype, STATUS_ID_NB_ADD_OK, status));
+
+            assertEquals(0, as400Bulkheads.snapshot().get("BUSINESS_WRITE").getInUse());
+            verifyNoInteractions(managerDataAccessAs400);
+        } finally {
+            for (int i = 0; i < permits; i++) {
+                auditBulkhead.release();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debe escribir el estado y encolar la auditoria con la auditoria asincronica habilitada")
+    void testUpdateStatusAndAudit_AsyncAudit_UpdatesStatusAndEnqueuesAudit() throws Exception {
+        ReflectionTestUtils.setField(daoImpl, "asyncAuditEnabled", true);
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_STATUS)).thenReturn(callableStatement);
+
+        daoImpl.updateStatusAndAudit(nonBusinessDatatype, STATUS_ID_NB_ADD_OK, status);
+
+        verify(callableStatement).setString(1, STATUS_ID_NB_ADD_OK);
+        verify(callableStatement).execute();
+        verify(auditStatusChangeWriter).enqueue(nonBusinessDatatype, status);
+        verify(managerDataAccessAs400, never()).prepareCall(SQLStatements.UPDATE_STATUS_AND_AUDIT);
+    }
+
+    @Test
+    @DisplayName("No debe encolar la auditoria si falla la escritura del estado")
+    void testUpdateStatusAndAudit_AsyncAudit_DoesNotEnqueueWhenStatusFails() throws Exception {
+        ReflectionTestUtils.setField(daoImpl, "asyncAuditEnabled", true);
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_STATUS)).thenReturn(callableStatement);
+        when(callableStatement.execute()).thenThrow(new SQLException(ERROR_EXECUTION));
+
+        assertThrows(ServiceException.class, () -> daoImpl.updateStatusAndAudit(nonBusinessDatatype, STATUS_ID_NB_ADD_OK, status));
+
+        verifyNoInteractions(auditStatusChangeWriter);
+    }
+
+    @Test
+    @DisplayName("Debe lanzar ServiceException cuando falla la ejecución del procedimiento")
+    void testUpdateStatusAndAudit_ThrowsServiceException_WhenExecuteFails() throws Exception {
+        SQLException sqlException = new SQLException(ERROR_EXECUTION);
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_STATUS_AND_AUDIT)).thenReturn(callableStatement);
+        when(callableStatement.execute()).thenThrow(sqlException);
+
+        ServiceException exception = assertThrows(ServiceException.class,
+                () -> daoImpl.updateStatusAndAudit(nonBusinessDatatype, STATUS_ID_NB_ADD_OK, status));
+
+        assertEquals(ERROR_UPDATE_STATUS, exception.getInternalMessage());
+        assertEquals(sqlException, exception.getCause());
+        verify(logUtils).logError(DAO_CLASS_NAME, ERROR_UPDATE_STATUS, ERROR_EXECUTION);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
+    }
+}
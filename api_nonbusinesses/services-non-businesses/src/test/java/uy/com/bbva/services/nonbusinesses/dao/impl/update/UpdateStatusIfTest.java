@@ -0,0 +1,143 @@
+package uy.com.bbva.services.nonbusinesses.dao.impl.update;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
+import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
+import uy.com.bbva.services.nonbusinesses.common.TestDataFactory;
+import uy.com.bbva.services.nonbusinesses.dao.SQLStatements;
+import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
+
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.dtos.commons.utils.Constants.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+/**
+ * Pruebas unitarias de las transiciones condicionales de estado de DAOImpl.
+ * Verifica que la comparacion y la actualizacion se resuelven en una unica llamada al procedimiento de estado.
+ */
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
+@DisplayName("Pruebas de transicion condicional de estado de no-cliente")
+class UpdateStatusIfTest {
+
+    @Mock
+    private ManagerDataAccessAs400 managerDataAccessAs400;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @Mock
+    private CallableStatement callableStatement;
+
+    @InjectMocks
+    private DAOImpl daoImpl;
+
+    private NonBusinessIdDatatype nonBusinessDatatype;
+    private static final String ERROR_UPDATE_STATUS = "Ocurrio un error al actualizar el estado";
+
+    @BeforeEach
+    void setUp() {
+        nonBusinessDatatype = TestDataFactory.createBusinessWithPersonDatatype();
+    }
+
+    @Test
+    @DisplayName("Debe aplicar la transicion cuando el estado actual esta permitido")
+    void testUpdateStatusIf_ReturnsTrue_WhenApplied() throws Exception {
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_STATUS_IF_IN)).thenReturn(callableStatement);
+        when(callableStatement.getInt(9)).thenReturn(1);
+
+        assertTrue(daoImpl.updateStatusIf(nonBusinessDatatype, STATUS_ID_RETOMA, List.of(STATUS_ID_INGRESO, STATUS_ID_RETOMA)));
+
+        var inOrder = inOrder(callableStatement);
+        inOrder.verify(callableStatement).setString(1, STATUS_ID_RETOMA);
+        inOrder.verify(callableStatement).setInt(2, UY_COUNTRY_CODE);
+        inOrder.verify(callableStatement).setInt(3, USER_DOCUMENT_TYPE_CI);
+        inOrder.verify(callableStatement).setString(4, PERSON_DOCUMENT_VALID);
+        inOrder.verify(callableStatement).setInt(5, UY_COUNTRY_CODE);
+        inOrder.verify(callableStatement).setInt(6, RUT_DOCUMENT_TYPE);
+        inOrder.verify(callableStatement).setString(7, BUSINESS_RUT_VALID);
+        inOrder.verify(callableStatement).setString(8, STATUS_ID_INGRESO + "," + STATUS_ID_RETOMA);
+        inOrder.verify(callableStatement).registerOutParameter(9, Types.INTEGER);
+        inOrder.verify(callableStatement).execute();
+        inOrder.verify(callableStatement).getInt(9);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
+    }
+
+    @Test
+    @DisplayName("Debe informar que no aplico la transicion cuando el estado actual esta rechazado")
+    void testUpdateStatusUnless_ReturnsFalse_WhenNotApplied() throws Exception {
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_STATUS_IF_NOT_IN)).thenReturn(callableStatement);
+        when(callableStatement.getInt(9)).thenReturn(0);
+
+        assertFalse(daoImpl.updateStatusUnless(nonBusinessDatatype, STATUS_ID_DGI_OK, List.of(STATUS_ID_PROCESADO)));
+
+        verify(callableStatement).setString(8, STATUS_ID_PROCESADO);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
+    }
+
+    @Test
+    @DisplayName("Debe aplicar la transicion cuando todavia no existe la fila de estado")
+    void testUpdateStatusUnless_ReturnsTrue_WhenNoStatusRow() throws Exception {
+        // Sin fila el procedimiento toma el estado como vacio, que no esta rechazado, y la crea como UPDATE_STATUS
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_STATUS_IF_NOT_IN)).thenReturn(callableStatement);
+        when(callableStatement.getInt(9)).thenReturn(1);
+
+        assertTrue(daoImpl.updateStatusUnless(nonBusinessDatatype, STATUS_ID_DGI_OK, List.of(STATUS_ID_PROCESADO, STATUS_ID_INGRESO)));
+
+        verify(callableStatement).execute();
+        verify(callableStatement, never()).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("No debe llamar al procedimiento cuando no hay estados esperados")
+    void testUpdateStatusIf_ReturnsFalse_WhenNoExpectedStatuses() throws Exception {
+        assertFalse(daoImpl.updateStatusIf(nonBusinessDatatype, STATUS_ID_RETOMA, List.of()));
+
+        verifyNoInteractions(managerDataAccessAs400);
+    }
+
+    @Test
+    @DisplayName("Debe actualizar sin condicion cuando no hay estados rechazados")
+    void testUpdateStatusUnless_UpdatesUnconditionally_WhenNoRejectedStatuses() throws Exception {
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_STATUS)).thenReturn(callableStatement);
+
+        assertTrue(daoImpl.updateStatusUnless(nonBusinessDatatype, STATUS_ID_DGI_OK, List.of()));
+
+        verify(callableStatement).setString(1, STATUS_ID_DGI_OK);
+        verify(callableStatement, never()).registerOutParameter(anyInt(), anyInt());
+        verify(managerDataAccessAs400, never()).prepareCall(SQLStatements.UPDATE_STATUS_IF_NOT_IN);
+    }
+
+    @Test
+    @DisplayName("Debe lanzar ServiceException cuando falla la ejecucion del procedimiento")
+    void testUpdateStatusIf_ThrowsServiceException_WhenExecuteFails() throws Exception {
+        SQLException sqlException = new SQLException(ERROR_EXECUTION);
+        when(managerDataAccessAs400.prepareCall(SQLStatements.UPDATE_STATUS_IF_IN)).thenReturn(callableStatement);
+        when(callableStatement.execute()).thenThrow(sqlException);
+
+        ServiceException exception = assertThrows(ServiceException.class,
+                () -> daoImpl.updateStatusIf(nonBusinessDatatype, STATUS_ID_RETOMA, List.of(STATUS_ID_INGRESO)));
+
+        assertEquals(ERROR_UPDATE_STATUS, exception.getInternalMessage());
+        assertEquals(sqlException, exception.getCause());
+        verify(callableStatement, never()).getInt(9);
+        verify(logUtils).logError(DAO_CLASS_NAME, ERROR_UPDATE_STATUS, ERROR_EXECUTION);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
+    }
+}
@@ -11,6 +11,7 @@ import uy.com.bbva.logcommons.log.utils.LogUtils;
 import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
 import uy.com.bbva.services.commons.dao.ManagerDataAccessAs400;
 import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.common.DAOImplExtension;
 import uy.com.bbva.services.nonbusinesses.common.TestDataFactory;
 import uy.com.bbva.services.nonbusinesses.dao.SQLStatements;
 import uy.com.bbva.services.nonbusinesses.dao.impl.DAOImpl;
@@ -29,6 +30,7 @@ import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
  * Verifica la correcta actualización del estado de un no-cliente en la base de datos.
  */
 @ExtendWith(MockitoExtension.class)
+@ExtendWith(DAOImplExtension.class)
 @DisplayName("Pruebas de actualización de estado de no-cliente")
 @SuppressWarnings("squid:S2095")
 class UpdateStatusTest {
@@ -72,7 +74,7 @@ class UpdateStatusTest {
         verify(callableStatement).setInt(6, RUT_DOCUMENT_TYPE);
         verify(callableStatement).setString(7, BUSINESS_RUT_VALID);
         verify(callableStatement).execute();
-        verify(managerDataAccessAs400).closeResources(callableStatement);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
     }
 
     @Test
@@ -87,7 +89,7 @@ class UpdateStatusTest {
 
         verify(callableStatement).setString(1, status);
         verify(callableStatement).execute();
-        verify(managerDataAccessAs400).closeResources(callableStatement);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
     }
 
     @Test
@@ -102,7 +104,7 @@ class UpdateStatusTest {
 
         verify(callableStatement).setString(1, status);
         verify(callableStatement).execute();
-        verify(managerDataAccessAs400).closeResources(callableStatement);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
     }
 
     @Test
@@ -117,7 +119,7 @@ class UpdateStatusTest {
 
         verify(callableStatement).setString(1, status);
         verify(callableStatement).execute();
-        verify(managerDataAccessAs400).closeResources(callableStatement);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
     }
 
     @Test
@@ -137,7 +139,7 @@ class UpdateStatusTest {
         assertEquals(sqlException, exception.getCause());
         verify(logUtils).logError(DAO_CLASS_NAME, ERROR_UPDATE_STATUS, ERROR_DATABASE
         );
-        verify(managerDataAccessAs400).closeResources((CallableStatement) null);
+        verify(managerDataAccessAs400).closeResources(null, null);
     }
 
     @Test
@@ -161,7 +163,7 @@ class UpdateStatusTest {
                 ERROR_UPDATE_STATUS,
                 ERROR_EXECUTION
         );
-        verify(managerDataAccessAs400).closeResources(callableStatement);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
     }
 
     @Test
@@ -184,7 +186,7 @@ class UpdateStatusTest {
                 ERROR_UPDATE_STATUS,
                 ERROR_PARAMETER
         );
-        verify(managerDataAccessAs400).closeResources(callableStatement);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
     }
 
     @Test
@@ -201,7 +203,7 @@ class UpdateStatusTest {
                 () -> daoImpl.updateStatus(nonBusinessDatatype, STATUS_ID_DGI_OK)
         );
 
-        verify(managerDataAccessAs400).closeResources(callableStatement);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
     }
 
     @Test
@@ -227,7 +229,7 @@ class UpdateStatusTest {
         verify(callableStatement).setString(4, null);
         verify(callableStatement).setString(7, null);
         verify(callableStatement).execute();
-        verify(managerDataAccessAs400).closeResources(callableStatement);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
     }
 
     @Test
@@ -240,6 +242,6 @@ class UpdateStatusTest {
         assertDoesNotThrow(() -> daoImpl.updateStatus(nonBusinessDatatype, STATUS_ID_NB_ADD_OK));
 
         verify(callableStatement).execute();
-        verify(managerDataAccessAs400).closeResources(callableStatement);
+        verify(managerDataAccessAs400).closeResources(callableStatement, null);
     }
 }
\ No newline at end of file
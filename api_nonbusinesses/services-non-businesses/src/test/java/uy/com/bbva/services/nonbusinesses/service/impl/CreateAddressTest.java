@@ -39,9 +39,10 @@ class CreateAddressTest extends ServiceTest {
         nonBusinessesApiService = new NonBusinessesApiServiceImpl();
 
         setField(nonBusinessesApiService, "dao", dao);
-        setField(nonBusinessesApiService, "businessInformationService", businessInformationService);
+        setField(nonBusinessesApiService, "businessInformationCache", businessInformationCache);
         setField(nonBusinessesApiService, "nonBusinessIdManagement", nonBusinessIdManagement);
         setField(nonBusinessesApiService, "addressUtil", addressUtil);
+        setField(nonBusinessesApiService, "departmentCatalog", departmentCatalog);
         setField(nonBusinessesApiService, "logUtils", logUtils);
         setField(nonBusinessesApiService, "nameValidator", nameValidator);
         setField(nonBusinessesApiService, "risksService", risksService);
@@ -61,20 +62,20 @@ class CreateAddressTest extends ServiceTest {
 
         when(nonBusinessIdManagement.getNonBusinessIdDatatypeFromNonBusinessId(NON_BUSINESS_ID_VALID))
                 .thenReturn(mockDatatype);
-        when(dao.getDepartments()).thenReturn(departmentsMap);
+        when(departmentCatalog.getDepartments()).thenReturn(departmentsMap);
         when(addressUtil.getAddressDatatypeFromAddress(address, departmentsMap))
                 .thenReturn(addressDatatype);
 
         nonBusinessesApiService.createAddress(NON_BUSINESS_ID_VALID, address);
 
         verify(nonBusinessIdManagement).getNonBusinessIdDatatypeFromNonBusinessId(NON_BUSINESS_ID_VALID);
-        verify(dao).getDepartments();
+        verify(departmentCatalog).getDepartments();
         verify(addressUtil).getAddressDatatypeFromAddress(address, departmentsMap);
         verify(dao).createAddress(mockDatatype, addressDatatype);
-        verify(dao).updateStatus(mockDatatype, STATUS_ID_NB_ADD_OK);
 
         ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
-        verify(dao).auditStatusChange(eq(mockDatatype), statusCaptor.capture());
+        verify(dao).updateStatusAndAudit(eq(mockDatatype), eq(STATUS_ID_NB_ADD_OK), statusCaptor.capture());
+        verify(dao, never()).updateStatusAndAudit(any(), anyString(), any());
         assertEquals(STATUS_ID_NB_ADD_OK, statusCaptor.getValue().getId());
         assertEquals(PROCESS_ADDRESS, statusCaptor.getValue().getProcess());
     }
@@ -86,15 +87,14 @@ class CreateAddressTest extends ServiceTest {
 
         when(nonBusinessIdManagement.getNonBusinessIdDatatypeFromNonBusinessId(NON_BUSINESS_ID_VALID))
                 .thenReturn(mockDatatype);
-        when(dao.getDepartments()).thenReturn(departmentsMap);
+        when(departmentCatalog.getDepartments()).thenReturn(departmentsMap);
         when(addressUtil.getAddressDatatypeFromAddress(address, departmentsMap))
                 .thenReturn(addressDatatype);
 
         nonBusinessesApiService.createAddress(NON_BUSINESS_ID_VALID, address);
 
         verify(dao).createAddress(mockDatatype, addressDatatype);
-        verify(dao).updateStatus(mockDatatype, STATUS_ID_NB_ADD_OK);
-        verify(dao).auditStatusChange(eq(mockDatatype), any(Status.class));
+        verify(dao).updateStatusAndAudit(eq(mockDatatype), eq(STATUS_ID_NB_ADD_OK), any(Status.class));
     }
 
     @Test
@@ -104,7 +104,7 @@ class CreateAddressTest extends ServiceTest {
 
         when(nonBusinessIdManagement.getNonBusinessIdDatatypeFromNonBusinessId(NON_BUSINESS_ID_VALID))
                 .thenReturn(mockDatatype);
-        when(dao.getDepartments()).thenReturn(departmentsMap);
+        when(departmentCatalog.getDepartments()).thenReturn(departmentsMap);
         when(addressUtil.getAddressDatatypeFromAddress(address, departmentsMap))
                 .thenReturn(addressDatatype);
 
@@ -129,10 +129,9 @@ class CreateAddressTest extends ServiceTest {
         assertEquals("Decryption error", ex.getInternalMessage());
         assertSame(caasException, ex.getCause());
 
-        verify(dao, times(1)).getDepartments();
+        verify(departmentCatalog, times(1)).getDepartments();
         verify(dao, never()).createAddress(any(), any());
-        verify(dao, never()).updateStatus(any(), anyString());
-        verify(dao, never()).auditStatusChange(any(), any());
+        verify(dao, never()).updateStatusAndAudit(any(), anyString(), any());
     }
 
     @Test
@@ -142,7 +141,7 @@ class CreateAddressTest extends ServiceTest {
 
         RuntimeException departmentsException = new RuntimeException(ERROR_DATABASE);
 
-        when(dao.getDepartments()).thenThrow(departmentsException);
+        when(departmentCatalog.getDepartments()).thenThrow(departmentsException);
 
         RuntimeException ex = assertThrows(RuntimeException.class,
                 () -> nonBusinessesApiService.createAddress(NON_BUSINESS_ID_VALID, address));
@@ -151,8 +150,7 @@ class CreateAddressTest extends ServiceTest {
 
         verify(addressUtil, never()).getAddressDatatypeFromAddress(any(), any());
         verify(dao, never()).createAddress(any(), any());
-        verify(dao, never()).updateStatus(any(), anyString());
-        verify(dao, never()).auditStatusChange(any(), any());
+        verify(dao, never()).updateStatusAndAudit(any(), anyString(), any());
     }
 
     @Test
@@ -161,7 +159,7 @@ class CreateAddressTest extends ServiceTest {
         Address address = createAddress();
 
         RuntimeException conversionException = new RuntimeException(ERROR_CONVERSION);
-        when(dao.getDepartments()).thenReturn(departmentsMap);
+        when(departmentCatalog.getDepartments()).thenReturn(departmentsMap);
         when(addressUtil.getAddressDatatypeFromAddress(address, departmentsMap))
                 .thenThrow(conversionException);
 
@@ -171,8 +169,7 @@ class CreateAddressTest extends ServiceTest {
         assertSame(conversionException, ex);
 
         verify(dao, never()).createAddress(any(), any());
-        verify(dao, never()).updateStatus(any(), anyString());
-        verify(dao, never()).auditStatusChange(any(), any());
+        verify(dao, never()).updateStatusAndAudit(any(), anyString(), any());
     }
 
     @Test
@@ -183,7 +180,7 @@ class CreateAddressTest extends ServiceTest {
         RuntimeException daoException = new RuntimeException(ERROR_DAO);
         when(nonBusinessIdManagement.getNonBusinessIdDatatypeFromNonBusinessId(NON_BUSINESS_ID_VALID))
                 .thenReturn(mockDatatype);
-        when(dao.getDepartments()).thenReturn(departmentsMap);
+        when(departmentCatalog.getDepartments()).thenReturn(departmentsMap);
         when(addressUtil.getAddressDatatypeFromAddress(address, departmentsMap))
                 .thenReturn(addressDatatype);
         doThrow(daoException).when(dao).createAddress(mockDatatype, addressDatatype);
@@ -193,8 +190,7 @@ class CreateAddressTest extends ServiceTest {
 
         assertSame(daoException, ex);
 
-        verify(dao, never()).updateStatus(any(), anyString());
-        verify(dao, never()).auditStatusChange(any(), any());
+        verify(dao, never()).updateStatusAndAudit(any(), anyString(), any());
     }
 
     @Test
@@ -205,10 +201,10 @@ class CreateAddressTest extends ServiceTest {
         RuntimeException statusException = new RuntimeException(ERROR_UPDATE_STATUS);
         when(nonBusinessIdManagement.getNonBusinessIdDatatypeFromNonBusinessId(NON_BUSINESS_ID_VALID))
                 .thenReturn(mockDatatype);
-        when(dao.getDepartments()).thenReturn(departmentsMap);
+        when(departmentCatalog.getDepartments()).thenReturn(departmentsMap);
         when(addressUtil.getAddressDatatypeFromAddress(address, departmentsMap))
                 .thenReturn(addressDatatype);
-        doThrow(statusException).when(dao).updateStatus(mockDatatype, STATUS_ID_NB_ADD_OK);
+        doThrow(statusException).when(dao).updateStatusAndAudit(eq(mockDatatype), eq(STATUS_ID_NB_ADD_OK), any(Status.class));
 
         RuntimeException ex = assertThrows(RuntimeException.class,
                 () -> nonBusinessesApiService.createAddress(NON_BUSINESS_ID_VALID, address));
@@ -219,28 +215,6 @@ class CreateAddressTest extends ServiceTest {
         verify(dao, never()).auditStatusChange(any(), any());
     }
 
-    @Test
-    @DisplayName("Error al auditar cambio de estado: propaga excepción")
-    void createAddress_auditStatusChangeError_propagatesException() throws Exception {
-        Address address = createAddress();
-        RuntimeException auditException = new RuntimeException(ERROR_AUDIT);
-
-        when(nonBusinessIdManagement.getNonBusinessIdDatatypeFromNonBusinessId(NON_BUSINESS_ID_VALID))
-                .thenReturn(mockDatatype);
-        when(dao.getDepartments()).thenReturn(departmentsMap);
-        when(addressUtil.getAddressDatatypeFromAddress(address, departmentsMap))
-                .thenReturn(addressDatatype);
-        doThrow(auditException).when(dao).auditStatusChange(eq(mockDatatype), any(Status.class));
-
-        RuntimeException ex = assertThrows(RuntimeException.class,
-                () -> nonBusinessesApiService.createAddress(NON_BUSINESS_ID_VALID, address));
-
-        assertSame(auditException, ex);
-
-        verify(dao).createAddress(mockDatatype, addressDatatype);
-        verify(dao).updateStatus(mockDatatype, STATUS_ID_NB_ADD_OK);
-    }
-
     @Test
     @DisplayName("Dirección con campos mínimos: crea dirección correctamente")
     void createAddress_withMinimalFields_createsSuccessfully() throws Exception {
@@ -248,15 +222,14 @@ class CreateAddressTest extends ServiceTest {
 
         when(nonBusinessIdManagement.getNonBusinessIdDatatypeFromNonBusinessId(NON_BUSINESS_ID_VALID))
                 .thenReturn(mockDatatype);
-        when(dao.getDepartments()).thenReturn(departmentsMap);
+        when(departmentCatalog.getDepartments()).thenReturn(departmentsMap);
         when(addressUtil.getAddressDatatypeFromAddress(address, departmentsMap))
                 .thenReturn(addressDatatype);
 
         nonBusinessesApiService.createAddress(NON_BUSINESS_ID_VALID, address);
 
         verify(dao).createAddress(mockDatatype, addressDatatype);
-        verify(dao).updateStatus(mockDatatype, STATUS_ID_NB_ADD_OK);
-        verify(dao).auditStatusChange(eq(mockDatatype), any(Status.class));
+        verify(dao).updateStatusAndAudit(eq(mockDatatype), eq(STATUS_ID_NB_ADD_OK), any(Status.class));
     }
 
     @Test
@@ -267,7 +240,7 @@ class CreateAddressTest extends ServiceTest {
 
         when(nonBusinessIdManagement.getNonBusinessIdDatatypeFromNonBusinessId(NON_BUSINESS_ID_VALID))
                 .thenReturn(mockDatatype);
-        when(dao.getDepartments()).thenReturn(emptyMap);
+        when(departmentCatalog.getDepartments()).thenReturn(emptyMap);
         when(addressUtil.getAddressDatatypeFromAddress(address, emptyMap))
                 .thenReturn(addressDatatype);
 
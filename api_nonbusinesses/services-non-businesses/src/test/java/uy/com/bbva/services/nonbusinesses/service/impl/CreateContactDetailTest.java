@@ -50,10 +50,11 @@ class CreateContactDetailTest extends ServiceTest
 
         nonBusinessesApiService.createContactDetail(nonBusinessId, body);
 
-        verify(dao).updatePersonMail(datatype, emailAddress);
-        verify(dao).updateBusinessMail(datatype, emailAddress);
-        verify(dao).updateStatus(datatype, STATUS_ID_NB_CNT_OK);
-        verify(dao).auditStatusChange(eq(datatype), any());
+        verify(dao).updateContactMail(datatype, emailAddress);
+        verify(dao, never()).updatePersonMail(any(), anyString());
+        verify(dao, never()).updateBusinessMail(any(), anyString());
+        verify(dao).updateStatusAndAudit(eq(datatype), eq(STATUS_ID_NB_CNT_OK), argThat(status -> "NB_CNTE_OK".equals(status.getId())));
+        verify(dao, never()).auditStatusChange(any(), any());
     }
 
     @Test
@@ -74,10 +75,11 @@ class CreateContactDetailTest extends ServiceTest
 
         nonBusinessesApiService.createContactDetail(nonBusinessId, body);
 
-        verify(dao).updatePersonMobile(datatype, phoneNumber);
-        verify(dao).updateBusinessMobile(datatype, phoneNumber);
-        verify(dao).updateStatus(datatype, STATUS_ID_NB_CNT_OK);
-        verify(dao).auditStatusChange(eq(datatype), any());
+        verify(dao).updateContactMobile(datatype, phoneNumber);
+        verify(dao, never()).updatePersonMobile(any(), anyString());
+        verify(dao, never()).updateBusinessMobile(any(), anyString());
+        verify(dao).updateStatusAndAudit(eq(datatype), eq(STATUS_ID_NB_CNT_OK), argThat(status -> "NB_CNTM_OK".equals(status.getId())));
+        verify(dao, never()).auditStatusChange(any(), any());
     }
 
     @Test
@@ -99,9 +101,10 @@ class CreateContactDetailTest extends ServiceTest
 
         nonBusinessesApiService.createContactDetail(nonBusinessId, body);
 
-        verify(dao).updatePersonMail(datatype, emailAddress);
-        verify(dao).updateBusinessMail(datatype, emailAddress);
-        verify(dao).updateStatus(datatype, STATUS_ID_NB_CNT_OK);
+        verify(dao).updateContactMail(datatype, emailAddress);
+        verify(dao, never()).updatePersonMail(any(), anyString());
+        verify(dao, never()).updateBusinessMail(any(), anyString());
+        verify(dao).updateStatusAndAudit(eq(datatype), eq(STATUS_ID_NB_CNT_OK), any());
     }
 
     @Test
@@ -121,11 +124,9 @@ class CreateContactDetailTest extends ServiceTest
 
         nonBusinessesApiService.createContactDetail(nonBusinessId, body);
 
-        verify(dao, never()).updatePersonMail(any(), anyString());
-        verify(dao, never()).updateBusinessMail(any(), anyString());
-        verify(dao, never()).updatePersonMobile(any(), anyString());
-        verify(dao, never()).updateBusinessMobile(any(), anyString());
-        verify(dao, never()).updateStatus(any(), anyString());
+        verify(dao, never()).updateContactMail(any(), anyString());
+        verify(dao, never()).updateContactMobile(any(), anyString());
+        verify(dao, never()).updateStatusAndAudit(any(), anyString(), any());
     }
 
     @Test
@@ -149,8 +150,7 @@ class CreateContactDetailTest extends ServiceTest
         assertEquals("EMPTY_MAIL", ex.getInternCode());
         assertEquals("Email is required", ex.getMessage());
 
-        verify(dao, never()).updatePersonMail(any(), anyString());
-        verify(dao, never()).updateBusinessMail(any(), anyString());
+        verify(dao, never()).updateContactMail(any(), anyString());
     }
 
     @Test
@@ -175,8 +175,7 @@ class CreateContactDetailTest extends ServiceTest
         assertEquals("INVALID_MAIL_PATTERN", ex.getInternCode());
         assertEquals("Invalid mail", ex.getMessage());
 
-        verify(dao, never()).updatePersonMail(any(), anyString());
-        verify(dao, never()).updateBusinessMail(any(), anyString());
+        verify(dao, never()).updateContactMail(any(), anyString());
     }
 
     @Test
@@ -201,8 +200,7 @@ class CreateContactDetailTest extends ServiceTest
 
         assertEquals("NON_BUSINESS_SEARCH_ERROR_DGI_NOMBRE_NO_CORRESPONDE_PF", ex.getInternCode());
 
-        verify(dao, never()).updatePersonMail(any(), anyString());
-        verify(dao, never()).updateBusinessMail(any(), anyString());
+        verify(dao, never()).updateContactMail(any(), anyString());
         verify(dao).auditStatusChange(eq(datatype), any());
     }
 
@@ -227,8 +225,7 @@ class CreateContactDetailTest extends ServiceTest
         assertEquals("EMPTY_MOBILE", ex.getInternCode());
         assertEquals("Cellphone is required", ex.getMessage());
 
-        verify(dao, never()).updatePersonMobile(any(), anyString());
-        verify(dao, never()).updateBusinessMobile(any(), anyString());
+        verify(dao, never()).updateContactMobile(any(), anyString());
     }
 
     @Test
@@ -253,8 +250,7 @@ class CreateContactDetailTest extends ServiceTest
         assertEquals("INVALID_MOBILE_PATTERN", ex.getInternCode());
         assertEquals("Invalid cellphone", ex.getMessage());
 
-        verify(dao, never()).updatePersonMobile(any(), anyString());
-        verify(dao, never()).updateBusinessMobile(any(), anyString());
+        verify(dao, never()).updateContactMobile(any(), anyString());
     }
 
     @Test
@@ -278,8 +274,7 @@ class CreateContactDetailTest extends ServiceTest
         assertEquals(ERROR_DECRYPTION, ex.getInternalMessage());
         assertSame(caasException, ex.getCause());
 
-        verify(dao, never()).updatePersonMail(any(), anyString());
-        verify(dao, never()).updateBusinessMail(any(), anyString());
+        verify(dao, never()).updateContactMail(any(), anyString());
     }
 
     @Test
@@ -4,6 +4,7 @@ import com.bbva.secarq.caas2.core.exception.CaasException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -47,9 +48,12 @@ class PatchNonBusinessTest extends ServiceTest {
 
         nonBusinessesApiService.patchNonBusiness(nonBusinessId, nonBusiness);
 
-        verify(dao).updateBusinessCommercialName(datatype, "Test Business S.A.");
-        verify(dao).updateBusinessBankBranch(datatype, "001");
-        verify(dao).updateBusinessFormationData(eq(datatype), eq(nonBusiness.getFormation()), any(LegalDocument.class));
+        BusinessPatch patch = capturePatch(datatype);
+        assertEquals("Test Business S.A.", patch.getCommercialName());
+        assertEquals("001", patch.getBankBranch());
+        assertSame(nonBusiness.getFormation(), patch.getFormation());
+        assertNotNull(patch.getLegalDocument());
+        verifyNoSingleColumnUpdates();
         verify(dao).createTemporaryPassword(datatype, nonBusiness.getUser());
     }
 
@@ -66,9 +70,10 @@ class PatchNonBusinessTest extends ServiceTest {
 
         nonBusinessesApiService.patchNonBusiness(nonBusinessId, nonBusiness);
 
-        verify(dao).updateBusinessCommercialName(datatype, "Solo Nombre");
-        verify(dao, never()).updateBusinessBankBranch(any(), anyString());
-        verify(dao, never()).updateBusinessFormationData(any(), any(), any());
+        BusinessPatch patch = capturePatch(datatype);
+        assertEquals("Solo Nombre", patch.getCommercialName());
+        assertNull(patch.getBankBranch());
+        assertNull(patch.getFormation());
         verify(dao, never()).createTemporaryPassword(any(), any());
     }
 
@@ -89,9 +94,10 @@ class PatchNonBusinessTest extends ServiceTest {
 
         nonBusinessesApiService.patchNonBusiness(nonBusinessId, nonBusiness);
 
-        verify(dao).updateBusinessBankBranch(datatype, "002");
-        verify(dao, never()).updateBusinessCommercialName(any(), anyString());
-        verify(dao, never()).updateBusinessFormationData(any(), any(), any());
+        BusinessPatch patch = capturePatch(datatype);
+        assertEquals("002", patch.getBankBranch());
+        assertNull(patch.getCommercialName());
+        assertNull(patch.getFormation());
         verify(dao, never()).createTemporaryPassword(any(), any());
     }
 
@@ -117,9 +123,11 @@ class PatchNonBusinessTest extends ServiceTest {
 
         nonBusinessesApiService.patchNonBusiness(nonBusinessId, nonBusiness);
 
-        verify(dao).updateBusinessFormationData(datatype, formation, bpsDoc);
-        verify(dao, never()).updateBusinessCommercialName(any(), anyString());
-        verify(dao, never()).updateBusinessBankBranch(any(), anyString());
+        BusinessPatch patch = capturePatch(datatype);
+        assertSame(formation, patch.getFormation());
+        assertSame(bpsDoc, patch.getLegalDocument());
+        assertNull(patch.getCommercialName());
+        assertNull(patch.getBankBranch());
         verify(dao, never()).createTemporaryPassword(any(), any());
     }
 
@@ -143,9 +151,7 @@ class PatchNonBusinessTest extends ServiceTest {
 
         nonBusinessesApiService.patchNonBusiness(nonBusinessId, nonBusiness);
 
-        verify(dao, never()).updateBusinessFormationData(any(), any(), any());
-        verify(dao, never()).updateBusinessCommercialName(any(), anyString());
-        verify(dao, never()).updateBusinessBankBranch(any(), anyString());
+        verify(dao, never()).patchBusiness(any(), any());
         verify(dao, never()).createTemporaryPassword(any(), any());
     }
 
@@ -166,9 +172,7 @@ class PatchNonBusinessTest extends ServiceTest {
         nonBusinessesApiService.patchNonBusiness(nonBusinessId, nonBusiness);
 
         verify(dao).createTemporaryPassword(datatype, user);
-        verify(dao, never()).updateBusinessCommercialName(any(), anyString());
-        verify(dao, never()).updateBusinessBankBranch(any(), anyString());
-        verify(dao, never()).updateBusinessFormationData(any(), any(), any());
+        verify(dao, never()).patchBusiness(any(), any());
     }
 
     @Test
@@ -184,7 +188,7 @@ class PatchNonBusinessTest extends ServiceTest {
 
         nonBusinessesApiService.patchNonBusiness(nonBusinessId, nonBusiness);
 
-        verify(dao, never()).updateBusinessCommercialName(any(), anyString());
+        verify(dao, never()).patchBusiness(any(), any());
     }
 
     @Test
@@ -202,7 +206,7 @@ class PatchNonBusinessTest extends ServiceTest {
 
         nonBusinessesApiService.patchNonBusiness(nonBusinessId, nonBusiness);
 
-        verify(dao, never()).updateBusinessBankBranch(any(), anyString());
+        verify(dao, never()).patchBusiness(any(), any());
     }
 
     @Test
@@ -221,7 +225,7 @@ class PatchNonBusinessTest extends ServiceTest {
         assertThrows(NullPointerException.class,
                 () -> nonBusinessesApiService.patchNonBusiness(nonBusinessId, nonBusiness));
 
-        verify(dao, never()).updateBusinessFormationData(any(), any(), any());
+        verify(dao, never()).patchBusiness(any(), any());
     }
 
     @Test
@@ -241,7 +245,7 @@ class PatchNonBusinessTest extends ServiceTest {
         assertEquals(ERROR_DECRYPTION, ex.getInternalMessage());
         assertSame(caasException, ex.getCause());
 
-        verify(dao, never()).updateBusinessCommercialName(any(), anyString());
+        verify(dao, never()).patchBusiness(any(), any());
     }
 
     @Test
@@ -256,9 +260,19 @@ class PatchNonBusinessTest extends ServiceTest {
 
         nonBusinessesApiService.patchNonBusiness(nonBusinessId, nonBusiness);
 
+        verify(dao, never()).patchBusiness(any(), any());
+        verify(dao, never()).createTemporaryPassword(any(), any());
+    }
+
+    private BusinessPatch capturePatch(NonBusinessIdDatatype datatype) throws Exception {
+        ArgumentCaptor<BusinessPatch> patchCaptor = ArgumentCaptor.forClass(BusinessPatch.class);
+        verify(dao, times(1)).patchBusiness(eq(datatype), patchCaptor.capture());
+        return patchCaptor.getValue();
+    }
+
+    private void verifyNoSingleColumnUpdates() throws Exception {
         verify(dao, never()).updateBusinessCommercialName(any(), anyString());
         verify(dao, never()).updateBusinessBankBranch(any(), anyString());
         verify(dao, never()).updateBusinessFormationData(any(), any(), any());
-        verify(dao, never()).createTemporaryPassword(any(), any());
     }
-}
\ No newline at end of file
+}
@@ -15,6 +15,8 @@ import uy.com.bbva.services.commons.exceptions.BusinessException;
 import uy.com.bbva.services.nonbusinesses.dao.DAO;
 import uy.com.bbva.services.nonbusinesses.model.status.Status;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static uy.com.bbva.dtos.commons.utils.Constants.RUT_DOCUMENT_TYPE;
@@ -33,7 +35,7 @@ class PostNonBusinessTest {
     private NonBusinessesApiServiceImpl nonBusinessesApiService;
 
     @Test
-    @DisplayName("Final state: lanza BusinessException y no llama a DAO.createNonBusiness")
+    @DisplayName("Final state: lanza BusinessException y no llama a DAO.createNonBusinessUnless")
     void postNonBusiness_finalState_throwsBusinessException() throws Exception {
         String rut = "001100110011";
         String documento = "43219876";
@@ -55,7 +57,7 @@ class PostNonBusinessTest {
 
         assertEquals("NB_ESI_ERR", statusCaptor.getValue().getId());
 
-        verify(dao, never()).createNonBusiness(anyString(), anyString(), anyString());
+        verify(dao, never()).createNonBusinessUnless(anyString(), anyString(), anyString(), anyCollection());
         verify(dao, times(1)).getStatus(documento, rut);
     }
 
@@ -68,6 +70,7 @@ class PostNonBusinessTest {
         String expectedId = "NBID-abc-123";
 
         when(dao.getStatus(ownerDocument, rut)).thenReturn("");
+        when(dao.createNonBusinessUnless(rut, ownerDocument, cellphone, List.of("PROCESADO", "ANULADO"))).thenReturn(true);
 
         ArgumentCaptor<NonBusinessIdDatatype> datatypeCaptor =
                 ArgumentCaptor.forClass(NonBusinessIdDatatype.class);
@@ -80,7 +83,7 @@ class PostNonBusinessTest {
         assertEquals(expectedId, result);
 
         verify(dao, times(1)).getStatus(ownerDocument, rut);
-        verify(dao, times(1)).createNonBusiness(rut, ownerDocument, cellphone);
+        verify(dao, times(1)).createNonBusinessUnless(rut, ownerDocument, cellphone, List.of("PROCESADO", "ANULADO"));
 
         ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
         verify(dao, times(1)).auditStatusChange(any(NonBusinessIdDatatype.class), statusCaptor.capture());
@@ -109,6 +112,8 @@ class PostNonBusinessTest {
         String expectedId = "NBID-abc-123";
 
         when(dao.getStatus(ownerDocument, rut)).thenReturn("INGRESO");
+        when(dao.createNonBusinessUnless(eq(rut), eq(ownerDocument), eq(cellphone), anyCollection())).thenReturn(true);
+        when(dao.updateStatusIf(any(NonBusinessIdDatatype.class), eq("RETOMA"), anyList())).thenReturn(true);
         when(nonBusinessIdManagement.getNonBusinessIdFromNonBusinessIdDatatype(any()))
                 .thenReturn(expectedId);
 
@@ -116,14 +121,57 @@ class PostNonBusinessTest {
 
         assertEquals(expectedId, result);
 
-        verify(dao, times(1)).updateStatus(any(NonBusinessIdDatatype.class), eq("RETOMA"));
-        verify(dao, times(1)).createNonBusiness(rut, ownerDocument, cellphone);
+        verify(dao, times(1)).updateStatusIf(any(NonBusinessIdDatatype.class), eq("RETOMA"), eq(List.of("INGRESO", "RETOMA")));
+        verify(dao, never()).updateStatus(any(), anyString());
+        verify(dao, times(1)).createNonBusinessUnless(eq(rut), eq(ownerDocument), eq(cellphone), anyCollection());
 
         ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
         verify(dao, times(1)).auditStatusChange(any(NonBusinessIdDatatype.class), statusCaptor.capture());
         assertEquals("RETOMA", statusCaptor.getValue().getId());
     }
 
+    @Test
+    @DisplayName("Final state concurrente: lanza BusinessException cuando el estado paso a final antes del alta")
+    void postNonBusiness_finalStateReachedBeforeCreate_throwsBusinessException() throws Exception {
+        String rut = "123456789";
+        String ownerDocument = "43219876";
+        String cellphone = "099111222";
+
+        when(dao.getStatus(ownerDocument, rut)).thenReturn("");
+        when(dao.createNonBusinessUnless(rut, ownerDocument, cellphone, List.of("PROCESADO", "ANULADO"))).thenReturn(false);
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> nonBusinessesApiService.postNonBusiness(rut, ownerDocument, cellphone));
+
+        assertEquals("NON_BUSINESS_POST_USER_ON_FINAL_STATE", ex.getInternCode());
+        ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
+        verify(dao, times(1)).auditStatusChange(any(NonBusinessIdDatatype.class), statusCaptor.capture());
+        assertEquals("NB_ESI_ERR", statusCaptor.getValue().getId());
+        verify(dao, never()).createNonBusiness(anyString(), anyString(), anyString());
+        verify(nonBusinessIdManagement, never()).getNonBusinessIdFromNonBusinessIdDatatype(any());
+    }
+
+    @Test
+    @DisplayName("Resume state: lanza BusinessException cuando otro pedido cambio el estado antes de retomar")
+    void postNonBusiness_resumeState_concurrentChange_throwsBusinessException() throws Exception {
+        String rut = "123456789";
+        String ownerDocument = "43219876";
+        String cellphone = "099111222";
+
+        when(dao.getStatus(ownerDocument, rut)).thenReturn("INGRESO");
+        when(dao.createNonBusinessUnless(eq(rut), eq(ownerDocument), eq(cellphone), anyCollection())).thenReturn(true);
+        when(dao.updateStatusIf(any(NonBusinessIdDatatype.class), eq("RETOMA"), anyList())).thenReturn(false);
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> nonBusinessesApiService.postNonBusiness(rut, ownerDocument, cellphone));
+
+        assertEquals("NON_BUSINESS_POST_INVALID_CURRENT_STATUS", ex.getInternCode());
+        ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
+        verify(dao, times(1)).auditStatusChange(any(NonBusinessIdDatatype.class), statusCaptor.capture());
+        assertEquals("NB_ESI_ERR", statusCaptor.getValue().getId());
+        verify(nonBusinessIdManagement, never()).getNonBusinessIdFromNonBusinessIdDatatype(any());
+    }
+
     @Test
     @DisplayName("Validación de RUT: lanza BusinessException cuando el RUT no es numérico")
     void postNonBusiness_invalidRut_throwsBusinessException() throws Exception {
@@ -138,7 +186,7 @@ class PostNonBusinessTest {
 
         assertEquals("NON_BUSINESS_POST_RUT_NOT_NUMERIC", ex.getInternCode());
         verify(dao, never()).getStatus(anyString(), anyString());
-        verify(dao, never()).createNonBusiness(anyString(), anyString(), anyString());
+        verify(dao, never()).createNonBusinessUnless(anyString(), anyString(), anyString(), anyCollection());
     }
 
     @Test
@@ -155,6 +203,6 @@ class PostNonBusinessTest {
 
         assertEquals("NON_BUSINESS_POST_CI_NOT_NUMERIC", ex.getInternCode());
         verify(dao, never()).getStatus(anyString(), anyString());
-        verify(dao, never()).createNonBusiness(anyString(), anyString(), anyString());
+        verify(dao, never()).createNonBusinessUnless(anyString(), anyString(), anyString(), anyCollection());
     }
 }
\ No newline at end of file
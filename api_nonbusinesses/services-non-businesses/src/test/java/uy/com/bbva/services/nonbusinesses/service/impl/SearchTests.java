@@ -1,5 +1,6 @@
 package uy.com.bbva.services.nonbusinesses.service.impl;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,13 +16,29 @@ import uy.com.bbva.logcommons.log.utils.LogUtils;
 import uy.com.bbva.nonbusinessescommons.idmanagement.datatypes.NonBusinessIdDatatype;
 import uy.com.bbva.services.commons.exceptions.BusinessException;
 import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.dao.As400ConnectionLease;
 import uy.com.bbva.services.nonbusinesses.dao.DAO;
+import uy.com.bbva.services.nonbusinesses.dao.RequestDeadline;
 import uy.com.bbva.services.nonbusinesses.model.NonBusinessSearch;
+import uy.com.bbva.services.nonbusinesses.model.SearchPreCheck;
 import uy.com.bbva.services.nonbusinesses.model.external.BusinessInformation;
 import uy.com.bbva.services.nonbusinesses.model.status.Status;
-import uy.com.bbva.services.nonbusinesses.service.external.BusinessInformationService;
+import uy.com.bbva.services.nonbusinesses.service.utils.BlockingTaskExecutor;
+import uy.com.bbva.services.nonbusinesses.service.utils.BusinessInformationCache;
+import uy.com.bbva.services.nonbusinesses.service.utils.DGIUnavailableException;
 import uy.com.bbva.services.nonbusinesses.service.utils.validator.NameValidator;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -40,7 +57,7 @@ class SearchTests {
     private LogUtils logUtils;
 
     @Mock
-    private BusinessInformationService businessInformationService;
+    private BusinessInformationCache businessInformationCache;
 
     @Mock
     private NameValidator nameValidator;
@@ -51,12 +68,18 @@ class SearchTests {
     private NonBusinessSearch validSearch;
     private BusinessInformation validBusinessInfo;
     private RelatedPerson validOwner;
+    private BlockingTaskExecutor blockingTaskExecutor;
 
     private static final String ERROR_INVALID_USER_ID = "El user-id es invalido";
     private static final String ERROR_INVALID_STATE = "El estado actual no es el correcto";
     private static final String ERROR_DOCUMENT_MISMATCH = "Los documentos no coinciden";
     private static final String ERROR_DOCUMENT_NOT_ADMITTED = "El rut no corresponde a una empresa unipersonal";
     private static final String ERROR_EXPIRED_DGI_CERT = "La empresa tiene el certificado vencido en DGI";
+    private static final String ERROR_OWNER_NOT_FOUND = "No se encontraron los datos del dueño de la unipersonal";
+
+    private static final int LOAD_SEARCHES = 64;
+    private static final int LOAD_POOL_SIZE = 4;
+    private static final long LOAD_DGI_LATENCY_MS = 50;
 
     @BeforeEach
     void setUp() {
@@ -66,15 +89,21 @@ class SearchTests {
         validOwner = createRelatedPerson();
 
         ReflectionTestUtils.setField(service, "validateName", true);
+        lenient().when(dao.updateStatusUnless(any(NonBusinessIdDatatype.class), eq(STATUS_ID_DGI_OK), anyCollection())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (blockingTaskExecutor != null) {
+            blockingTaskExecutor.destroy();
+        }
     }
 
     @Test
     void search_Success_ReturnsDataList() throws Exception {
 
-        when(dao.checkIsClient(RUT_FROM_USER_ID)).thenReturn(false);
-        when(dao.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID)).thenReturn(STATUS_VALID);
-        when(businessInformationService.getBusinessInformation(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
-        when(dao.getOwner(any(NonBusinessIdDatatype.class))).thenReturn(validOwner);
+        stubPreCheck(false, STATUS_VALID, validOwner);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
         when(nameValidator.validate(validBusinessInfo.getName())).thenReturn(true);
         when(nameValidator.similarName(validOwner, validBusinessInfo.getName())).thenReturn(true);
 
@@ -121,7 +150,7 @@ class SearchTests {
 
     @Test
     void search_RutAlreadyClient_ThrowsBusinessException() throws Exception {
-        when(dao.checkIsClient(RUT_FROM_USER_ID)).thenReturn(true);
+        stubPreCheck(true, STATUS_EMPTY, null);
 
         assertThatThrownBy(() -> service.search(USER_ID_VALID, validSearch))
                 .isInstanceOf(BusinessException.class)
@@ -135,9 +164,7 @@ class SearchTests {
 
     @Test
     void search_StatusProcessado_ThrowsBusinessException() throws Exception {
-        when(dao.checkIsClient(RUT_FROM_USER_ID)).thenReturn(false);
-        when(dao.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID))
-                .thenReturn(STATUS_ID_PROCESADO);
+        stubPreCheck(false, STATUS_ID_PROCESADO, null);
 
         BusinessException ex = assertThrows(BusinessException.class,
                 () -> service.search(USER_ID_VALID, validSearch));
@@ -151,9 +178,7 @@ class SearchTests {
 
     @Test
     void search_StatusAnulado_ThrowsBusinessException() throws Exception {
-        when(dao.checkIsClient(RUT_FROM_USER_ID)).thenReturn(false);
-        when(dao.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID))
-                .thenReturn(STATUS_ID_ANULADO);
+        stubPreCheck(false, STATUS_ID_ANULADO, null);
 
         assertThatThrownBy(() -> service.search(USER_ID_VALID, validSearch))
                 .isInstanceOf(BusinessException.class)
@@ -162,9 +187,7 @@ class SearchTests {
 
     @Test
     void search_StatusIngreso_ThrowsBusinessException() throws Exception {
-        when(dao.checkIsClient(RUT_FROM_USER_ID)).thenReturn(false);
-        when(dao.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID))
-                .thenReturn(STATUS_ID_INGRESO);
+        stubPreCheck(false, STATUS_ID_INGRESO, null);
 
         assertThatThrownBy(() -> service.search(USER_ID_VALID, validSearch))
                 .isInstanceOf(BusinessException.class)
@@ -176,10 +199,8 @@ class SearchTests {
         BusinessInformation expiredInfo = createBusinessInformationWithExpiration(
                 CERTIFICATE_EXPIRATION_EXPIRED);
 
-        when(dao.checkIsClient(RUT_FROM_USER_ID)).thenReturn(false);
-        when(dao.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID))
-                .thenReturn(STATUS_VALID);
-        when(businessInformationService.getBusinessInformation(RUT_FROM_USER_ID))
+        stubPreCheck(false, STATUS_VALID, null);
+        when(businessInformationCache.get(RUT_FROM_USER_ID))
                 .thenReturn(expiredInfo);
 
         assertThatThrownBy(() -> service.search(USER_ID_VALID, validSearch))
@@ -193,9 +214,8 @@ class SearchTests {
 
     @Test
     void search_InvalidBusinessName_ThrowsBusinessException() throws Exception {
-        when(dao.checkIsClient(RUT_FROM_USER_ID)).thenReturn(false);
-        when(dao.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID)).thenReturn(STATUS_VALID);
-        when(businessInformationService.getBusinessInformation(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
+        stubPreCheck(false, STATUS_VALID, null);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
         when(nameValidator.validate(validBusinessInfo.getName())).thenReturn(false);
 
         assertThatThrownBy(() -> service.search(USER_ID_VALID, validSearch))
@@ -210,10 +230,8 @@ class SearchTests {
     @Test
     void search_NameNotSimilar_ThrowsBusinessException() throws Exception {
 
-        when(dao.checkIsClient(RUT_FROM_USER_ID)).thenReturn(false);
-        when(dao.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID)).thenReturn(STATUS_VALID);
-        when(businessInformationService.getBusinessInformation(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
-        when(dao.getOwner(any(NonBusinessIdDatatype.class))).thenReturn(validOwner);
+        stubPreCheck(false, STATUS_VALID, validOwner);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
         when(nameValidator.validate(validBusinessInfo.getName())).thenReturn(true);
         when(nameValidator.similarName(validOwner, validBusinessInfo.getName())).thenReturn(false);
 
@@ -229,9 +247,8 @@ class SearchTests {
     void search_ValidateNameFalse_SkipsNameValidations() throws Exception {
         ReflectionTestUtils.setField(service, "validateName", false);
 
-        when(dao.checkIsClient(RUT_FROM_USER_ID)).thenReturn(false);
-        when(dao.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID)).thenReturn(STATUS_VALID);
-        when(businessInformationService.getBusinessInformation(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
+        stubPreCheck(false, STATUS_VALID, null);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
 
         DataList result = service.search(USER_ID_VALID, validSearch);
 
@@ -245,10 +262,8 @@ class SearchTests {
         BusinessInformation infoWithInvalidDate = createBusinessInformationWithExpiration(
                 CERTIFICATE_EXPIRATION_INVALID_FORMAT);
 
-        when(dao.checkIsClient(RUT_FROM_USER_ID)).thenReturn(false);
-        when(dao.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID)).thenReturn(STATUS_VALID);
-        when(businessInformationService.getBusinessInformation(RUT_FROM_USER_ID)).thenReturn(infoWithInvalidDate);
-        when(dao.getOwner(any(NonBusinessIdDatatype.class))).thenReturn(validOwner);
+        stubPreCheck(false, STATUS_VALID, validOwner);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenReturn(infoWithInvalidDate);
         when(nameValidator.validate(anyString())).thenReturn(true);
         when(nameValidator.similarName(any(), anyString())).thenReturn(true);
 
@@ -259,10 +274,8 @@ class SearchTests {
 
     @Test
     void search_EmptyStatus_ContinuesSuccessfully() throws Exception {
-        when(dao.checkIsClient(RUT_FROM_USER_ID)).thenReturn(false);
-        when(dao.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID)).thenReturn(STATUS_EMPTY);
-        when(businessInformationService.getBusinessInformation(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
-        when(dao.getOwner(any(NonBusinessIdDatatype.class))).thenReturn(validOwner);
+        stubPreCheck(false, STATUS_EMPTY, validOwner);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
         when(nameValidator.validate(anyString())).thenReturn(true);
         when(nameValidator.similarName(any(), anyString())).thenReturn(true);
 
@@ -274,10 +287,8 @@ class SearchTests {
     @Test
     void search_UserIdWithWhitespace_TrimsAndProcesses() throws Exception {
 
-        when(dao.checkIsClient(RUT_FROM_USER_ID)).thenReturn(false);
-        when(dao.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID)).thenReturn(STATUS_VALID);
-        when(businessInformationService.getBusinessInformation(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
-        when(dao.getOwner(any(NonBusinessIdDatatype.class))).thenReturn(validOwner);
+        stubPreCheck(false, STATUS_VALID, validOwner);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
 
         when(nameValidator.validate(anyString())).thenReturn(true);
         when(nameValidator.similarName(any(), anyString())).thenReturn(true);
@@ -289,10 +300,8 @@ class SearchTests {
 
     @Test
     void search_Success_VerifiesStatusUpdateInteractions() throws Exception {
-        when(dao.checkIsClient(RUT_FROM_USER_ID)).thenReturn(false);
-        when(dao.getStatus(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID)).thenReturn(STATUS_VALID);
-        when(businessInformationService.getBusinessInformation(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
-        when(dao.getOwner(any(NonBusinessIdDatatype.class))).thenReturn(validOwner);
+        stubPreCheck(false, STATUS_VALID, validOwner);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
         when(nameValidator.validate(anyString())).thenReturn(true);
         when(nameValidator.similarName(any(), anyString())).thenReturn(true);
 
@@ -301,7 +310,9 @@ class SearchTests {
         ArgumentCaptor<NonBusinessIdDatatype> datatypeCaptor = ArgumentCaptor.forClass(NonBusinessIdDatatype.class);
         ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
 
-        verify(dao).updateStatus(datatypeCaptor.capture(), eq(STATUS_ID_DGI_OK));
+        verify(dao).updateStatusUnless(datatypeCaptor.capture(), eq(STATUS_ID_DGI_OK),
+                eq(List.of(STATUS_ID_PROCESADO, STATUS_ID_ANULADO, STATUS_ID_INGRESO, STATUS_ID_RETOMA)));
+        verify(dao, never()).updateStatus(any(), anyString());
         verify(dao).auditStatusChange(datatypeCaptor.capture(), statusCaptor.capture());
 
         NonBusinessIdDatatype capturedDatatype = datatypeCaptor.getValue();
@@ -313,6 +324,329 @@ class SearchTests {
         assertThat(capturedStatus.getProcess()).isEqualTo(PROCESS_SEARCH);
     }
 
+    @Test
+    void search_Success_UsesSinglePreCheckRoundTrip() throws Exception {
+        stubPreCheck(false, STATUS_VALID, validOwner);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
+        when(nameValidator.validate(anyString())).thenReturn(true);
+        when(nameValidator.similarName(any(), anyString())).thenReturn(true);
+
+        service.search(USER_ID_VALID, validSearch);
+
+        verify(dao).getSearchPreCheck(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID);
+        verify(dao, never()).checkIsClient(anyString());
+        verify(dao, never()).getStatus(anyString(), anyString());
+        verify(dao, never()).getOwner(any());
+    }
+
+    @Test
+    void search_DgiLookup_RunsOutsideAs400Lease() throws Exception {
+        final List<String> leaseStates = new java.util.ArrayList<>();
+        SearchPreCheck preCheck = new SearchPreCheck();
+        preCheck.setStatus(STATUS_VALID);
+        preCheck.setOwner(validOwner);
+        when(dao.getSearchPreCheck(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID)).thenAnswer(invocation -> {
+            leaseStates.add("preCheck:" + As400ConnectionLease.isActive());
+            return preCheck;
+        });
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenAnswer(invocation -> {
+            leaseStates.add("dgi:" + As400ConnectionLease.isActive());
+            return validBusinessInfo;
+        });
+        doAnswer(invocation -> leaseStates.add("update:" + As400ConnectionLease.isActive()))
+                .when(dao).updateBusinessInformation(validBusinessInfo);
+        when(nameValidator.validate(anyString())).thenReturn(true);
+        when(nameValidator.similarName(any(), anyString())).thenReturn(true);
+
+        service.search(USER_ID_VALID, validSearch);
+
+        assertThat(leaseStates).containsExactly("preCheck:true", "dgi:false", "update:true");
+        assertThat(As400ConnectionLease.isActive()).isFalse();
+    }
+
+    @Test
+    void search_OwnerNotFound_ThrowsServiceException() throws Exception {
+        stubPreCheck(false, STATUS_VALID, null);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
+        when(nameValidator.validate(validBusinessInfo.getName())).thenReturn(true);
+
+        ServiceException ex = assertThrows(ServiceException.class,
+                () -> service.search(USER_ID_VALID, validSearch));
+
+        assertEquals(ERROR_OWNER_NOT_FOUND, ex.getInternalMessage());
+        verify(nameValidator, never()).similarName(any(), anyString());
+        verify(dao, never()).updateStatusUnless(any(), anyString(), anyCollection());
+    }
+
+    @Test
+    void search_StatusChangedConcurrently_ThrowsBusinessException() throws Exception {
+        stubPreCheck(false, STATUS_VALID, validOwner);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
+        when(nameValidator.validate(anyString())).thenReturn(true);
+        when(nameValidator.similarName(any(), anyString())).thenReturn(true);
+        when(dao.updateStatusUnless(any(NonBusinessIdDatatype.class), eq(STATUS_ID_DGI_OK), anyCollection())).thenReturn(false);
+
+        assertThatThrownBy(() -> service.search(USER_ID_VALID, validSearch))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining(ERROR_INVALID_STATE);
+
+        verify(dao).auditStatusChange(any(NonBusinessIdDatatype.class), argThat(status ->
+                "NB_ESI_ERR".equals(status.getId()) && PROCESS_SEARCH.equals(status.getProcess())));
+        verify(dao, never()).auditStatusChange(any(NonBusinessIdDatatype.class), argThat(status -> STATUS_ID_DGI_OK.equals(status.getId())));
+    }
+
+    @Test
+    void search_EmptyStatusWithoutRow_WritesDgiOk() throws Exception {
+        stubPreCheck(false, STATUS_EMPTY, validOwner);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
+        when(nameValidator.validate(anyString())).thenReturn(true);
+        when(nameValidator.similarName(any(), anyString())).thenReturn(true);
+
+        DataList result = service.search(USER_ID_VALID, validSearch);
+
+        assertThat(result.getData()).hasSize(1);
+        verify(dao).updateStatusUnless(any(NonBusinessIdDatatype.class), eq(STATUS_ID_DGI_OK), anyCollection());
+        verify(dao).auditStatusChange(any(NonBusinessIdDatatype.class), argThat(status -> STATUS_ID_DGI_OK.equals(status.getId())));
+    }
+
+    @Test
+    void search_EmptyStatusChangedConcurrently_ThrowsBusinessException() throws Exception {
+        stubPreCheck(false, STATUS_EMPTY, validOwner);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenReturn(validBusinessInfo);
+        when(nameValidator.validate(anyString())).thenReturn(true);
+        when(nameValidator.similarName(any(), anyString())).thenReturn(true);
+        when(dao.updateStatusUnless(any(NonBusinessIdDatatype.class), eq(STATUS_ID_DGI_OK), anyCollection())).thenReturn(false);
+
+        assertThatThrownBy(() -> service.search(USER_ID_VALID, validSearch))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining(ERROR_INVALID_STATE);
+
+        verify(dao, never()).auditStatusChange(any(NonBusinessIdDatatype.class), argThat(status -> STATUS_ID_DGI_OK.equals(status.getId())));
+    }
+
+    @Test
+    void search_DgiUnavailable_AuditsDgiConnectionError() throws Exception {
+        stubPreCheck(false, STATUS_VALID, validOwner);
+        DGIUnavailableException unavailable = new DGIUnavailableException(DAO_CLASS_NAME, ERROR_EXECUTION, RUT_FROM_USER_ID, new TimeoutException());
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenThrow(unavailable);
+
+        ServiceException ex = assertThrows(ServiceException.class, () -> service.search(USER_ID_VALID, validSearch));
+
+        assertThat(ex).isSameAs(unavailable);
+        verify(dao).auditStatusChange(any(NonBusinessIdDatatype.class), argThat(status ->
+                "DGICNX_ERR".equals(status.getId()) && status.getMessage().endsWith(RUT_FROM_USER_ID)));
+    }
+
+    @Test
+    void search_ParallelDgiUnavailable_AuditsDgiConnectionError() throws Exception {
+        enableParallelDgiLookup();
+        stubPreCheck(false, STATUS_VALID, validOwner);
+        DGIUnavailableException unavailable = new DGIUnavailableException(DAO_CLASS_NAME, ERROR_EXECUTION, RUT_FROM_USER_ID, new TimeoutException());
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenThrow(unavailable);
+
+        ServiceException ex = assertThrows(ServiceException.class, () -> service.search(USER_ID_VALID, validSearch));
+
+        assertThat(ex).isSameAs(unavailable);
+        verify(dao).auditStatusChange(any(NonBusinessIdDatatype.class), argThat(status ->
+                "DGICNX_ERR".equals(status.getId()) && status.getMessage().endsWith(RUT_FROM_USER_ID)));
+    }
+
+    @Test
+    void search_DeadlineExpiredBeforeDgi_SkipsDgiCall() throws Exception {
+        ReflectionTestUtils.setField(service, "requestDeadlineMillis", 1L);
+        SearchPreCheck preCheck = new SearchPreCheck();
+        preCheck.setStatus(STATUS_VALID);
+        when(dao.getSearchPreCheck(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID)).thenAnswer(invocation -> {
+            while (RequestDeadline.remainingMillis() > 0) {
+                Thread.onSpinWait();
+            }
+            return preCheck;
+        });
+
+        ServiceException ex = assertThrows(ServiceException.class, () -> service.search(USER_ID_VALID, validSearch));
+
+        assertThat(ex.getCause()).isInstanceOf(TimeoutException.class);
+        verifyNoInteractions(businessInformationCache);
+        assertThat(RequestDeadline.isSet()).isFalse();
+    }
+
+    @Test
+    void search_ParallelDgiLookup_OverlapsPreCheckAndDgi() throws Exception {
+        enableParallelDgiLookup();
+        final CountDownLatch dgiStarted = new CountDownLatch(1);
+        final AtomicReference<String> dgiThread = new AtomicReference<>();
+        SearchPreCheck preCheck = new SearchPreCheck();
+        preCheck.setStatus(STATUS_VALID);
+        preCheck.setOwner(validOwner);
+        // El pre-chequeo solo termina cuando la consulta a DGI ya esta en curso
+        when(dao.getSearchPreCheck(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID)).thenAnswer(invocation -> {
+            assertThat(dgiStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return preCheck;
+        });
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenAnswer(invocation -> {
+            dgiThread.set(Thread.currentThread().getName());
+            dgiStarted.countDown();
+            return validBusinessInfo;
+        });
+        when(nameValidator.validate(validBusinessInfo.getName())).thenReturn(true);
+        when(nameValidator.similarName(validOwner, validBusinessInfo.getName())).thenReturn(true);
+
+        DataList result = service.search(USER_ID_VALID, validSearch);
+
+        assertThat(result.getData()).hasSize(1);
+        assertThat(dgiThread.get()).startsWith("nb-blocking-");
+        verify(dao).updateBusinessInformation(validBusinessInfo);
+    }
+
+    @Test
+    void search_ParallelDgiLookupRejected_LooksUpInline() throws Exception {
+        enableParallelDgiLookup(false, 1, 0);
+        final CountDownLatch occupied = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        blockingTaskExecutor.getExecutor().execute(() -> {
+            occupied.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(occupied.await(5, TimeUnit.SECONDS)).isTrue();
+        final AtomicReference<String> dgiThread = new AtomicReference<>();
+        stubPreCheck(false, STATUS_VALID, validOwner);
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenAnswer(invocation -> {
+            dgiThread.set(Thread.currentThread().getName());
+            return validBusinessInfo;
+        });
+        when(nameValidator.validate(validBusinessInfo.getName())).thenReturn(true);
+        when(nameValidator.similarName(validOwner, validBusinessInfo.getName())).thenReturn(true);
+
+        try {
+            DataList result = service.search(USER_ID_VALID, validSearch);
+
+            assertThat(result.getData()).hasSize(1);
+            assertThat(dgiThread.get()).isEqualTo(Thread.currentThread().getName());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void search_ParallelDgiLookupAlreadyClient_CancelsDgiLookup() throws Exception {
+        enableParallelDgiLookup();
+        final CountDownLatch dgiStarted = new CountDownLatch(1);
+        final CountDownLatch dgiInterrupted = new CountDownLatch(1);
+        SearchPreCheck preCheck = new SearchPreCheck();
+        preCheck.setClient(true);
+        when(dao.getSearchPreCheck(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID)).thenAnswer(invocation -> {
+            assertThat(dgiStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return preCheck;
+        });
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenAnswer(invocation -> {
+            dgiStarted.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                dgiInterrupted.countDown();
+            }
+            return validBusinessInfo;
+        });
+
+        assertThatThrownBy(() -> service.search(USER_ID_VALID, validSearch))
+                .isInstanceOf(BusinessException.class)
+                .extracting("internCode").isEqualTo("NON_BUSINESS_SEARCH_ERROR_ALREADY_CLIENT");
+
+        assertThat(dgiInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(dao).auditStatusChange(any(NonBusinessIdDatatype.class), argThat(status -> "NB_CLI_ERR".equals(status.getId())));
+        verify(dao, never()).updateBusinessInformation(any());
+    }
+
+    @Test
+    void search_ParallelDgiLookupUnderLoad_VirtualThreadsAreNotCappedByPlatformPool() throws Exception {
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        stubPreCheck(false, STATUS_VALID, validOwner);
+        // DGI bloquea el hilo como lo hace la llamada HTTP real
+        when(businessInformationCache.get(RUT_FROM_USER_ID)).thenAnswer(invocation -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(LOAD_DGI_LATENCY_MS);
+            } finally {
+                active.decrementAndGet();
+            }
+            return validBusinessInfo;
+        });
+        when(nameValidator.validate(validBusinessInfo.getName())).thenReturn(true);
+        when(nameValidator.similarName(validOwner, validBusinessInfo.getName())).thenReturn(true);
+
+        final long platformMillis = runConcurrentSearches(false);
+        final int platformPeak = peak.getAndSet(0);
+        final long virtualMillis = runConcurrentSearches(true);
+        final int virtualPeak = peak.get();
+
+        assertThat(platformPeak).isLessThanOrEqualTo(LOAD_POOL_SIZE);
+        if (blockingTaskExecutor.isVirtual()) {
+            assertThat(virtualPeak).isGreaterThan(LOAD_POOL_SIZE);
+            assertThat(virtualMillis).isLessThan(platformMillis);
+        }
+        verify(dao, times(2 * LOAD_SEARCHES)).updateBusinessInformation(validBusinessInfo);
+    }
+
+    // Lanza las busquedas a la vez desde hilos propios, como los del contenedor, y devuelve cuanto tardaron en total
+    private long runConcurrentSearches(final boolean virtualThreads) throws Exception {
+        if (blockingTaskExecutor != null) {
+            blockingTaskExecutor.destroy();
+        }
+        enableParallelDgiLookup(virtualThreads, LOAD_POOL_SIZE);
+        final ExecutorService callers = Executors.newFixedThreadPool(LOAD_SEARCHES);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<DataList>> searches = new ArrayList<>();
+            for (int i = 0; i < LOAD_SEARCHES; i++) {
+                searches.add(callers.submit(() -> {
+                    start.await();
+                    return service.search(USER_ID_VALID, validSearch);
+                }));
+            }
+            final long begin = System.nanoTime();
+            start.countDown();
+            for (final Future<DataList> search : searches) {
+                assertThat(search.get(30, TimeUnit.SECONDS).getData()).hasSize(1);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private void enableParallelDgiLookup() {
+        enableParallelDgiLookup(false, 2);
+    }
+
+    private void enableParallelDgiLookup(boolean virtualThreads, int platformPoolSize) {
+        enableParallelDgiLookup(virtualThreads, platformPoolSize, LOAD_SEARCHES);
+    }
+
+    private void enableParallelDgiLookup(boolean virtualThreads, int platformPoolSize, int platformQueueCapacity) {
+        blockingTaskExecutor = new BlockingTaskExecutor();
+        ReflectionTestUtils.setField(blockingTaskExecutor, "logUtils", logUtils);
+        ReflectionTestUtils.setField(blockingTaskExecutor, "virtualThreads", virtualThreads);
+        ReflectionTestUtils.setField(blockingTaskExecutor, "platformPoolSize", platformPoolSize);
+        ReflectionTestUtils.setField(blockingTaskExecutor, "platformQueueCapacity", platformQueueCapacity);
+        ReflectionTestUtils.setField(blockingTaskExecutor, "shutdownTimeoutMs", 1000L);
+        blockingTaskExecutor.afterPropertiesSet();
+        ReflectionTestUtils.setField(service, "blockingTaskExecutor", blockingTaskExecutor);
+        ReflectionTestUtils.setField(service, "parallelDgiLookup", true);
+    }
+
+    private void stubPreCheck(boolean client, String status, RelatedPerson owner) throws Exception {
+        SearchPreCheck preCheck = new SearchPreCheck();
+        preCheck.setClient(client);
+        preCheck.setStatus(status);
+        preCheck.setOwner(owner);
+        when(dao.getSearchPreCheck(OWNER_DOCUMENT_VALID, RUT_FROM_USER_ID)).thenReturn(preCheck);
+    }
+
     private void verifyBusinessException(BusinessException exception, String expectedMessagePart) {
         assertThat(exception.getInternCode())
                 .as("El código de excepción no coincide")
@@ -14,9 +14,9 @@ import uy.com.bbva.nonbusinessescommons.idmanagement.idmanagement.NonBusinessIdM
 import uy.com.bbva.services.commons.exceptions.ServiceException;
 import uy.com.bbva.services.nonbusinesses.dao.DAO;
 import uy.com.bbva.services.nonbusinesses.model.status.Status;
-import uy.com.bbva.services.nonbusinesses.service.external.BusinessInformationService;
 import uy.com.bbva.services.nonbusinesses.service.external.RisksService;
 import uy.com.bbva.services.nonbusinesses.service.utils.AddressUtils;
+import uy.com.bbva.services.nonbusinesses.service.utils.BusinessInformationCache;
 import uy.com.bbva.services.nonbusinesses.service.utils.validator.NameValidator;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,7 +33,7 @@ class UpdateTermsTest {
     private DAO dao;
 
     @Mock
-    private BusinessInformationService businessInformationService;
+    private BusinessInformationCache businessInformationCache;
 
     @Mock
     private NonBusinessIdManagement nonBusinessIdManagement;
@@ -63,7 +63,7 @@ class UpdateTermsTest {
         nonBusinessesApiService = new NonBusinessesApiServiceImpl();
 
         setField(nonBusinessesApiService, "dao", dao);
-        setField(nonBusinessesApiService, "businessInformationService", businessInformationService);
+        setField(nonBusinessesApiService, "businessInformationCache", businessInformationCache);
         setField(nonBusinessesApiService, "nonBusinessIdManagement", nonBusinessIdManagement);
         setField(nonBusinessesApiService, "addressUtil", addressUtil);
         setField(nonBusinessesApiService, "logUtils", logUtils);
@@ -91,7 +91,7 @@ class UpdateTermsTest {
         verify(dao).getTermVersion(termId);
 
         ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
-        verify(dao).auditStatusChange(eq(mockDatatype), statusCaptor.capture());
+        verify(dao).updateStatusAndAudit(eq(mockDatatype), eq("NB_TYC_OK"), statusCaptor.capture());
 
         Status capturedStatus = statusCaptor.getValue();
         assertEquals("NB_TYC_OK", capturedStatus.getId());
@@ -110,7 +110,7 @@ class UpdateTermsTest {
         nonBusinessesApiService.updateTerms(nonBusinessId, termId);
 
         ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
-        verify(dao).auditStatusChange(eq(mockDatatype), statusCaptor.capture());
+        verify(dao).updateStatusAndAudit(eq(mockDatatype), eq("NB_TYC_OK"), statusCaptor.capture());
 
         Status capturedStatus = statusCaptor.getValue();
         assertEquals("NB_TYC_OK", capturedStatus.getId());
@@ -127,7 +127,7 @@ class UpdateTermsTest {
         nonBusinessesApiService.updateTerms(nonBusinessId, termId);
 
         ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
-        verify(dao).auditStatusChange(eq(mockDatatype), statusCaptor.capture());
+        verify(dao).updateStatusAndAudit(eq(mockDatatype), eq("NB_TYC_OK"), statusCaptor.capture());
 
         Status capturedStatus = statusCaptor.getValue();
         assertEquals("Aceptacion del documento: TERMS_AND_CONDITIONS_V1, version: 0", capturedStatus.getMessage());
@@ -145,7 +145,7 @@ class UpdateTermsTest {
         nonBusinessesApiService.updateTerms(nonBusinessId, differentTermId);
 
         ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
-        verify(dao).auditStatusChange(eq(mockDatatype), statusCaptor.capture());
+        verify(dao).updateStatusAndAudit(eq(mockDatatype), eq("NB_TYC_OK"), statusCaptor.capture());
 
         Status capturedStatus = statusCaptor.getValue();
         assertEquals("Aceptacion del documento: PRIVACY_POLICY_V2, version: 1", capturedStatus.getMessage());
@@ -165,7 +165,7 @@ class UpdateTermsTest {
         assertSame(caasException, ex.getCause());
 
         verify(dao, never()).getTermVersion(anyString());
-        verify(dao, never()).auditStatusChange(any(), any());
+        verify(dao, never()).updateStatusAndAudit(any(), anyString(), any());
     }
 
     @Test
@@ -183,18 +183,18 @@ class UpdateTermsTest {
         assertSame(termVersionException, ex);
 
         verify(dao).getTermVersion(termId);
-        verify(dao, never()).auditStatusChange(any(), any());
+        verify(dao, never()).updateStatusAndAudit(any(), anyString(), any());
     }
 
     @Test
     @DisplayName("Error al auditar cambio de estado: propaga excepción")
-    void updateTerms_auditStatusChangeError_propagatesException() throws Exception {
+    void updateTerms_updateStatusAndAuditError_propagatesException() throws Exception {
         RuntimeException auditException = new RuntimeException("Audit error");
 
         when(nonBusinessIdManagement.getNonBusinessIdDatatypeFromNonBusinessId(nonBusinessId))
                 .thenReturn(mockDatatype);
         when(dao.getTermVersion(termId)).thenReturn(termVersion);
-        doThrow(auditException).when(dao).auditStatusChange(eq(mockDatatype), any(Status.class));
+        doThrow(auditException).when(dao).updateStatusAndAudit(eq(mockDatatype), eq("NB_TYC_OK"), any(Status.class));
 
         RuntimeException ex = assertThrows(RuntimeException.class,
                 () -> nonBusinessesApiService.updateTerms(nonBusinessId, termId));
@@ -202,7 +202,7 @@ class UpdateTermsTest {
         assertSame(auditException, ex);
 
         verify(dao).getTermVersion(termId);
-        verify(dao).auditStatusChange(eq(mockDatatype), any(Status.class));
+        verify(dao).updateStatusAndAudit(eq(mockDatatype), eq("NB_TYC_OK"), any(Status.class));
     }
 
     @Test
@@ -217,7 +217,7 @@ class UpdateTermsTest {
         nonBusinessesApiService.updateTerms(nonBusinessId, termId);
 
         ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
-        verify(dao).auditStatusChange(eq(mockDatatype), statusCaptor.capture());
+        verify(dao).updateStatusAndAudit(eq(mockDatatype), eq("NB_TYC_OK"), statusCaptor.capture());
 
         Status capturedStatus = statusCaptor.getValue();
         assertEquals("Aceptacion del documento: TERMS_AND_CONDITIONS_V1, version: -1", capturedStatus.getMessage());
@@ -235,7 +235,7 @@ class UpdateTermsTest {
         nonBusinessesApiService.updateTerms(nonBusinessId, emptyTermId);
 
         ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
-        verify(dao).auditStatusChange(eq(mockDatatype), statusCaptor.capture());
+        verify(dao).updateStatusAndAudit(eq(mockDatatype), eq("NB_TYC_OK"), statusCaptor.capture());
 
         Status capturedStatus = statusCaptor.getValue();
         assertEquals("Aceptacion del documento: , version: 1", capturedStatus.getMessage());
@@ -253,7 +253,7 @@ class UpdateTermsTest {
         nonBusinessesApiService.updateTerms(nonBusinessId, specialTermId);
 
         ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
-        verify(dao).auditStatusChange(eq(mockDatatype), statusCaptor.capture());
+        verify(dao).updateStatusAndAudit(eq(mockDatatype), eq("NB_TYC_OK"), statusCaptor.capture());
 
         Status capturedStatus = statusCaptor.getValue();
         assertEquals("Aceptacion del documento: TERMS_&_CONDITIONS_#1.0, version: 1", capturedStatus.getMessage());
@@ -270,7 +270,7 @@ class UpdateTermsTest {
         nonBusinessesApiService.updateTerms(nonBusinessId, "TERM_2");
 
         verify(nonBusinessIdManagement, times(2)).getNonBusinessIdDatatypeFromNonBusinessId(nonBusinessId);
-        verify(dao, times(2)).auditStatusChange(eq(mockDatatype), any(Status.class));
+        verify(dao, times(2)).updateStatusAndAudit(eq(mockDatatype), eq("NB_TYC_OK"), any(Status.class));
     }
 
     @Test
@@ -286,7 +286,7 @@ class UpdateTermsTest {
         nonBusinessesApiService.updateTerms(nonBusinessId, testTermId);
 
         ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
-        verify(dao).auditStatusChange(eq(mockDatatype), statusCaptor.capture());
+        verify(dao).updateStatusAndAudit(eq(mockDatatype), eq("NB_TYC_OK"), statusCaptor.capture());
 
         Status capturedStatus = statusCaptor.getValue();
         String expectedMessage = String.format("Aceptacion del documento: %s, version: %s", testTermId, testVersion);
@@ -303,7 +303,7 @@ class UpdateTermsTest {
                 () -> nonBusinessesApiService.updateTerms(null, termId));
 
         verify(dao, never()).getTermVersion(anyString());
-        verify(dao, never()).auditStatusChange(any(), any());
+        verify(dao, never()).updateStatusAndAudit(any(), anyString(), any());
     }
 
     @Test
@@ -316,7 +316,7 @@ class UpdateTermsTest {
         nonBusinessesApiService.updateTerms(nonBusinessId, null);
 
         ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
-        verify(dao).auditStatusChange(eq(mockDatatype), statusCaptor.capture());
+        verify(dao).updateStatusAndAudit(eq(mockDatatype), eq("NB_TYC_OK"), statusCaptor.capture());
 
         Status capturedStatus = statusCaptor.getValue();
         assertEquals("Aceptacion del documento: null, version: 1", capturedStatus.getMessage());
@@ -334,7 +334,7 @@ class UpdateTermsTest {
         var inOrder = inOrder(nonBusinessIdManagement, dao);
         inOrder.verify(nonBusinessIdManagement).getNonBusinessIdDatatypeFromNonBusinessId(nonBusinessId);
         inOrder.verify(dao).getTermVersion(termId);
-        inOrder.verify(dao).auditStatusChange(eq(mockDatatype), any(Status.class));
+        inOrder.verify(dao).updateStatusAndAudit(eq(mockDatatype), eq("NB_TYC_OK"), any(Status.class));
     }
 
     // Helpers
@@ -0,0 +1,102 @@
+package uy.com.bbva.services.nonbusinesses.service.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Suite de pruebas de BlockingTaskExecutor:")
+class BlockingTaskExecutorTest {
+
+    @InjectMocks
+    private BlockingTaskExecutor blockingTaskExecutor;
+
+    @Mock
+    private LogUtils logUtils;
+
+    @AfterEach
+    void tearDown() {
+        if (blockingTaskExecutor.getExecutor() != null) {
+            blockingTaskExecutor.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe usar un pool fijo de hilos de plataforma por defecto")
+    void afterPropertiesSet_givenDefaultMode_usesPlatformPool() throws Exception {
+        configure(false, 2);
+
+        final String threadName = blockingTaskExecutor.getExecutor().submit(() -> Thread.currentThread().getName()).get();
+
+        assertFalse(blockingTaskExecutor.isVirtual());
+        assertTrue(threadName.startsWith("nb-blocking-"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar las tareas cuando el pool de plataforma y su cola estan llenos")
+    void execute_givenFullPlatformPoolAndQueue_rejects() throws Exception {
+        ReflectionTestUtils.setField(blockingTaskExecutor, "platformQueueCapacity", 1);
+        configure(false, 1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Runnable blocking = () -> {
+            started.countDown();
+            awaitQuietly(release);
+        };
+
+        try {
+            blockingTaskExecutor.getExecutor().execute(blocking);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            blockingTaskExecutor.getExecutor().execute(blocking);
+
+            assertThrows(RejectedExecutionException.class, () -> blockingTaskExecutor.getExecutor().execute(blocking));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe usar hilos virtuales cuando la JVM los soporta y volver a plataforma cuando no")
+    void afterPropertiesSet_givenVirtualMode_dependsOnJvmSupport() throws Exception {
+        configure(true, 2);
+
+        final boolean supported = Runtime.version().feature() >= 21;
+
+        assertEquals(supported, blockingTaskExecutor.isVirtual());
+        assertEquals("ok", blockingTaskExecutor.getExecutor().submit(() -> "ok").get());
+        if (supported) {
+            verifyNoInteractions(logUtils);
+        } else {
+            verify(logUtils).logError(anyString(), anyString(), anyString());
+        }
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void configure(final boolean virtualThreads, final int platformPoolSize) {
+        ReflectionTestUtils.setField(blockingTaskExecutor, "virtualThreads", virtualThreads);
+        ReflectionTestUtils.setField(blockingTaskExecutor, "platformPoolSize", platformPoolSize);
+        ReflectionTestUtils.setField(blockingTaskExecutor, "shutdownTimeoutMs", 1000L);
+        blockingTaskExecutor.afterPropertiesSet();
+    }
+}
@@ -0,0 +1,270 @@
+package uy.com.bbva.services.nonbusinesses.service.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.model.exceptions.DGIException;
+import uy.com.bbva.services.nonbusinesses.model.external.BusinessInformation;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.BUSINESS_RUT_VALID;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.ERROR_EXECUTION;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Suite de pruebas de BusinessInformationCache:")
+class BusinessInformationCacheTest {
+
+    @InjectMocks
+    private BusinessInformationCache cache;
+
+    @Mock
+    private BusinessInformationGuard businessInformationGuard;
+
+    @Mock
+    private BlockingTaskExecutor blockingTaskExecutor;
+
+    @Mock
+    private ExecutorService executorService;
+
+    @Mock
+    private LogUtils logUtils;
+
+    private final BusinessInformation cached = new BusinessInformation();
+    private final BusinessInformation refreshed = new BusinessInformation();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(cache, "staleMillis", 60_000L);
+        ReflectionTestUtils.setField(cache, "negativeTtlMillis", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+    }
+
+    @Test
+    @DisplayName("Debe consultar DGI en cada pedido cuando el cache esta deshabilitado")
+    void get_givenDisabled_alwaysCallsDgi() throws Exception {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        when(businessInformationGuard.call(BUSINESS_RUT_VALID)).thenReturn(cached);
+
+        cache.get(BUSINESS_RUT_VALID);
+        cache.get(BUSINESS_RUT_VALID);
+
+        verify(businessInformationGuard, times(2)).call(BUSINESS_RUT_VALID);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Debe devolver el dato vigente sin volver a consultar DGI")
+    void get_givenFreshEntry_returnsCachedValue() throws Exception {
+        when(businessInformationGuard.call(BUSINESS_RUT_VALID)).thenReturn(cached);
+
+        assertSame(cached, cache.get(BUSINESS_RUT_VALID));
+        assertSame(cached, cache.get(BUSINESS_RUT_VALID));
+
+        verify(businessInformationGuard, times(1)).call(BUSINESS_RUT_VALID);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRatio());
+    }
+
+    @Test
+    @DisplayName("Debe devolver el dato obsoleto y refrescarlo en segundo plano")
+    void get_givenStaleEntry_returnsStaleValueAndRefreshes() throws Exception {
+        ReflectionTestUtils.setField(cache, "ttlMillis", 0L);
+        runRefreshesInline();
+        when(businessInformationGuard.call(BUSINESS_RUT_VALID)).thenReturn(cached, refreshed);
+
+        cache.get(BUSINESS_RUT_VALID);
+        final BusinessInformation stale = cache.get(BUSINESS_RUT_VALID);
+
+        assertSame(cached, stale);
+        assertSame(refreshed, cache.get(BUSINESS_RUT_VALID));
+        assertEquals(2, cache.getStaleHits());
+        assertTrue(cache.getRefreshes() >= 1);
+        assertEquals(0, cache.getRefreshFailures());
+    }
+
+    @Test
+    @DisplayName("Debe mantener el dato obsoleto cuando el refresco falla")
+    void get_givenRefreshFailure_keepsStaleValue() throws Exception {
+        ReflectionTestUtils.setField(cache, "ttlMillis", 0L);
+        runRefreshesInline();
+        final DGIException failure = mock(DGIException.class);
+        when(businessInformationGuard.call(BUSINESS_RUT_VALID)).thenReturn(cached).thenThrow(failure);
+
+        cache.get(BUSINESS_RUT_VALID);
+
+        assertSame(cached, cache.get(BUSINESS_RUT_VALID));
+        assertSame(cached, cache.get(BUSINESS_RUT_VALID));
+        assertEquals(2, cache.getRefreshFailures());
+        verify(logUtils, times(2)).logError(anyString(), anyString(), nullable(String.class));
+    }
+
+    @Test
+    @DisplayName("Debe recordar por un plazo corto el error de DGI")
+    void get_givenDgiError_cachesFailure() throws Exception {
+        final DGIException failure = mock(DGIException.class);
+        when(businessInformationGuard.call(BUSINESS_RUT_VALID)).thenThrow(failure);
+
+        when(failure.getMessage()).thenReturn(ERROR_EXECUTION);
+
+        assertSame(failure, assertThrows(DGIException.class, () -> cache.get(BUSINESS_RUT_VALID)));
+        final DGIUnavailableException first = assertThrows(DGIUnavailableException.class, () -> cache.get(BUSINESS_RUT_VALID));
+        final DGIUnavailableException second = assertThrows(DGIUnavailableException.class, () -> cache.get(BUSINESS_RUT_VALID));
+
+        // Cada pedido recibe su propia excepcion con el rut y el mensaje del error recordado
+        assertNotSame(first, second);
+        assertEquals(BUSINESS_RUT_VALID, first.getRut());
+        assertEquals(ERROR_EXECUTION, first.getCause().getMessage());
+        verify(businessInformationGuard, times(1)).call(BUSINESS_RUT_VALID);
+        assertEquals(2, cache.getNegativeHits());
+    }
+
+    @Test
+    @DisplayName("Debe volver a consultar DGI cuando vence el error recordado")
+    void get_givenExpiredFailure_callsDgiAgain() throws Exception {
+        ReflectionTestUtils.setField(cache, "negativeTtlMillis", 0L);
+        final DGIException failure = mock(DGIException.class);
+        when(businessInformationGuard.call(BUSINESS_RUT_VALID)).thenThrow(failure).thenReturn(cached);
+
+        assertThrows(DGIException.class, () -> cache.get(BUSINESS_RUT_VALID));
+
+        assertSame(cached, cache.get(BUSINESS_RUT_VALID));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Debe respetar la cantidad maxima de entradas")
+    void get_givenFullCache_evictsEntries() throws Exception {
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        when(businessInformationGuard.call(anyString())).thenReturn(cached);
+
+        cache.get("1");
+        cache.get("2");
+        cache.get("3");
+
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("Debe descartar la entrada usada hace mas tiempo cuando el cache esta lleno")
+    void get_givenFullCache_evictsLeastRecentlyUsed() throws Exception {
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        when(businessInformationGuard.call(anyString())).thenReturn(cached);
+
+        cache.get("1");
+        cache.get("2");
+        cache.get("1");
+        cache.get("3");
+        cache.get("1");
+        cache.get("2");
+
+        verify(businessInformationGuard, times(1)).call("1");
+        verify(businessInformationGuard, times(2)).call("2");
+        verify(businessInformationGuard, times(1)).call("3");
+    }
+
+    @Test
+    @DisplayName("Debe compartir una unica consulta a DGI entre pedidos simultaneos por el mismo rut")
+    void get_givenConcurrentLookups_sharesSingleCall() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        when(businessInformationGuard.call(BUSINESS_RUT_VALID)).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return cached;
+        });
+
+        final Future<BusinessInformation>[] results = lookupConcurrently(release);
+
+        assertSame(cached, results[0].get(5, TimeUnit.SECONDS));
+        assertSame(cached, results[1].get(5, TimeUnit.SECONDS));
+        verify(businessInformationGuard, times(1)).call(BUSINESS_RUT_VALID);
+        assertEquals(0, cache.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Debe compartir el error de DGI entre pedidos simultaneos por el mismo rut")
+    void get_givenConcurrentLookupsAndDgiError_sharesFailure() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final DGIException failure = mock(DGIException.class);
+        when(businessInformationGuard.call(BUSINESS_RUT_VALID)).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            throw failure;
+        });
+
+        final Future<BusinessInformation>[] results = lookupConcurrently(release);
+
+        for (final Future<BusinessInformation> result : results) {
+            final Exception thrown = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, thrown.getCause());
+        }
+        verify(businessInformationGuard, times(1)).call(BUSINESS_RUT_VALID);
+    }
+
+    @Test
+    @DisplayName("No debe compartir el plazo vencido de quien consulta: los que esperaban consultan por su cuenta")
+    void get_givenOwnerAbandonsLookup_waiterRetries() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final ServiceException expired = new ServiceException(BusinessInformationGuard.class.getCanonicalName(), "plazo vencido", new TimeoutException());
+        when(businessInformationGuard.call(BUSINESS_RUT_VALID)).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            throw expired;
+        }).thenReturn(cached);
+
+        final Future<BusinessInformation>[] results = lookupConcurrently(release);
+
+        final Exception thrown = assertThrows(Exception.class, () -> results[0].get(5, TimeUnit.SECONDS));
+        assertSame(expired, thrown.getCause());
+        assertSame(cached, results[1].get(5, TimeUnit.SECONDS));
+        verify(businessInformationGuard, times(2)).call(BUSINESS_RUT_VALID);
+        assertEquals(0, cache.getInFlight());
+    }
+
+    // Lanza dos consultas con el cache deshabilitado y libera DGI cuando la segunda ya esta esperando a la primera
+    @SuppressWarnings("unchecked")
+    private Future<BusinessInformation>[] lookupConcurrently(final CountDownLatch release) throws Exception {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        ReflectionTestUtils.setField(cache, "singleFlight", true);
+        final ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            final Future<BusinessInformation> first = callers.submit(() -> cache.get(BUSINESS_RUT_VALID));
+            while (cache.getInFlight() == 0) {
+                Thread.onSpinWait();
+            }
+            final Future<BusinessInformation> second = callers.submit(() -> cache.get(BUSINESS_RUT_VALID));
+            while (cache.getCoalesced() == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            return new Future[]{first, second};
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    private void runRefreshesInline() {
+        when(blockingTaskExecutor.getExecutor()).thenReturn(executorService);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(executorService).execute(any(Runnable.class));
+    }
+}
@@ -0,0 +1,180 @@
+package uy.com.bbva.services.nonbusinesses.service.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.model.exceptions.DGIException;
+import uy.com.bbva.services.nonbusinesses.model.external.BusinessInformation;
+import uy.com.bbva.services.nonbusinesses.service.external.BusinessInformationService;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.BUSINESS_RUT_VALID;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Suite de pruebas de BusinessInformationGuard:")
+class BusinessInformationGuardTest {
+
+    @InjectMocks
+    private BusinessInformationGuard guard;
+
+    @Mock
+    private BusinessInformationService businessInformationService;
+
+    private final BusinessInformation businessInformation = new BusinessInformation();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(guard, "enabled", true);
+        ReflectionTestUtils.setField(guard, "maxConcurrent", 2);
+        ReflectionTestUtils.setField(guard, "queueCapacity", 0);
+        ReflectionTestUtils.setField(guard, "timeoutMillis", 5000L);
+        ReflectionTestUtils.setField(guard, "hedgePercentile", 0.5);
+        ReflectionTestUtils.setField(guard, "hedgeMinSamples", 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        guard.destroy();
+    }
+
+    @Test
+    @DisplayName("Debe llamar a DGI en el hilo del pedido cuando esta deshabilitado")
+    void call_givenDisabled_callsDgiInline() throws Exception {
+        ReflectionTestUtils.setField(guard, "enabled", false);
+        guard.afterPropertiesSet();
+        final AtomicReference<Thread> caller = new AtomicReference<>();
+        when(businessInformationService.getBusinessInformation(BUSINESS_RUT_VALID)).thenAnswer(invocation -> {
+            caller.set(Thread.currentThread());
+            return businessInformation;
+        });
+
+        assertSame(businessInformation, guard.call(BUSINESS_RUT_VALID));
+        assertSame(Thread.currentThread(), caller.get());
+        assertEquals(0, guard.getCalls());
+    }
+
+    @Test
+    @DisplayName("Debe devolver la respuesta de DGI obtenida en el pool dedicado")
+    void call_givenEnabled_callsDgiInDedicatedPool() throws Exception {
+        guard.afterPropertiesSet();
+        final AtomicReference<String> threadName = new AtomicReference<>();
+        when(businessInformationService.getBusinessInformation(BUSINESS_RUT_VALID)).thenAnswer(invocation -> {
+            threadName.set(Thread.currentThread().getName());
+            return businessInformation;
+        });
+
+        assertSame(businessInformation, guard.call(BUSINESS_RUT_VALID));
+        assertTrue(threadName.get().startsWith("nb-dgi-"));
+    }
+
+    @Test
+    @DisplayName("Debe propagar el error de DGI")
+    void call_givenDgiError_rethrowsDgiException() throws Exception {
+        guard.afterPropertiesSet();
+        final DGIException failure = mock(DGIException.class);
+        when(businessInformationService.getBusinessInformation(BUSINESS_RUT_VALID)).thenThrow(failure);
+
+        assertSame(failure, assertThrows(DGIException.class, () -> guard.call(BUSINESS_RUT_VALID)));
+    }
+
+    @Test
+    @DisplayName("Debe abandonar y cancelar la llamada a DGI al vencer el tiempo maximo")
+    void call_givenSlowDgi_timesOutAndCancels() throws Exception {
+        ReflectionTestUtils.setField(guard, "timeoutMillis", 50L);
+        guard.afterPropertiesSet();
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        when(businessInformationService.getBusinessInformation(BUSINESS_RUT_VALID)).thenAnswer(invocation -> blockUntilInterrupted(interrupted));
+
+        final DGIUnavailableException ex = assertThrows(DGIUnavailableException.class, () -> guard.call(BUSINESS_RUT_VALID));
+
+        assertInstanceOf(TimeoutException.class, ex.getCause());
+        assertEquals(BUSINESS_RUT_VALID, ex.getRut());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, guard.getTimeouts());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar de inmediato cuando el pool de DGI esta lleno")
+    void call_givenFullBulkhead_rejects() throws Exception {
+        ReflectionTestUtils.setField(guard, "maxConcurrent", 1);
+        guard.afterPropertiesSet();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        when(businessInformationService.getBusinessInformation(BUSINESS_RUT_VALID)).thenAnswer(invocation -> {
+            started.countDown();
+            return blockUntilInterrupted(interrupted);
+        });
+        final ExecutorService callers = Executors.newSingleThreadExecutor();
+        try {
+            final Future<BusinessInformation> occupying = callers.submit(() -> guard.call(BUSINESS_RUT_VALID));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            final DGIUnavailableException ex = assertThrows(DGIUnavailableException.class, () -> guard.call(BUSINESS_RUT_VALID));
+
+            assertEquals(BUSINESS_RUT_VALID, ex.getRut());
+            assertEquals(1, guard.getRejected());
+            occupying.cancel(true);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe enviar una llamada de respaldo cuando la primera supera el percentil de latencia")
+    void call_givenSlowFirstAttempt_hedgeWins() throws Exception {
+        ReflectionTestUtils.setField(guard, "hedgeEnabled", true);
+        guard.afterPropertiesSet();
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        when(businessInformationService.getBusinessInformation(BUSINESS_RUT_VALID))
+                .thenReturn(businessInformation)
+                .thenAnswer(invocation -> blockUntilInterrupted(interrupted))
+                .thenReturn(businessInformation);
+
+        guard.call(BUSINESS_RUT_VALID);
+        final BusinessInformation result = guard.call(BUSINESS_RUT_VALID);
+
+        assertSame(businessInformation, result);
+        assertEquals(1, guard.getHedgesIssued());
+        assertEquals(1, guard.getHedgesWon());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("No debe enviar llamadas de respaldo sin suficientes muestras de latencia")
+    void call_givenNoLatencySamples_doesNotHedge() throws Exception {
+        ReflectionTestUtils.setField(guard, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(guard, "hedgeMinSamples", 20);
+        guard.afterPropertiesSet();
+        when(businessInformationService.getBusinessInformation(BUSINESS_RUT_VALID)).thenReturn(businessInformation);
+
+        guard.call(BUSINESS_RUT_VALID);
+
+        assertEquals(0, guard.getHedgesIssued());
+        assertEquals(-1, guard.getHedgeDelayMillis());
+    }
+
+    private static BusinessInformation blockUntilInterrupted(final CountDownLatch interrupted) {
+        try {
+            new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+        return null;
+    }
+}
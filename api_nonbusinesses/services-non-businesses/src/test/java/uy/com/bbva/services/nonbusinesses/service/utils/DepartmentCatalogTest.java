@@ -0,0 +1,206 @@
+package uy.com.bbva.services.nonbusinesses.service.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uy.com.bbva.dtos.commons.model.GenericIdDescription;
+import uy.com.bbva.logcommons.log.utils.LogUtils;
+import uy.com.bbva.services.commons.exceptions.ServiceException;
+import uy.com.bbva.services.nonbusinesses.dao.DAO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static uy.com.bbva.services.nonbusinesses.common.TestDataFactory.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Suite de pruebas de DepartmentCatalog:")
+class DepartmentCatalogTest {
+
+    @InjectMocks
+    private DepartmentCatalog departmentCatalog;
+
+    @Mock
+    private DAO dao;
+
+    @Mock
+    private LogUtils logUtils;
+
+    private Map<String, GenericIdDescription> departmentsMap;
+
+    @BeforeEach
+    void setUp() {
+        departmentsMap = createDepartmentsMap();
+        ReflectionTestUtils.setField(departmentCatalog, "refreshIntervalMinutes", 60L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ReflectionTestUtils.getField(departmentCatalog, "scheduler") != null) {
+            departmentCatalog.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe cargar los departamentos al iniciar y no volver a consultar el AS400 al leerlos")
+    void getDepartments_afterStartup_servesSnapshotWithoutDaoCall() throws Exception {
+        when(dao.getDepartments()).thenReturn(departmentsMap);
+
+        departmentCatalog.afterPropertiesSet();
+        final Map<String, GenericIdDescription> first = departmentCatalog.getDepartments();
+        final Map<String, GenericIdDescription> second = departmentCatalog.getDepartments();
+
+        assertEquals(departmentsMap, first);
+        assertSame(first, second);
+        verify(dao, times(1)).getDepartments();
+    }
+
+    @Test
+    @DisplayName("No debe bloquear el arranque mientras el AS400 no responde y debe servir la carga al terminar")
+    void afterPropertiesSet_givenSlowAs400_doesNotBlockStartup() throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicReference<String> loadThread = new AtomicReference<>();
+        when(dao.getDepartments()).thenAnswer(invocation -> {
+            loadThread.set(Thread.currentThread().getName());
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return departmentsMap;
+        });
+
+        departmentCatalog.afterPropertiesSet();
+
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        assertEquals("nb-departments-refresh", loadThread.get());
+        release.countDown();
+        assertEquals(departmentsMap, departmentCatalog.getDepartments());
+        verify(dao, times(1)).getDepartments();
+    }
+
+    @Test
+    @DisplayName("Debe devolver un catalogo inmutable")
+    void getDepartments_returnsUnmodifiableMap() throws Exception {
+        when(dao.getDepartments()).thenReturn(departmentsMap);
+        departmentCatalog.afterPropertiesSet();
+
+        final Map<String, GenericIdDescription> departments = departmentCatalog.getDepartments();
+
+        assertThrows(UnsupportedOperationException.class, () -> departments.put("XXX", new GenericIdDescription("99", "Otro")));
+    }
+
+    @Test
+    @DisplayName("Debe reemplazar la foto al refrescar manualmente")
+    void refresh_givenNewData_replacesSnapshot() throws Exception {
+        final Map<String, GenericIdDescription> refreshed = Map.of(DEPARTMENT_CANELONES_ID, new GenericIdDescription(DEPARTMENT_CANELONES_ID, DEPARTMENT_CANELONES_NAME));
+        when(dao.getDepartments()).thenReturn(departmentsMap).thenReturn(refreshed);
+        departmentCatalog.afterPropertiesSet();
+        departmentCatalog.getDepartments();
+
+        departmentCatalog.refresh();
+
+        assertEquals(refreshed, departmentCatalog.getDepartments());
+    }
+
+    @Test
+    @DisplayName("Debe mantener la foto anterior cuando falla un refresco")
+    void refresh_givenDaoFailure_keepsPreviousSnapshot() throws Exception {
+        final ServiceException failure = new ServiceException(DAO_CLASS_NAME, ERROR_DATABASE, new Exception(ERROR_DATABASE));
+        when(dao.getDepartments()).thenReturn(departmentsMap).thenThrow(failure);
+        departmentCatalog.afterPropertiesSet();
+        departmentCatalog.getDepartments();
+
+        assertThrows(ServiceException.class, () -> departmentCatalog.refresh());
+
+        assertEquals(departmentsMap, departmentCatalog.getDepartments());
+    }
+
+    @Test
+    @DisplayName("Debe reintentar la carga en la lectura cuando la carga inicial fallo")
+    void getDepartments_givenFailedStartup_loadsOnFirstRead() throws Exception {
+        final ServiceException failure = new ServiceException(DAO_CLASS_NAME, ERROR_DATABASE, new Exception(ERROR_DATABASE));
+        when(dao.getDepartments()).thenThrow(failure).thenReturn(departmentsMap);
+
+        departmentCatalog.afterPropertiesSet();
+
+        verify(logUtils, timeout(5000)).logError(eq(DepartmentCatalog.class.getName()), anyString(), any());
+        assertEquals(departmentsMap, departmentCatalog.getDepartments());
+        verify(dao, times(2)).getDepartments();
+    }
+
+    @Test
+    @DisplayName("No debe programar refrescos cuando el intervalo es cero")
+    void afterPropertiesSet_givenZeroInterval_loadsOnceWithoutRefreshes() throws Exception {
+        ReflectionTestUtils.setField(departmentCatalog, "refreshIntervalMinutes", 0L);
+        when(dao.getDepartments()).thenReturn(departmentsMap);
+
+        assertDoesNotThrow(() -> departmentCatalog.afterPropertiesSet());
+
+        assertTrue(((ScheduledExecutorService) ReflectionTestUtils.getField(departmentCatalog, "scheduler")).isShutdown());
+        assertEquals(departmentsMap, departmentCatalog.getDepartments());
+        verify(dao, times(1)).getDepartments();
+        assertDoesNotThrow(() -> departmentCatalog.destroy());
+    }
+
+    @Test
+    @DisplayName("Debe descartar las entradas sin codigo en lugar de fallar la carga")
+    void refresh_givenNullKey_skipsEntry() throws Exception {
+        final Map<String, GenericIdDescription> withNullKey = new HashMap<>(departmentsMap);
+        withNullKey.put(null, new GenericIdDescription("99", "Sin codigo"));
+        when(dao.getDepartments()).thenReturn(withNullKey);
+
+        departmentCatalog.refresh();
+
+        assertEquals(departmentsMap, departmentCatalog.getDepartments());
+    }
+
+    @Test
+    @DisplayName("Debe hacer una sola carga para los lectores simultaneos cuando la carga inicial fallo")
+    void getDepartments_givenFailedStartupAndConcurrentReaders_loadsOnce() throws Exception {
+        final ServiceException failure = new ServiceException(DAO_CLASS_NAME, ERROR_DATABASE, new Exception(ERROR_DATABASE));
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(dao.getDepartments()).thenThrow(failure).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return departmentsMap;
+        });
+        departmentCatalog.afterPropertiesSet();
+        verify(logUtils, timeout(5000)).logError(eq(DepartmentCatalog.class.getName()), anyString(), any());
+
+        final ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Map<String, GenericIdDescription>>> results = new ArrayList<>();
+            results.add(readers.submit(() -> departmentCatalog.getDepartments()));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(readers.submit(() -> departmentCatalog.getDepartments()));
+            }
+            release.countDown();
+
+            for (final Future<Map<String, GenericIdDescription>> result : results) {
+                assertEquals(departmentsMap, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+        verify(dao, times(2)).getDepartments();
+    }
+}